@@ -126,6 +126,8 @@ public final class DHistogram extends Iced {
   public SharedTreeModel.SharedTreeParameters.HistogramType _histoType; //whether ot use random split points
   transient double _splitPts[]; // split points between _min and _maxEx (either random or based on quantiles)
   transient int _zeroSplitPntPos;
+  transient double _globalSplitPts[]; // top-level quantiles, if _splitPts is an unpadded slice of them
+  transient int _globalBinOff;        // position of _splitPts[0] in _globalSplitPts
   public final long _seed;
   public transient boolean _hasQuantiles;
   public Key _globalQuantilesKey; //key under which original top-level quantiles are stored;
@@ -313,8 +315,10 @@ public final class DHistogram extends Iced {
           _splitPts = ((HistoQuantiles) DKV.getGet(_globalQuantilesKey)).splitPts;
           if (_splitPts!=null) {
 //            Log.info("Obtaining global splitPoints: " + Arrays.toString(_splitPts));
+            final double[] global = _splitPts;
             _splitPts = ArrayUtils.limitToRange(_splitPts, _min, _maxEx);
-            if (_splitPts.length > 1 && _splitPts.length < _nbin)
+            final boolean padded = _splitPts.length > 1 && _splitPts.length < _nbin;
+            if (padded)
               _splitPts = ArrayUtils.padUniformly(_splitPts, _nbin);
             if (_splitPts.length <= 1) {
               _splitPts = null; //abort, fall back to uniform binning
@@ -323,6 +327,11 @@ public final class DHistogram extends Iced {
             else {
               _hasQuantiles=true;
               _nbin = (char)_splitPts.length;
+              if (!padded) { // bins line up with the top-level ones, see GlobalQuantileBins
+                _globalSplitPts = global;
+                _globalBinOff = Arrays.binarySearch(global, _splitPts[0]);
+                assert _globalBinOff >= 0;
+              }
 //              Log.info("Refined splitPoints: " + Arrays.toString(_splitPts));
             }
           }
@@ -473,6 +482,17 @@ public final class DHistogram extends Iced {
    * @param lo  lower bound on index into rows array to be processed by this call (inclusive)
    */
   void updateHisto(double[] ws, double resp[], double[] cs, double[] ys, double[] preds, int[] rows, int hi, int lo){
+    updateHisto(ws, resp, cs, ys, preds, null, rows, hi, lo);
+  }
+
+  /**
+   * Same as above, optionally with the pre-computed top-level quantile bins
+   * of the rows (see {@link GlobalQuantileBins}) in place of searching the
+   * split points of this histogram for every row.
+   */
+  void updateHisto(double[] ws, double resp[], double[] cs, double[] ys, double[] preds, char[] gbins, int[] rows, int hi, int lo){
+    assert gbins == null || _globalSplitPts != null;
+    final int maxBin = _nbin - 1;
     // Gather all the data for this set of rows, for 1 column and 1 split/NID
     // Gather min/max, wY and sum-squares.
     for(int r = lo; r< hi; ++r) {
@@ -487,7 +507,13 @@ public final class DHistogram extends Iced {
       assert (!Double.isNaN(y));
       double wy = weight * y;
       double wyy = wy * y;
-      int b = bin(col_data);
+      int b;
+      if (gbins != null && !Double.isNaN(col_data)) {
+        b = gbins[k] - _globalBinOff;
+        b = b < 0 ? 0 : (b > maxBin ? maxBin : b); // Infinities clamp to the edge bins
+        assert Double.isInfinite(col_data) || b == bin(col_data);
+      } else
+        b = bin(col_data);
       _vals[_vals_dim*b + 0] += weight;
       _vals[_vals_dim*b + 1] += wy;
       _vals[_vals_dim*b + 2] += wyy;
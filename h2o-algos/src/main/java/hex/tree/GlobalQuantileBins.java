@@ -0,0 +1,87 @@
+package hex.tree;
+
+import water.H2O;
+import water.Key;
+import water.MRTask;
+import water.nbhm.NonBlockingHashMap;
+import water.nbhm.NonBlockingHashMapLong;
+
+import java.util.Arrays;
+
+/**
+ * Node-local cache of pre-binned training columns for QuantilesGlobal
+ * histograms.  The position of every row among the top-level split points of
+ * its column is found once per training job (a binary search per value) and
+ * kept as a compact char[] per chunk.  Every tree and every tree level then
+ * reuses it: a node histogram whose split points are a contiguous slice of the
+ * top-level ones (see {@link DHistogram#_globalBinOff}) gets its bin as the
+ * cached position minus the offset of the slice.
+ *
+ * Off by default as it costs 2 bytes per row and numeric column on each node;
+ * enable with {@code -Dsys.ai.h2o.tree.prebinQuantiles=true}.
+ */
+final class GlobalQuantileBins {
+  static boolean ENABLED = H2O.getSysBoolProperty("tree.prebinQuantiles", false);
+
+  // Quantiles key (one per column and model) -> chunk index -> bins
+  private static final NonBlockingHashMap<Key, NonBlockingHashMapLong<char[]>> CACHE = new NonBlockingHashMap<>();
+
+  private GlobalQuantileBins() {}
+
+  /** True if bins of this histogram can be taken from the cache. */
+  static boolean usable(DHistogram h) {
+    return ENABLED && h._globalSplitPts != null && h._globalSplitPts.length <= Character.MAX_VALUE + 1;
+  }
+
+  /**
+   * Global bins of the rows of one chunk, computed from the column values on
+   * the first call and cached afterwards.
+   * @param cs the chunk values, as extracted for the histograms
+   */
+  static char[] bins(DHistogram h, int cidx, double[] cs, int len) {
+    assert usable(h);
+    NonBlockingHashMapLong<char[]> chks = CACHE.get(h._globalQuantilesKey);
+    if (chks == null) {
+      NonBlockingHashMapLong<char[]> old = CACHE.putIfAbsent(h._globalQuantilesKey, chks = new NonBlockingHashMapLong<>());
+      if (old != null) chks = old;
+    }
+    char[] bins = chks.get(cidx);
+    if (bins == null || bins.length != len) {
+      bins = compute(h._globalSplitPts, cs, len);
+      chks.put(cidx, bins);     // Racing threads compute the same bins
+    }
+    return bins;
+  }
+
+  // Index of the last split point <= x, clamped into the split points; same
+  // search as DHistogram.bin() does on its slice.  NAs get a dummy bin, they
+  // go to the NA bucket without looking at it.
+  static char[] compute(double[] splitPts, double[] cs, int len) {
+    char[] bins = new char[len];
+    final int last = splitPts.length - 1;
+    for (int i = 0; i < len; i++) {
+      double x = cs[i];
+      if (Double.isNaN(x)) continue;
+      if (x == 0) x = 0.0;      // Canonical zero, as DHistogram.init() does for split points
+      int idx = Arrays.binarySearch(splitPts, x);
+      if (idx < 0) idx = -idx - 2;
+      bins[i] = (char) (idx < 0 ? 0 : Math.min(idx, last));
+    }
+    return bins;
+  }
+
+  /** Drop the cached bins of a finished job, on all nodes. */
+  static void remove(Key[] quantilesKeys) {
+    if (!ENABLED) return;
+    new RemoveBins(quantilesKeys).doAllNodes();
+  }
+
+  private static class RemoveBins extends MRTask<RemoveBins> {
+    final Key[] _keys;
+    RemoveBins(Key[] keys) { _keys = keys; }
+    @Override protected void setupLocal() {
+      for (Key k : _keys)
+        if (k != null) CACHE.remove(k);
+    }
+  }
+}
@@ -9,6 +9,8 @@ import water.util.IcedBitSet;
 import water.util.VecUtils;
 
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -156,6 +158,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     addToPendingCount(1);
     // Init all the internal tree fields after shipping over the wire
     _tree.init_tree();
+    _valsPool = new ConcurrentHashMap<>();
+    _scratchPool = new ConcurrentLinkedQueue<>();
     Vec v = _fr2.anyVec();
     assert(v!=null);
     _cids = VecUtils.getLocalChunkIds(v);
@@ -268,13 +272,56 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }).fork();
   }
 
-  private static void mergeHistos(DHistogram [] hcs, DHistogram [] hcs2){
+  // Chunk scratch (column, response and prediction values) of the workers
+  // which ran out of chunks, handed on to the workers of the other columns.
+  // There are at most as many sets as workers running at once, and both pools
+  // are dropped in closeLocal, so no buffers outlive the task.
+  private transient ConcurrentLinkedQueue<double[][]> _scratchPool;
+
+  private double[][] scratch(int len) {
+    double[][] bufs = _scratchPool.poll();
+    if (bufs == null)
+      bufs = new double[][]{
+          MemoryManager.malloc8d(len),
+          _respIdx >= 0 ? MemoryManager.malloc8d(len) : null,
+          _predsIdx >= 0 ? MemoryManager.malloc8d(len) : null
+      };
+    return bufs;
+  }
+
+  // Histogram arrays of reduced-away private copies, recycled into the private
+  // copies still to be filled (other columns, same bin count).
+  private transient ConcurrentHashMap<Integer, ConcurrentLinkedQueue<double[]>> _valsPool;
+
+  private double[] pooledVals(int len) {
+    ConcurrentLinkedQueue<double[]> q = _valsPool.get(len);
+    double[] vals = q == null ? null : q.poll();
+    if (vals != null) Arrays.fill(vals, 0);
+    return vals;
+  }
+
+  private void recycleVals(double[] vals) {
+    ConcurrentLinkedQueue<double[]> q = _valsPool.get(vals.length);
+    if (q == null) {
+      ConcurrentLinkedQueue<double[]> q2 = _valsPool.putIfAbsent(vals.length, q = new ConcurrentLinkedQueue<>());
+      if (q2 != null) q = q2;
+    }
+    q.add(vals);
+  }
+
+  private void mergeHistos(DHistogram [] hcs, DHistogram [] hcs2){
     // Distributed histograms need a little work
     for( int i=0; i< hcs.length; i++ ) {
       DHistogram hs1 = hcs[i], hs2 = hcs2[i];
       if( hs1 == null ) hcs[i] = hs2;
-      else if( hs2 != null )
+      else if( hs2 != null ) {
+        boolean stolen = hs1._vals == null; // add() adopts the array of an empty histogram
         hs1.add(hs2);
+        if (!stolen && hs2._vals != null) {
+          recycleVals(hs2._vals);
+          hs2._vals = null;
+        }
+      }
     }
   }
 
@@ -300,19 +347,12 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
 
     @Override
     protected void map(int id){
-      double[] cs = null;
-      double[] resp = null;
-      double[] preds = null;
+      double[][] bufs = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
-        if (cs == null) {
-          cs = MemoryManager.malloc8d(_maxChunkSz);
-          if (_respIdx >= 0)
-            resp = MemoryManager.malloc8d(_maxChunkSz);
-          if (_predsIdx >= 0)
-            preds = MemoryManager.malloc8d(_maxChunkSz);
-        }
-        computeChunk(i, cs, _ws[i], resp, preds);
+        if (bufs == null) bufs = scratch(_maxChunkSz);
+        computeChunk(i, bufs[0], _ws[i], bufs[1], bufs[2]);
       }
+      if (bufs != null) _scratchPool.add(bufs);
     }
 
     private void computeChunk(int id, double[] cs, double[] ws, double[] resp, double[] preds){
@@ -324,6 +364,7 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
       final int hcslen = _lh.length;
       boolean extracted = false;
+      char[] gbins = null;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
         if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
@@ -331,7 +372,7 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           int hi = nh[n];
           int lo = (n == 0 ? 0 : nh[n - 1]);
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
-          if (h._vals == null) h.init();
+          if (h._vals == null) h.init(pooledVals(h._vals_dim * h._nbin + h._vals_dim));
           if (! extracted) {
             _chks[id][_col].getDoubles(cs, 0, len);
             if (h._vals_dim >= 6) {
@@ -342,7 +383,9 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
             }
             extracted = true;
           }
-          h.updateHisto(ws, resp, cs, ys, preds, rs, hi, lo);
+          if (gbins == null && GlobalQuantileBins.usable(h))
+            gbins = GlobalQuantileBins.bins(h, _cids[id], cs, len);
+          h.updateHisto(ws, resp, cs, ys, preds, GlobalQuantileBins.usable(h) ? gbins : null, rs, hi, lo);
         }
       }
     }
@@ -354,6 +397,11 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  @Override protected void closeLocal() {
+    _valsPool = null;
+    _scratchPool = null;
+  }
+
   @Override public void postGlobal(){
     _hcs = ArrayUtils.transpose(_hcs);
     for(DHistogram [] ary:_hcs)
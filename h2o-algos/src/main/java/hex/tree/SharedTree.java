@@ -372,6 +372,7 @@ public abstract class SharedTree<
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) Keyed.remove(k);
+        GlobalQuantileBins.remove(getGlobalQuantilesKeys());
         if (_validWorkspace != null) {
           _validWorkspace.remove();
           _validWorkspace = null;
@@ -1,6 +1,10 @@
 package hex.gam;
 
 import hex.CreateFrame;
+import hex.genmodel.easy.EasyPredictModelWrapper;
+import hex.genmodel.easy.PredictorSession;
+import hex.genmodel.easy.RowData;
+import hex.genmodel.easy.prediction.RegressionModelPrediction;
 import hex.glm.GLMModel;
 import org.junit.Assert;
 import org.junit.Test;
@@ -8,6 +12,7 @@ import org.junit.runner.RunWith;
 import water.DKV;
 import water.Scope;
 import water.fvec.Frame;
+import water.fvec.Vec;
 import water.runner.CloudSize;
 import water.runner.H2ORunner;
 
@@ -150,6 +155,46 @@ public class GamMojoModelTest {
   }
   
   
+  // test and make sure a PredictorSession scores RowData of a GAM mojo like the wrapper does
+  @Test
+  public void testPredictorSession() throws Exception {
+    Scope.enter();
+    try {
+      final Frame fr = Scope.track(parse_test_file("smalldata/glm_test/auto.csv"));
+      final GAMModel.GAMParameters params = new GAMModel.GAMParameters();
+      params._response_column = "y";
+      params._family = gaussian;
+      params._ignored_columns = new String[]{"ID"};
+      params._gam_columns = new String[]{"x.TRAVTIME"};
+      params._num_knots = new int[]{5};
+      params._train = fr._key;
+      final GAMModel model = new GAM(params).trainModel().get();
+      Scope.track_generic(model);
+
+      EasyPredictModelWrapper wrapper = new EasyPredictModelWrapper(model.toMojo());
+      PredictorSession session = wrapper.newSession();
+      RegressionModelPrediction p = new RegressionModelPrediction();
+      for (long r = 0; r < Math.min(fr.numRows(), 500); r++) {
+        RowData row = new RowData();
+        for (String col : fr.names()) {
+          Vec v = fr.vec(col);
+          if (!v.isNA(r))
+            row.put(col, v.isCategorical() ? v.domain()[(int) v.at8(r)] : (Object) v.at(r));
+        }
+        session.setValues(row).predictRegression(p);
+        Assert.assertEquals("Row " + r, wrapper.predictRegression(row).value, p.value, 0);
+      }
+      try {
+        session.column("x.TRAVTIME");
+        Assert.fail("GAM columns are derived from RowData only");
+      } catch (UnsupportedOperationException e) {
+        // expected
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
   public GAMModel.GAMParameters buildGamParams(Frame train, GLMModel.GLMParameters.Family fam) {
     GAMModel.GAMParameters paramsO = new GAMModel.GAMParameters();
     paramsO._train = train._key;
@@ -8,6 +8,7 @@ import water.Scope;
 import water.TestUtil;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -71,4 +72,42 @@ public class DHistogramTest extends TestUtil {
     }
   }
 
+  @Test
+  public void updateHistoWithGlobalBinsMatchesBinarySearch() {
+    Scope.enter();
+    try {
+      double[] splitPts = new double[100];
+      for (int i = 0; i < splitPts.length; i++) splitPts[i] = i * 0.5 - 10;
+      DHistogram.HistoQuantiles hq = new DHistogram.HistoQuantiles(Key.make(), splitPts);
+      DKV.put(hq);
+      Scope.track_generic(hq);
+
+      DHistogram h1 = new DHistogram("test", 20, 1024, (byte) 0, 0, 20, false, -0.001,
+              SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 42L, hq._key, null);
+      DHistogram h2 = new DHistogram("test", 20, 1024, (byte) 0, 0, 20, false, -0.001,
+              SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 42L, hq._key, null);
+      h1.init();
+      h2.init();
+      assertNotNull(h2._globalSplitPts); // unpadded slice of the top-level split points
+      assertEquals(20, h2._globalBinOff);
+
+      final int N = 1000;
+      double[] cs = new double[N], ws = new double[N], ys = new double[N];
+      int[] rows = new int[N];
+      Random rnd = new Random(0xCAFE);
+      for (int i = 0; i < N; i++) {
+        cs[i] = i % 17 == 0 ? Double.NaN : (i % 23 == 0 ? -0.0 : rnd.nextDouble() * 20);
+        ws[i] = 1;
+        ys[i] = rnd.nextDouble();
+        rows[i] = i;
+      }
+      char[] gbins = GlobalQuantileBins.compute(h2._globalSplitPts, cs, N);
+      h1.updateHisto(ws, null, cs, ys, null, rows, N, 0);
+      h2.updateHisto(ws, null, cs, ys, null, gbins, rows, N, 0);
+      assertArrayEquals(h1._vals, h2._vals, 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
 }
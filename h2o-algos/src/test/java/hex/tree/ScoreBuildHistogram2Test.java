@@ -0,0 +1,86 @@
+package hex.tree;
+
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class ScoreBuildHistogram2Test extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  private static DHistogram[] rootHistograms(Frame fr, int ncols, int nbins, GBMModel.GBMParameters parms) {
+    return DHistogram.initialHist(fr, ncols, nbins, new DHistogram[ncols], 42, parms, new Key[ncols], null);
+  }
+
+  @Test
+  public void testHistogramsMatchSingleThreadedBuild() {
+    Scope.enter();
+    try {
+      final int ncols = 12, nbins = 20;
+      Vec vcon = Scope.track(Vec.makeCon(0, 20 * 1024, 10));
+      Vec[] vecs = new Vec[ncols + 2];
+      for (int c = 0; c < ncols; c++)
+        vecs[c] = Scope.track(vcon.makeRand(0xFEEDL + c));
+      new MRTask() {
+        @Override public void map(Chunk c) {
+          for (int i = 0; i < c._len; i += 7) c.setNA(i);
+        }
+      }.doAll(vecs[0]);
+      vecs[ncols] = Scope.track(vcon.makeRand(0xBEEFL));                 // work
+      vecs[ncols + 1] = Scope.track(vcon.makeVolatileInts(new int[]{0})[0]); // nids
+      assertTrue(vcon.nChunks() > 1);
+      String[] names = new String[ncols + 2];
+      for (int c = 0; c < names.length; c++) names[c] = "C" + c;
+      Frame fr = new Frame(names, vecs);
+
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      DTree tree = new DTree(fr, ncols, ncols, ncols, 42, parms);
+      DHistogram[][] hcs = new DHistogram[][]{rootHistograms(fr, ncols, nbins, parms)};
+      new DTree.UndecidedNode(tree, DTree.NO_PARENT, hcs[0], null);
+      ScoreBuildHistogram sbh = new ScoreBuildHistogram2(null, 0, ncols, nbins, parms._nbins_cats, tree, 0, hcs,
+          DistributionFamily.gaussian, -1, -1, -1, ncols, ncols + 1).dfork2(null, fr, false).getResult();
+
+      // Baseline: one histogram per column, filled chunk by chunk on this thread
+      DHistogram[] expected = rootHistograms(fr, ncols, nbins, parms);
+      for (DHistogram h : expected) h.init();
+      for (int cidx = 0; cidx < vcon.nChunks(); cidx++) {
+        Chunk work = vecs[ncols].chunkForChunkIdx(cidx);
+        int len = work._len;
+        double[] ys = work.getDoubles(new double[len], 0, len);
+        double[] ws = new double[len];
+        int[] rows = new int[len];
+        for (int i = 0; i < len; i++) { ws[i] = 1; rows[i] = i; }
+        for (int c = 0; c < ncols; c++) {
+          double[] cs = vecs[c].chunkForChunkIdx(cidx).getDoubles(new double[len], 0, len);
+          expected[c].updateHisto(ws, null, cs, ys, null, rows, len, 0);
+        }
+      }
+      for (int c = 0; c < ncols; c++) {
+        DHistogram exp = expected[c], act = sbh._hcs[0][c];
+        exp.reducePrecision();
+        assertEquals(exp._vals.length, act._vals.length);
+        for (int i = 0; i < exp._vals.length; i++)
+          assertEquals("column " + c + ", value " + i, exp._vals[i], act._vals[i], 1e-5 * Math.max(1, Math.abs(exp._vals[i])));
+        assertEquals(exp.find_min(), act.find_min(), 0);
+        assertEquals(exp.find_maxIn(), act.find_maxIn(), 0);
+      }
+      assertTrue("NAs are counted", expected[0].wNA() > 0);
+      assertEquals(expected[0].wNA(), sbh._hcs[0][0].wNA(), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+}
@@ -383,6 +383,8 @@ public final class AutoBuffer {
   static BBPool BBP_SML = new BBPool( 2*1024); // Bytebuffer "common small size", for UDP
   static BBPool BBP_BIG = new BBPool(64*1024); // Bytebuffer "common  big  size", for TCP
   public static int TCP_BUF_SIZ = BBP_BIG._size;
+  // Arrays at least this big bypass the ByteBuffer on channel reads & writes
+  static final int BULK_MIN = 4*BBP_BIG._size;
 
   private int bbFree() {
     if(_bb != null && _bb.isDirect())
@@ -691,6 +693,58 @@ public final class AutoBuffer {
     return _bb;
   }
 
+  // Large arrays bound for a channel are not sliced through the ByteBuffer.
+  // The buffered bytes and the array are handed together to a gathering write
+  // (or written back to back, for channels which cannot gather, e.g. SSL).
+  private void sendBulk( byte[] ary, int off, int length ) {
+    _size += _bb.position() + (length - off);
+    if( _chan == null )
+      TimeLine.record_send(this, true);
+
+    _bb.flip(); // Prep for writing.
+    try {
+      if( _chan == null )
+        tcpOpen(); // This is a big operation.  Open a TCP socket as-needed.
+      long ns = System.nanoTime();
+      ByteBuffer[] bbs = new ByteBuffer[]{_bb, ByteBuffer.wrap(ary, off, length - off)};
+      if( _chan instanceof GatheringByteChannel ) {
+        while( bbs[1].hasRemaining() )
+          ((GatheringByteChannel) _chan).write(bbs);
+      } else {
+        for( ByteBuffer bb : bbs )
+          while( bb.hasRemaining() )
+            ((WritableByteChannel) _chan).write(bb);
+      }
+      if( RANDOM_TCP_DROP != null && SocketChannelUtils.isSocketChannel(_chan) && RANDOM_TCP_DROP.nextInt(100) == 0 )
+        throw new IOException("Random TCP Write Fail");
+      _time_io_ns += (System.nanoTime()-ns);
+    } catch( IOException e ) {  // Some kind of TCP fail?  See sendPartial
+      throw new AutoBufferException(e);
+    }
+    _firstPage = false;
+    _bb.clear();
+  }
+
+  // Read the rest of a large array straight from the channel.  The ByteBuffer
+  // has been drained and is left empty, as if its bytes were all handed out.
+  private void readBulk( byte[] buf, int sofar, int len ) {
+    assert _read && !_bb.hasRemaining() || sofar == len;
+    ByteBuffer dst = ByteBuffer.wrap(buf, sofar, len - sofar);
+    long ns = System.nanoTime();
+    try {
+      while( dst.hasRemaining() ) {
+        int res = ((ReadableByteChannel) _chan).read(dst);
+        if( res <= 0 )          // Short read; see getImpl
+          throw new AutoBufferException(new EOFException("Reading "+len+" bytes, AB="+this));
+        _size += res;
+      }
+    } catch( IOException e ) {
+      throw new AutoBufferException(e);
+    }
+    _time_io_ns += (System.nanoTime()-ns);
+    _firstPage = false;
+  }
+
   // Called when the byte buffer doesn't have enough room
   // If buffer is array backed, and the needed room is small,
   // increase the size of the backing array,
@@ -1062,6 +1116,12 @@ public final class AutoBuffer {
   public byte[] getA1( int len ) {
     byte[] buf = MemoryManager.malloc1(len);
     int sofar = 0;
+    if( len >= BULK_MIN && _is == null && _chan instanceof ReadableByteChannel ) {
+      sofar = Math.min(_bb.remaining(), len);
+      _bb.get(buf, 0, sofar);   // Drain what is already buffered
+      readBulk(buf, sofar, len); // Then read the rest straight into the array
+      return buf;
+    }
     while( sofar < len ) {
       int more = Math.min(_bb.remaining(), len - sofar);
       _bb.get(buf, sofar, more);
@@ -1286,6 +1346,10 @@ public final class AutoBuffer {
   }
   public AutoBuffer putA1( byte[] ary, int length ) { return putA1(ary,0,length); }
   public AutoBuffer putA1( byte[] ary, int sofar, int length ) {
+    if( length - sofar >= BULK_MIN && (_chan != null || _h2o != null) ) {
+      sendBulk(ary, sofar, length); // Big array headed to a channel: skip the copy
+      return this;
+    }
     if (length - sofar > _bb.remaining()) expandByteBuffer(length-sofar);
     while( sofar < length ) {
       int len = Math.min(length - sofar, _bb.remaining());
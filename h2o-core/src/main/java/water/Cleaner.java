@@ -92,6 +92,7 @@ class Cleaner extends Thread {
       now = System.currentTimeMillis();
       _dirty = Long.MAX_VALUE; // Reset, since we are going write stuff out
       MemoryManager.set_goals("preclean",false);
+      OffHeapCopy.drainRetired(); // Off-heap copies of replaced Values
 
       // The age beyond which we need to toss out things to hit the desired
       // caching levels. If forced, be exact (toss out the minimal amount).
@@ -111,6 +112,7 @@ class Cleaner extends Thread {
       if( MemoryManager.canAlloc() ) Log.debug(s);
       else                           System.err.println(s);
       long cleaned = 0;         // Disk i/o bytes
+      long offheaped = 0;       // Bytes moved to the off-heap tier
       long freed = 0;           // memory freed bytes
       long io_ns = 0;           // i/o ns writing
 
@@ -150,9 +152,16 @@ class Cleaner extends Thread {
         // Too many POJOs are written to dynamically; cannot spill & reload
         // them without losing changes.
 
+        // Under pressure, prefer the off-heap tier over the disk: it is
+        // outside the GC's reach and restoring from it is a plain copy.  Not
+        // done lazily, as it would double the memory held by hot Chunks.
+        if( isChunk && force && !val.isPersisted() && !val.isOffHeap() && ((Key)ok).home() &&
+            MemoryManager.OFF_HEAP_MAX > 0 && val.storeOffHeap() )
+          offheaped += val._max;
+
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && !val.isPersisted() && !val.isOffHeap() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -168,11 +177,11 @@ class Cleaner extends Thread {
           if( m != null ) cleaned += m.length; // Accumulate i/o bytes
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
-        // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
-          val.freeMem ();  if( m != null ) freed += val._max;  m = null;
-          val.freePOJO();  if( p != null ) freed += val._max;  p = null;
-          if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
+        // And, under pressure, free in LRU order; a batch at a time
+        if( isChunk && force && (val.isPersisted() || val.isOffHeap() || !((Key)ok).home()) ) {
+          if( _lru.add(val, touched) )
+            freed += _lru.free(h._cached - freed - DESIRED, clean_to_age);
+          m = null;  p = null;
         }
         // If we have both forms, toss the byte[] form - can be had by
         // serializing again.
@@ -186,8 +195,11 @@ class Cleaner extends Thread {
         force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
       }
 
+      freed += _lru.free(h._cached - freed - DESIRED, clean_to_age); // Last partial batch
+
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10)+
+                  ", moved off-heap "+PrettyPrint.bytes(offheaped)+" (total "+PrettyPrint.bytes(MemoryManager.offHeapUsed())+")";
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
@@ -204,6 +216,51 @@ class Cleaner extends Thread {
   }
 
 
+  // Spilled Chunks collected by the walk, to be freed in LRU order.
+  private final LRUBatch _lru = new LRUBatch();
+
+  // The histogram buckets only give a coarse age cut-off.  Spilled Chunks
+  // are freed a batch at a time, least-recently-used first, stopping once the
+  // cache is back at the desired level - so the most recently touched Chunks
+  // in the cut-off bucket survive.  The batch is reused across passes, and
+  // memory is freed as the walk goes instead of after it.
+  static final class LRUBatch {
+    static final int BITS = 10;
+    static final int SIZE = 1 << BITS;
+    // Access time as seen by the walk (sorting on the live _lastAccessedTime
+    // would race with readers touching the Value) and index, in one long
+    private final long[] _order = new long[SIZE];
+    private final Value[] _vals = new Value[SIZE];
+    private int _n;
+
+    // Returns true if the batch is full and has to be freed
+    boolean add( Value val, long touched ) {
+      _order[_n] = (touched << BITS) | _n;
+      _vals[_n++] = val;
+      return _n == SIZE;
+    }
+
+    // Free the batch in LRU order, until at least excess bytes are freed.
+    // Chunks touched since the walk are skipped.  Returns the bytes freed.
+    long free( long excess, long clean_to_age ) {
+      Arrays.sort(_order, 0, _n);
+      long freed = 0;
+      for( int i = 0; i < _n; i++ ) {
+        Value val = _vals[(int)(_order[i] & (SIZE - 1))];
+        if( freed >= excess && MemoryManager.CAN_ALLOC && DESIRED != -1 ) break;
+        if( val._lastAccessedTime > clean_to_age ) continue; // Touched meanwhile
+        if( val.rawMem() == null && val.rawPOJO() == null ) continue;
+        // Chunks share the byte[] between the POJO and _mem; count it once
+        val.freeMem ();
+        val.freePOJO();
+        freed += val._max;
+      }
+      Arrays.fill(_vals, 0, _n, null); // Do not keep the Values alive
+      _n = 0;
+      return freed;
+    }
+  }
+
   // Histogram class
   static class Histo {
     // Current best histogram
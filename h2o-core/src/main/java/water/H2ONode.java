@@ -12,7 +12,9 @@ import java.nio.ByteOrder;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.SocketChannel;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -519,12 +521,77 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   // Private thread serving (actually ships the bytes over) small msg Q.
   // Buffers the small messages together and sends the bytes over via TCP channel.
   private static String SEND_THREAD_NAME_PREFIX = "TCP-SMALL-SEND-";
+  // How long a batch of low-priority tasks may wait for more small messages
+  // before it is shipped.  Only used while the link is busy, i.e. the previous
+  // batch already coalesced several messages; a lone request goes out at once,
+  // and so does any batch holding an urgent message.  Messages queued together
+  // share a frame regardless; the linger only adds a wait for the next ones,
+  // which costs latency on every busy RPC and pays off only on a network where
+  // frames, not bytes, are the bottleneck.  So it is off (0) unless tuned for
+  // the cluster at hand, e.g. -Dsys.ai.h2o.rpc.batch.lingerMicros=100.
+  static long BATCH_LINGER_NS = 1000L*Long.parseLong(H2O.getSysProperty("rpc.batch.lingerMicros", "0"));
+
+  // Secret back-channel priority of a queued message: its position field.
+  // "Interesting" priorities are MIN_HI_PRIORITY and up, and things just above
+  // 0; priorities in the middl'n range from 10 to MIN_HI are really rare.
+  // Need to compress priorities a little for this hack to work: the middle
+  // range becomes 10, MIN_HI_PRIORITY and up become 11 and up.  The position
+  // is capped at bb.limit.
+  static byte queuePriority(byte msg_priority, int limit) {
+    if( msg_priority >= H2O.MIN_HI_PRIORITY ) msg_priority = (byte)((msg_priority-H2O.MIN_HI_PRIORITY)+11);
+    else if( msg_priority >= 10 ) msg_priority = 10;
+    if( msg_priority > limit ) msg_priority = (byte)limit;
+    return msg_priority;
+  }
+
+  // True if the queue priority (see queuePriority) is MIN_HI_PRIORITY or up
+  static boolean isHiPriority(int queuePriority) { return queuePriority > 10; }
+
+  // Acks, ackacks, nacks, heartbeats and high-priority tasks are never held back
+  static boolean isUrgent(ByteBuffer bb) {
+    if( isHiPriority(bb.position()) ) return true;
+    int ctrl = bb.array()[0] & 0xFF;
+    if( ctrl >= UDP.udp.UDPS.length ) return false;
+    UDP.udp type = UDP.getUdp(ctrl);
+    return type != UDP.udp.exec && type._prior >= H2O.MIN_HI_PRIORITY;
+  }
+
+  // Pack small messages into the output buffer, starting with bb and going on
+  // with whatever else is queued; flush is called whenever the buffer is full.
+  // With a linger, waits up to that long for more messages while the buffer has
+  // room and no urgent message was packed.  Returns the number of messages.
+  static int packSmallMessages(ByteBuffer bb, BlockingQueue<ByteBuffer> q, ByteBuffer out,
+                               long lingerNs, Runnable flush) throws InterruptedException {
+    int msgs = 0;
+    boolean urgent = false;
+    final long deadline = System.nanoTime() + lingerNs;
+    while( bb != null ) {         // while have an BB to process
+      assert !bb.isDirect() : "Direct BBs already got recycled";
+      assert bb.limit()+1+2 <= out.capacity() : "Small message larger than the output buffer";
+      if( out.remaining() < bb.limit()+1+2 )
+        flush.run();              // Send full batch; reset out so taken bb fits
+      out.putChar((char)bb.limit());
+      out.put(bb.array(),0,bb.limit()); // Jam this BB into the existing batch BB, all in one go (it all fits)
+      out.put((byte)0xef);        // Sentinel byte
+      msgs++;
+      urgent |= isUrgent(bb);
+      bb = q.poll();              // Go get more, same batch
+      if( bb == null && !urgent && lingerNs > 0 ) { // Busy link?  Wait briefly for more to share the frame
+        long wait = deadline - System.nanoTime();
+        if( wait > 0 && out.remaining() >= AutoBuffer.MTU )
+          bb = q.poll(wait, TimeUnit.NANOSECONDS);
+      }
+    }
+    return msgs;
+  }
   class SmallMessagesSendThread extends Thread {
 
     private ByteChannel _chan;  // Lazily made on demand; closed & reopened on error
 
     private final ByteBuffer _bb; // Reusable output large buffer
 
+    private int _lastBatch;     // Messages coalesced into the last batch sent
+
     SmallMessagesSendThread(){
       super(SEND_THREAD_NAME_PREFIX + H2ONode.this);
       ThreadHelper.initCommonThreadProperties(this);
@@ -543,15 +610,7 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
 
       // Secret back-channel priority: the position field (capped at bb.limit);
       // this is to avoid making Yet Another Object per send.
-
-      // Priority can exceed position.  "interesting" priorities are everything
-      // above H2O.MIN_HI_PRIORITY and things just above 0; priorities in the
-      // middl'n range from 10 to MIN_HI are really rare.  Need to compress
-      // priorities a little for this hack to work.
-      if( msg_priority >= H2O.MIN_HI_PRIORITY ) msg_priority = (byte)((msg_priority-H2O.MIN_HI_PRIORITY)+10);
-      else if( msg_priority >= 10 ) msg_priority = 10;
-      if( msg_priority > bb.limit() ) msg_priority = (byte)bb.limit();
-      bb.position(msg_priority);
+      bb.position(queuePriority(msg_priority, bb.limit()));
 
       _outgoingMsgQ.put(bb);
     }
@@ -575,17 +634,9 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
               _outgoingMsgQ.put(bb); // put back and give someone else a chance to deliver
               break; // terminate
             }
-            while( bb != null ) {         // while have an BB to process
-              assert !bb.isDirect() : "Direct BBs already got recycled";
-              assert bb.limit()+1+2 <= _bb.capacity() : "Small message larger than the output buffer";
-              if( _bb.remaining() < bb.limit()+1+2 )
-                sendBuffer();     // Send full batch; reset _bb so taken bb fits
-              _bb.putChar((char)bb.limit());
-              _bb.put(bb.array(),0,bb.limit()); // Jam this BB into the existing batch BB, all in one go (it all fits)
-              _bb.put((byte)0xef);// Sentinel byte
-              bb = _outgoingMsgQ.poll();  // Go get more, same batch
-            }
+            int msgs = packSmallMessages(bb, _outgoingMsgQ, _bb, _lastBatch > 1 ? BATCH_LINGER_NS : 0, this::sendBuffer);
             sendBuffer();         // Send final trailing BBs
+            _lastBatch = msgs;
           } catch (IllegalMonitorStateException imse) { /* ignore */
           } catch (InterruptedException e) { /*ignore*/ }
         }
@@ -91,6 +91,10 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
   private long _start_time;     // Job started, or 0 if not running
   private long   _end_time;     // Job end time, or 0 if not ended
 
+  /** Tenant the Job is scheduled for, see {@link JobScheduler} */
+  private String _tenant;
+  private int _queued_on = -1;  // Node whose JobScheduler queues the started Job, or -1 if not queued
+
   // Simple internal state accessors
   private boolean created() { return _start_time == 0; }
   private boolean running() { return _start_time != 0 && _end_time == 0; }
@@ -109,6 +113,15 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
   public boolean isDone()    { return isStopped() && _ex == null; }
   public boolean isCrashing(){ return isRunning() && _ex != null; }
   public boolean isCrashed (){ return isStopped() && _ex != null; }
+  /** True if the Job was started, but waits in the {@link JobScheduler} queue. */
+  public boolean isQueued()  { update_from_remote(); return running() && _queued_on != -1; }
+
+  public String tenant() { return _tenant; }
+  /** Schedule the Job for the given tenant; by default the tenant of the REST request starting the Job. */
+  public void setTenant(String tenant) {
+    assert created() : "The tenant must be set before the Job is started";
+    _tenant = tenant;
+  }
 
   public JobStatus getStatus() {
     if (isCrashed())
@@ -119,7 +132,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
       else
         return JobStatus.SUCCEEDED;
     else if (isRunning())
-      return JobStatus.RUNNING;
+      return _queued_on != -1 ? JobStatus.PENDING : JobStatus.RUNNING;
     else
       return JobStatus.PENDING;
   }
@@ -127,7 +140,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
   /** Current runtime; zero if not started. */
   public long msec() {
     update_from_remote();
-    if( created() ) return 0;   // Created, not running
+    if( created() || _queued_on != -1 ) return 0; // Created or queued, not running
     if( running() ) return System.currentTimeMillis() - _start_time;
     return _end_time - _start_time; // Stopped
   }
@@ -152,6 +165,9 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
           Log.debug("Job "+job._description+" requested to stop");
         }
       }.apply(this);
+    int queuedOn = _queued_on;
+    if( queuedOn != -1 && !stopped() ) // Never ran, take it off the queue
+      JobScheduler.cancelQueued(this, queuedOn);
   }
   public void fail(Throwable ex) {
     new JAtomic() {
@@ -314,6 +330,8 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     _start_time = System.currentTimeMillis();
     assert !created() && running() && !stopped();
     _work = work;
+    if( _tenant == null ) _tenant = JobScheduler.requestTenant();
+    if( _tenant == null ) _tenant = JobScheduler.DEFAULT_TENANT;
 
     // 2 - Save the full state of the job, first time ever making it public
     DKV.put(this);              // Announce in DKV
@@ -329,10 +347,31 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         return old;
       }
     }.invoke(LIST);
-    // 4 - Fire off the FJTASK
-    H2O.submitTask(fjtask);
+    // 4 - Fire off the FJTASK, once admitted by the scheduler
+    JobScheduler.INSTANCE.submit(this, fjtask);
     return this;
   }
+
+  /** Called by the JobScheduler when the Job has to wait for admission. */
+  void markQueued() {
+    final int node = H2O.SELF.index();
+    new JAtomic() {
+      @Override boolean abort(Job job) { return false; }
+      @Override void update(Job job) { job._queued_on = node; job._msg = "Queued."; }
+    }.apply(this);
+  }
+
+  /** Called by the JobScheduler when a queued Job is admitted; the run time starts now. */
+  void markAdmitted() {
+    new JAtomic() {
+      @Override boolean abort(Job job) { return job._queued_on == -1; }
+      @Override void update(Job job) {
+        job._queued_on = -1;
+        job._start_time = System.currentTimeMillis();
+        job._msg = null;
+      }
+    }.apply(this);
+  }
   transient private Barrier2 _barrier; // Top-level task to block on
 
   // Handy for assertion
@@ -355,6 +394,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     @Override public void onCompletion(CountedCompleter caller) {
       new Barrier1OnCom().apply(Job.this);
       _barrier = null;          // Free for GC
+      JobScheduler.INSTANCE.release(Job.this);
     }
     @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
       if(Job.isCancelledException(ex)) {
@@ -366,6 +406,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         new Barrier1OnExCom(ex).apply(Job.this);
       }
       _barrier = null;          // Free for GC
+      JobScheduler.INSTANCE.release(Job.this);
       return true;
     }
   }
@@ -440,6 +481,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     boolean differ = false;
     if( _stop_requested != remote._stop_requested ) differ = true;
     if(_start_time!= remote._start_time) differ = true;
+    if(_queued_on != remote._queued_on ) differ = true;
     if(_end_time  != remote._end_time  ) differ = true;
     if(_ex        != remote._ex        ) differ = true;
     if(_work      != remote._work      ) differ = true;
@@ -451,6 +493,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
       synchronized(this) { 
         _stop_requested = remote._stop_requested;
         _start_time= remote._start_time;
+        _queued_on = remote._queued_on ;
         _end_time  = remote._end_time  ;
         _ex        = remote._ex        ;
         _work      = remote._work      ;
@@ -0,0 +1,288 @@
+package water;
+
+import jsr166y.ForkJoinWorkerThread;
+import water.H2O.H2OCountedCompleter;
+import water.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Per-tenant admission control of the {@link Job}s started on this node.
+ *
+ * At most {@code jobs.max_running} top-level Jobs run at once; further Jobs are
+ * queued (they are listed as {@link Job.JobStatus#PENDING}).  When a slot frees
+ * up, the next Job comes from the tenant with the fewest running Jobs relative
+ * to its weight, first-come first-served within a tenant.  A tenant may also be
+ * capped at {@code jobs.tenant_max_running} Jobs.
+ *
+ * Jobs started from within a running computation (e.g. by AutoML) belong to
+ * the tenant of the Job running it.  They are never queued, their parent Job
+ * already holds a slot and queueing them behind other Jobs could deadlock; but
+ * they are charged to the tenant like any other running Job, so top-level Jobs
+ * of a tenant with many child Jobs wait behind the ones of other tenants.
+ *
+ * This only decides when a Job starts, it does not share the cluster between
+ * tenants: once admitted, the F/J tasks and the memory of all Jobs compete as
+ * before.  Work which is not a Job (e.g. Rapids expressions, or the models of a
+ * grid search, which are built within the grid Job) is never queued.
+ *
+ * Disabled unless {@code -Dsys.ai.h2o.jobs.max_running} is set; tenant weights
+ * are given as e.g. {@code -Dsys.ai.h2o.jobs.tenant_weights=alice:2,bob:1}.
+ */
+public final class JobScheduler {
+
+  public static final String DEFAULT_TENANT = "default";
+
+  /** Request header naming the tenant of an unauthenticated request, see {@link #tenantOf} */
+  public static final String TENANT_HEADER = "X-H2O-Tenant";
+  static final boolean TRUST_TENANT_HEADER = H2O.getSysBoolProperty("jobs.trust_tenant_header", false);
+  private static final Pattern TENANT_NAME = Pattern.compile("[A-Za-z0-9_.@-]{1,64}");
+
+  private static final ThreadLocal<String> REQUEST_TENANT = new ThreadLocal<>();
+
+  static JobScheduler INSTANCE = new JobScheduler(
+      Integer.parseInt(H2O.getSysProperty("jobs.max_running", "0")),
+      Integer.parseInt(H2O.getSysProperty("jobs.tenant_max_running", "0")),
+      parseWeights(H2O.getSysProperty("jobs.tenant_weights", "")));
+
+  private final int _maxRunning;          // 0 disables the scheduler
+  private final int _tenantMaxRunning;    // 0 for no per-tenant cap
+  private final Map<String, Double> _weights;
+
+  private final Map<Key, String> _admitted = new HashMap<>();  // Running job -> tenant
+  private final Map<String, Integer> _running = new HashMap<>();
+  private final Map<String, ArrayDeque<Queued>> _queues = new LinkedHashMap<>();
+  private long _seq;
+
+  private static final class Queued {
+    final Job _job;
+    final H2OCountedCompleter _task;
+    final long _seq;
+    Queued(Job job, H2OCountedCompleter task, long seq) { _job = job; _task = task; _seq = seq; }
+  }
+
+  JobScheduler(int maxRunning, int tenantMaxRunning, Map<String, Double> weights) {
+    _maxRunning = maxRunning;
+    _tenantMaxRunning = tenantMaxRunning;
+    _weights = weights;
+  }
+
+  public static JobScheduler get() { return INSTANCE; }
+
+  /**
+   * Tenant of a REST request: the authenticated user.  Without authentication
+   * the {@link #TENANT_HEADER} names the tenant, but only if the cluster is
+   * configured to trust it ({@code -Dsys.ai.h2o.jobs.trust_tenant_header}) and
+   * it is a plain name; else null, ie. the {@link #DEFAULT_TENANT}.
+   */
+  public static String tenantOf(String remoteUser, String tenantHeader) {
+    if (remoteUser != null) return remoteUser;
+    if (tenantHeader == null) return null;
+    if (TRUST_TENANT_HEADER && TENANT_NAME.matcher(tenantHeader).matches()) return tenantHeader;
+    Log.debug("Ignoring " + TENANT_HEADER + " header '" + tenantHeader + "'");
+    return null;
+  }
+
+  /**
+   * Set by the REST layer for the duration of a request, and by the scheduler
+   * while the top-level task of a Job runs: Jobs started meanwhile belong to
+   * this tenant.
+   */
+  public static void setRequestTenant(String tenant) {
+    if (tenant == null) REQUEST_TENANT.remove();
+    else REQUEST_TENANT.set(tenant);
+  }
+
+  static String requestTenant() { return REQUEST_TENANT.get(); }
+
+  public boolean isEnabled() { return _maxRunning > 0; }
+
+  static Map<String, Double> parseWeights(String spec) {
+    Map<String, Double> weights = new HashMap<>();
+    for (String s : spec.split(",")) {
+      if (s.trim().isEmpty()) continue;
+      int idx = s.lastIndexOf(':');
+      try {
+        double w = Double.parseDouble(s.substring(idx + 1).trim());
+        if (idx <= 0 || !(w > 0)) throw new NumberFormatException();
+        weights.put(s.substring(0, idx).trim(), w);
+      } catch (NumberFormatException e) {
+        Log.warn("Ignoring invalid tenant weight '" + s + "', expected <tenant>:<positive weight>");
+      }
+    }
+    return weights;
+  }
+
+  double weight(String tenant) {
+    Double w = _weights.get(tenant);
+    return w == null ? 1 : w;
+  }
+
+  /** Number of running Jobs admitted by the scheduler. */
+  public synchronized int running(String tenant) {
+    Integer n = _running.get(tenant);
+    return n == null ? 0 : n;
+  }
+
+  /** Number of queued Jobs. */
+  public synchronized int queued(String tenant) {
+    ArrayDeque<Queued> q = _queues.get(tenant);
+    return q == null ? 0 : q.size();
+  }
+
+  /** Submit the top-level task of a started Job, now or once the Job is admitted. */
+  void submit(Job job, H2OCountedCompleter task) {
+    if (isEnabled() && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+      synchronized (this) { admitted(job); }  // Child Job: charged, but never queued
+    } else if (isEnabled() && !tryAdmit(job)) {
+      job.markQueued();           // Updates the Job in the DKV, not under the lock
+      boolean admitted;
+      synchronized (this) {
+        if (!(admitted = tryAdmit(job))) {  // A slot may have freed up meanwhile
+          ArrayDeque<Queued> q = _queues.get(job.tenant());
+          if (q == null) _queues.put(job.tenant(), q = new ArrayDeque<>());
+          q.add(new Queued(job, task, _seq++));
+        }
+      }
+      if (!admitted) {
+        Log.info("Job " + job._key + " of tenant '" + job.tenant() + "' is queued");
+        if (job.stop_requested()) cancel(job._key); // Stopped before it was on the queue
+        return;
+      }
+      job.markAdmitted();
+    }
+    run(job, task);
+  }
+
+  private static void run(Job job, H2OCountedCompleter task) {
+    H2O.submitTask(task instanceof DTask ? task : new TenantTask(job.tenant(), task));
+  }
+
+  /** Runs the top-level task of a Job with the tenant of the Job as the current one. */
+  private static final class TenantTask extends H2OCountedCompleter<TenantTask> {
+    private final String _tenant;
+    private final H2OCountedCompleter _task;
+    TenantTask(String tenant, H2OCountedCompleter task) {
+      super(task.priority());
+      _tenant = tenant;
+      _task = task;
+    }
+    @Override public void compute2() {
+      String outer = requestTenant();
+      setRequestTenant(_tenant);
+      try {
+        _task.compute2();          // As H2OCountedCompleter.compute runs high-priority tasks
+      } catch (Throwable t) {
+        _task.completeExceptionally(t);
+      } finally {
+        setRequestTenant(outer);
+      }
+      tryComplete();
+    }
+  }
+
+  private synchronized boolean tryAdmit(Job job) {
+    if (_queues.containsKey(job.tenant()) || !canAdmit(job.tenant())) return false;
+    admitted(job);
+    return true;
+  }
+
+  /**
+   * Remove a stopped Job from the queue, and complete its task as cancelled.
+   * @return false if the Job is not queued here (anymore)
+   */
+  boolean cancel(Key jobKey) {
+    Queued cancelled = null;
+    synchronized (this) {
+      for (Iterator<ArrayDeque<Queued>> it = _queues.values().iterator(); it.hasNext() && cancelled == null; ) {
+        ArrayDeque<Queued> q = it.next();
+        for (Iterator<Queued> qit = q.iterator(); qit.hasNext(); ) {
+          Queued next = qit.next();
+          if (next._job._key.equals(jobKey)) {
+            qit.remove();
+            cancelled = next;
+            break;
+          }
+        }
+        if (q.isEmpty()) it.remove();
+      }
+    }
+    if (cancelled == null) return false;
+    Log.info("Job " + jobKey + " was stopped while queued");
+    cancelled._task.completeExceptionally(new Job.JobCancelledException());
+    return true;
+  }
+
+  /** Remove a stopped Job from the queue of the node which started it. */
+  static void cancelQueued(Job job, int node) {
+    if (node == H2O.SELF.index()) INSTANCE.cancel(job._key);
+    else new RPC<>(H2O.CLOUD._memary[node], new CancelQueued(job._key)).call().get();
+  }
+
+  private static class CancelQueued extends DTask<CancelQueued> {
+    private final Key _jobKey;
+    CancelQueued(Key jobKey) { _jobKey = jobKey; }
+    @Override public void compute2() {
+      INSTANCE.cancel(_jobKey);
+      tryComplete();
+    }
+  }
+
+  /** Release the slot of a finished Job and start the queued Jobs that fit. */
+  void release(Job job) {
+    List<Queued> next = new ArrayList<>();
+    synchronized (this) {
+      String tenant = _admitted.remove(job._key);
+      if (tenant == null) return;       // Not admitted by the scheduler
+      _running.put(tenant, running(tenant) - 1);
+      Queued q;
+      while ((q = poll()) != null) {
+        admitted(q._job);
+        next.add(q);
+      }
+    }
+    for (Queued q : next) {
+      q._job.markAdmitted();
+      if (q._job.stop_requested())       // Stopped while queued
+        q._task.completeExceptionally(new Job.JobCancelledException());
+      else
+        run(q._job, q._task);
+    }
+  }
+
+  private boolean canAdmit(String tenant) {
+    return _admitted.size() < _maxRunning && (_tenantMaxRunning <= 0 || running(tenant) < _tenantMaxRunning);
+  }
+
+  private void admitted(Job job) {
+    _admitted.put(job._key, job.tenant());
+    _running.put(job.tenant(), running(job.tenant()) + 1);
+  }
+
+  /** Dequeue the next Job to admit: least running per weight, then oldest. */
+  private Queued poll() {
+    ArrayDeque<Queued> best = null;
+    double bestShare = 0;
+    for (Map.Entry<String, ArrayDeque<Queued>> e : _queues.entrySet()) {
+      String tenant = e.getKey();
+      if (!canAdmit(tenant)) continue;
+      double share = running(tenant) / weight(tenant);
+      Queued head = e.getValue().peek();
+      if (best == null || share < bestShare || share == bestShare && head._seq < best.peek()._seq) {
+        best = e.getValue();
+        bestShare = share;
+      }
+    }
+    if (best == null) return null;
+    Queued q = best.poll();
+    if (best.isEmpty()) _queues.remove(q._job.tenant());
+    return q;
+  }
+}
@@ -4,10 +4,17 @@ import jsr166y.CountedCompleter;
 import jsr166y.ForkJoinPool;
 import water.fvec.*;
 import water.util.DistributedException;
+import water.util.Log;
 import water.util.PrettyPrint;
 import water.fvec.Vec.VectorGroup;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Map/Reduce style distributed computation.
@@ -170,6 +177,18 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** Internal field to track a range of local Chunks to work on */
   transient protected int _lo, _hi;
 
+  /** Prefix sums of the estimated cost of the local Chunks, shared by the
+   *  local execution tree; null to split the chunk range evenly. */
+  transient private long[] _costs;
+
+  /** Split the local chunk range by estimated chunk cost rather than by chunk count. */
+  static final boolean COST_SPLIT = H2O.getSysBoolProperty("mrtask.cost_split", true);
+  /** Min number of chunks to split by cost; fewer chunks are spread over the
+   *  F/J workers evenly enough, and aren't worth the store lookups. */
+  static int COST_SPLIT_MIN_CHUNKS = Integer.parseInt(H2O.getSysProperty("mrtask.cost_split.min_chunks", Integer.toString(4 * H2O.NUMCPUS)));
+  /** Max number of Vecs sampled to estimate the cost of a chunk. */
+  private static final int COST_SAMPLE_VECS = 8;
+
   /** We can add more things to block on - in case we want a bunch of lazy
    *  tasks produced by children to all end before this top-level task ends.
    *  Semantically, these will all complete before we return from the top-level
@@ -185,6 +204,39 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     return this;
   }
 
+  /** Re-execute lagging remote subtrees locally, see {@link #withSpeculativeExecution()} */
+  private boolean _speculative;
+  /** Progress of the local chunks, shared by the local execution tree */
+  transient private LocalProgress _progress;
+  /** Speculative races of the remote calls of this node */
+  transient private ArrayList<RemoteRace> _races;
+  /** For a speculative copy: map the chunks homed on the nodes [_specNlo,_specNhi) */
+  transient private int _specNlo, _specNhi = -1;
+
+  static double SPECULATION_FACTOR = Double.parseDouble(H2O.getSysProperty("mrtask.speculation.factor", "4"));
+  static long SPECULATION_MIN_MS = Long.parseLong(H2O.getSysProperty("mrtask.speculation.min_ms", "10000"));
+
+  /**
+   * Opt-in speculative execution.  When a remote subtree of the computation lags
+   * far behind the local work (more than {@code mrtask.speculation.factor} times
+   * the time this node needed for its own chunks, and at least
+   * {@code mrtask.speculation.min_ms}), the chunks homed on the lagging nodes are
+   * mapped again on this node, fetching them from their home nodes.  The first of
+   * the two results is reduced, the other is dropped.
+   *
+   * Only for idempotent tasks over a Frame which neither produce output Vecs nor
+   * modify their input, ie. map() may run more than once per chunk, and only one
+   * of the runs is reduced.  Ignored for other tasks.
+   */
+  public final T withSpeculativeExecution() {
+    _speculative = true;
+    return self();
+  }
+
+  private boolean speculate() {
+    return _speculative && _fr != null && _output_types == null && !_run_local && !H2O.ARGS.client;
+  }
+
   public String profString() { return _profile != null ? _profile.toString() : "Profiling turned off"; }
   MRProfile _profile;
 
@@ -558,6 +610,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _lo = 0;  _hi = _fr.numCols()==0 ? 0 : _fr.anyVec().nChunks(); // Do All Chunks
       // get the Vecs from the K/V store, to avoid racing fetches from the map calls
       _fr.vecs();
+      if( COST_SPLIT && !_run_local && _hi - _lo >= Math.max(3, COST_SPLIT_MIN_CHUNKS) ) _costs = chunkCosts();
+      if( speculate() && _fr.numCols() > 0 ) {
+        int nlocal = 0;
+        for( int i = _lo; i < _hi; i++ )
+          if( _costs != null ? _costs[i+1] > _costs[i] : _fr.anyVec().chunkKey(i).home() ) nlocal++;
+        _progress = new LocalProgress(nlocal);
+      }
     } else if( _keys != null ) {    // Else doing a set of Keys
       _lo = 0;  _hi = _keys.length; // Do All Keys
     }
@@ -567,6 +626,44 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     if(_profile!=null) _profile._localdone = System.currentTimeMillis();
   }
 
+  // Estimated cost of each chunk: the in-memory size of the chunk across a
+  // sample of the Vecs.  Compressed size follows both the row count and the
+  // density (sparse chunks are small, long strings are large), so splitting
+  // by cost keeps skewed chunks from piling up in one F/J subtree.  Chunks
+  // homed elsewhere are free, so ranges without local chunks are not split
+  // at all.  Returns prefix sums, costs[i+1]-costs[i] is the cost of chunk i.
+  private long[] chunkCosts() {
+    Vec[] vecs = _fr.vecs();
+    int nsample = 0;
+    Vec[] sample = new Vec[Math.min(vecs.length, COST_SAMPLE_VECS)];
+    for( int i = 0; i < sample.length; i++ ) {
+      Vec v = vecs[(int)((long)i * vecs.length / sample.length)];
+      if( v != null ) sample[nsample++] = v;
+    }
+    if( nsample == 0 ) return null;
+    long[] costs = new long[_hi+1];
+    for( int i = _lo; i < _hi; i++ ) {
+      long cost = 0;
+      if( sample[0].chunkKey(i).home() ) {
+        cost = 1;
+        for( int j = 0; j < nsample; j++ ) {
+          Value val = H2O.STORE.get(sample[j].chunkKey(i));
+          if( val != null ) cost += val._max;
+        }
+      }
+      costs[i+1] = costs[i] + cost;
+    }
+    return costs;
+  }
+
+  // Split point of [_lo,_hi) halving the estimated cost; both halves are non-empty
+  private int costMid() {
+    long half = (_costs[_lo] + _costs[_hi]) >>> 1;
+    int idx = Arrays.binarySearch(_costs, _lo, _hi+1, half);
+    int mid = idx >= 0 ? idx : -idx-1;
+    return Math.max(_lo+1, Math.min(_hi-1, mid));
+  }
+
   // Make an RPC call to some node in the middle of the given range.  Add a
   // pending completion to self, so that we complete when the RPC completes.
   private RPC<T> remote_compute( int nlo, int nhi ) {
@@ -585,7 +682,15 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       // - when launched on the local (right here, in this next line of code)
       //   the completed RPC calls our self completion.  i.e. the completed RPC
       //   calls MRTask.onCompletion
-      return new RPC<>(H2O.CLOUD._memary[node], mrt).addCompleter(this).call();
+      if( !speculate() )
+        return new RPC<>(H2O.CLOUD._memary[node], mrt).addCompleter(this).call();
+      // Speculative: the remote call and its possible local backup race to complete us
+      RemoteRace race = new RemoteRace(nlo, nhi);
+      if( _races == null ) _races = new ArrayList<>(2);
+      _races.add(race);
+      race._rpc = new RPC<>(H2O.CLOUD._memary[node], mrt).addCompleter(race.arm(false)).call();
+      race.watch();
+      return race._rpc;
     }
     return null; // nlo >= nhi => no remote work
   }
@@ -596,8 +701,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   @Override public final void compute2() {
     assert _left == null && _rite == null && _res == null;
     if(_profile!=null) _profile._mapstart = System.currentTimeMillis();
+    if( _topLocal && _specNhi != -1 ) setupLocal(); // Speculative copy: its own node-local structures
+    if( _costs != null && _costs[_hi] == _costs[_lo] ) { // No local chunks in range, nothing to map
+      tryComplete();
+      return;
+    }
     if( (_hi-_lo) >= 2 ) { // Multi-chunk case: just divide-and-conquer to 1 chunk
-      final int mid = (_lo+_hi)>>>1; // Mid-point
+      final int mid = _costs == null ? (_lo+_hi)>>>1 : costMid(); // Mid-point
       _left = copyAndInit();
       _rite = copyAndInit();
       _left._hi = mid;          // Reset mid-point
@@ -622,7 +732,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       }
     } else if( _hi > _lo ) {    // Frame, Single chunk?
       Vec v0 = _fr.anyVec();
-      if( _run_local || v0.chunkKey(_lo).home() ) { // And chunk is homed here?
+      if( _run_local || mapsHere(v0.chunkKey(_lo)) ) { // And chunk is homed here?
         assert(_run_local || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
 
         // Make decompression chunk headers for these chunks
@@ -631,7 +741,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         NewChunk [] appendableChunks = null;
         for( int i=0; i<vecs.length; i++ )
           if( vecs[i] != null ) {
-            assert _run_local || vecs[i].chunkKey(_lo).home()
+            assert _run_local || _specNhi != -1 || vecs[i].chunkKey(_lo).home()
               : "Chunk="+_lo+" v0="+v0+", k="+v0.chunkKey(_lo)+"   v["+i+"]="+vecs[i]+", k="+vecs[i].chunkKey(_lo);
             bvs[i] = vecs[i].chunkForChunkIdx(_lo);
           }
@@ -682,6 +792,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
           _postMap.call(bvs);
         for( Chunk bv : bvs )  bv.close(_lo,_fs);
         if( _output_types != null) for(NewChunk nch:appendableChunks)nch.close(_lo, _fs);
+        if( _progress != null ) _progress.chunkDone();
       }
     }
     if(_profile!=null)
@@ -750,6 +861,15 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // Block for RPCs to complete, then reduce global results into self results
   private void reduce3( RPC<T> rpc ) {
     if( rpc == null ) return;
+    if( _races != null )
+      for( RemoteRace race : _races )
+        if( race._rpc == rpc && race._backupWon ) { // Speculative copy was first, drop the RPC
+          T res = race._backup._res;
+          if( res == null ) return;
+          if( _res == null ) _res = res;
+          else _res.reduce4(res);
+          return;
+        }
     T mrt = rpc.get();          // This is a blocking remote call
     // Note: because _fs is transient it is not set or cleared by the RPC.
     // Because the MRT object is a clone of 'self' it's likely to contain a ptr
@@ -801,6 +921,106 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     return true;
   }
 
+  // Is the chunk with this key mapped here?  Homed here, or - for a
+  // speculative copy - homed on one of the nodes it stands in for.
+  private boolean mapsHere( Key k ) {
+    if( _specNhi == -1 ) return k.home();
+    int idx = subShift(k.home_node().index());
+    return _specNlo <= idx && idx < _specNhi;
+  }
+
+  // Time until all local chunks of a speculative task are mapped
+  private static final class LocalProgress {
+    final long _start = System.currentTimeMillis();
+    final AtomicInteger _left;
+    volatile long _done;        // 0 until all local chunks are mapped
+    LocalProgress( int nchunks ) {
+      _left = new AtomicInteger(nchunks);
+      if( nchunks == 0 ) _done = _start;
+    }
+    void chunkDone() { if( _left.decrementAndGet() == 0 ) _done = System.currentTimeMillis(); }
+  }
+
+  private static ScheduledThreadPoolExecutor SPECULATION_TIMER;
+  private static synchronized ScheduledThreadPoolExecutor speculationTimer() {
+    if( SPECULATION_TIMER == null ) {
+      SPECULATION_TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "MRTask-speculation");
+        t.setDaemon(true);
+        return t;
+      });
+      SPECULATION_TIMER.setRemoveOnCancelPolicy(true);
+    }
+    return SPECULATION_TIMER;
+  }
+
+  // The remote computation of the nodes [_nlo,_nhi) racing against a local
+  // speculative copy of it.  Whichever completes first completes one pending
+  // count of the owning task; the result of the other is ignored.
+  private final class RemoteRace {
+    final int _nlo, _nhi;
+    final long _start = System.currentTimeMillis();
+    final AtomicBoolean _finished = new AtomicBoolean();
+    RPC<T> _rpc;
+    volatile MRTask<T> _backup;
+    volatile boolean _backupWon;
+    private volatile ScheduledFuture<?> _watch;
+
+    RemoteRace( int nlo, int nhi ) { _nlo = nlo; _nhi = nhi; }
+
+    H2O.H2OCountedCompleter arm( final boolean backup ) {
+      return new H2O.H2OCountedCompleter() {
+        @Override public void compute2() { }
+        @Override public void onCompletion( CountedCompleter caller ) { finish(backup, null); }
+        @Override public boolean onExceptionalCompletion( Throwable ex, CountedCompleter caller ) {
+          if( backup ) Log.warn("Speculative copy of " + MRTask.this.getClass().getName() + " failed, waiting for the remote result", ex);
+          else finish(false, ex);
+          return false;
+        }
+      };
+    }
+
+    void finish( boolean backup, Throwable ex ) {
+      if( !_finished.compareAndSet(false, true) ) return; // Lost the race
+      unwatch();
+      _backupWon = backup;
+      if( ex != null ) MRTask.this.completeExceptionally(ex);
+      else MRTask.this.tryComplete();
+    }
+
+    void watch() {
+      _watch = speculationTimer().scheduleWithFixedDelay(this::check, SPECULATION_MIN_MS, Math.max(10, SPECULATION_MIN_MS / 10), TimeUnit.MILLISECONDS);
+      if( _finished.get() ) unwatch(); // Finished before the watch was set
+    }
+
+    private void unwatch() {
+      ScheduledFuture<?> w = _watch;
+      if( w != null ) w.cancel(false);
+    }
+
+    private void check() {
+      if( _finished.get() || _backup != null ) { unwatch(); return; }
+      LocalProgress p = MRTask.this._progress;
+      if( p == null || p._done == 0 ) return; // Local work still running, no reference yet
+      long elapsed = System.currentTimeMillis() - _start;
+      if( elapsed < Math.max(SPECULATION_MIN_MS, SPECULATION_FACTOR * (p._done - p._start)) ) return;
+      unwatch();
+      Log.info("Nodes " + _nlo + ".." + (_nhi - 1) + " (relative) of " + MRTask.this.getClass().getName() +
+          " lag behind by " + elapsed + "ms, starting a speculative copy");
+      MRTask<T> b = copyAndInit();
+      b.setCompleter(arm(true));
+      b._topLocal = true;       // Runs setupLocal, and closeLocal once its chunks are mapped
+      b._res = null;
+      b._costs = null;
+      b._progress = null;
+      b._races = null;
+      b._specNlo = _nlo;
+      b._specNhi = _nhi;
+      _backup = b;
+      H2O.submitTask(b);
+    }
+  }
+
   // Make copy, setting final-field completer and clearing out a bunch of fields
   private T copyAndInit() {
     T x = clone();
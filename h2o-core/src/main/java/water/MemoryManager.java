@@ -80,7 +80,7 @@ abstract public class MemoryManager {
     // NO LOGGING UNDER LOCK!
     Log.warn("Pausing to swap to disk; more memory may help");
   }
-  static boolean canAlloc() { return CAN_ALLOC; }
+  public static boolean canAlloc() { return CAN_ALLOC; }
 
   static void set_goals( String msg, boolean oom){
     set_goals(msg, oom, 0);
@@ -370,4 +370,37 @@ abstract public class MemoryManager {
       _taskMemLock.notifyAll();
     }
   }
+
+  // Off-heap (direct memory) budget for cold Chunks evicted by the Cleaner.
+  // Zero (the default) disables the off-heap tier, and the Cleaner spills
+  // straight to disk.  Off-heap bytes are outside the Java heap, so they are
+  // accounted here and never in Cleaner.Histo's cached levels.
+  static long OFF_HEAP_MAX = Long.parseLong(H2O.getSysProperty("mem.offHeap.max", "0"));
+  private static final AtomicLong _offHeapUsed = new AtomicLong();
+
+  /** @return number of bytes of Value payloads currently held off-heap */
+  public static long offHeapUsed() { return _offHeapUsed.get(); }
+
+  /**
+   * Try to reserve room in the off-heap tier; never blocks.
+   * @param m - requested number of bytes
+   * @return true if the off-heap tier is enabled and has room for m bytes
+   */
+  static boolean tryReserveOffHeap(long m) {
+    assert m >= 0 : "m < 0: " + m;
+    while( true ) {
+      long used = _offHeapUsed.get();
+      if( used + m > OFF_HEAP_MAX ) return false;
+      if( _offHeapUsed.compareAndSet(used, used + m) ) return true;
+    }
+  }
+
+  /**
+   * Return bytes previously reserved via {@link #tryReserveOffHeap(long)}.
+   * @param m
+   */
+  static void freeOffHeap(long m) {
+    long used = _offHeapUsed.addAndGet(-m);
+    assert used >= 0 : "off-heap accounting went negative: " + used;
+  }
 }
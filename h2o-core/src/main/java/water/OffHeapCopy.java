@@ -0,0 +1,144 @@
+package water;
+
+import water.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The off-heap copy of a Value's serialized bytes, see {@link Value#storeOffHeap()}.
+ *
+ * The copy is reference counted: the owning Value holds one reference, and every
+ * reader holds one for the duration of its bulk copy.  The direct memory is
+ * released explicitly, and its budget returned to the {@link MemoryManager}, only
+ * when the last reference is dropped - so the off-heap accounting follows the
+ * direct memory actually in use, instead of waiting for a GC of the buffer.
+ */
+final class OffHeapCopy {
+
+  private final ByteBuffer _bb;
+  private final AtomicInteger _refs = new AtomicInteger(1); // The owner's reference
+  private final AtomicBoolean _owned = new AtomicBoolean(true);
+
+  private OffHeapCopy(ByteBuffer bb) { _bb = bb; }
+
+  /** Copy the bytes off-heap, or return null if the off-heap budget is exhausted. */
+  static OffHeapCopy make(byte[] m) {
+    drainRetired();
+    if( !MemoryManager.tryReserveOffHeap(m.length) ) return null;
+    ByteBuffer bb;
+    try { bb = ByteBuffer.allocateDirect(m.length); }
+    catch( OutOfMemoryError oome ) { // -XX:MaxDirectMemorySize is lower than our budget
+      MemoryManager.freeOffHeap(m.length);
+      return null;
+    }
+    bb.put(m);
+    bb.flip();
+    return new OffHeapCopy(bb);
+  }
+
+  int size() { return _bb.capacity(); }
+
+  /** Copy the bytes back on-heap, or return null if the copy was released meanwhile. */
+  byte[] load() {
+    int refs;
+    do {
+      if( (refs = _refs.get()) == 0 ) return null;
+    } while( !_refs.compareAndSet(refs, refs + 1) );
+    try {
+      byte[] res = MemoryManager.malloc1(_bb.capacity());
+      _bb.duplicate().get(res);  // Private position/limit; racing loads are fine
+      return res;
+    } finally {
+      release();
+    }
+  }
+
+  /** Drop the owner's reference; only the first call counts. */
+  void releaseOwner() {
+    if( _owned.compareAndSet(true, false) ) release();
+  }
+
+  /** Drop a reference; the last one frees the direct memory and its budget. */
+  private void release() {
+    int refs = _refs.decrementAndGet();
+    assert refs >= 0 : "off-heap copy released too often";
+    if( refs == 0 ) {
+      freeDirect(_bb);
+      MemoryManager.freeOffHeap(_bb.capacity());
+    }
+  }
+
+  // ---
+  // Copies of replaced Values.  Readers may still hold the replaced Value, so
+  // its copy is released only once the Value itself is unreachable.
+  private static final ReferenceQueue<Value> RETIRED_QUEUE = new ReferenceQueue<>();
+  private static final Set<Retired> RETIRED = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Retired, Boolean>()));
+
+  private static final class Retired extends PhantomReference<Value> {
+    final OffHeapCopy _copy;
+    Retired(Value val, OffHeapCopy copy) { super(val, RETIRED_QUEUE); _copy = copy; }
+  }
+
+  /** Release the owner's reference of the copy once the replaced Value is unreachable. */
+  static void retire(Value val, OffHeapCopy copy) {
+    RETIRED.add(new Retired(val, copy));
+  }
+
+  /** Release the copies of replaced Values which got collected. */
+  static void drainRetired() {
+    Reference<? extends Value> ref;
+    while( (ref = RETIRED_QUEUE.poll()) != null ) {
+      RETIRED.remove(ref);
+      ((Retired)ref)._copy.releaseOwner();
+    }
+  }
+
+  // ---
+  // Explicit release of direct memory: Unsafe.invokeCleaner on Java 9+, the
+  // buffer's own Cleaner on Java 8.  Falls back to the GC if neither is there.
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+  static {
+    Object unsafe = null;
+    Method m = null;
+    try {
+      Class<?> clz = Class.forName("sun.misc.Unsafe");
+      m = clz.getMethod("invokeCleaner", ByteBuffer.class);
+      Field f = clz.getDeclaredField("theUnsafe");
+      f.setAccessible(true);
+      unsafe = f.get(null);
+    } catch( ReflectiveOperationException | RuntimeException e ) {
+      m = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = m;
+  }
+  private static volatile boolean _freeDirectFailed;
+
+  static void freeDirect(ByteBuffer bb) {
+    if( _freeDirectFailed ) return;
+    try {
+      if( INVOKE_CLEANER != null ) {
+        INVOKE_CLEANER.invoke(UNSAFE, bb);
+      } else {
+        Method cleaner = bb.getClass().getMethod("cleaner");
+        cleaner.setAccessible(true);
+        Object c = cleaner.invoke(bb);
+        if( c != null ) c.getClass().getMethod("clean").invoke(c);
+      }
+    } catch( ReflectiveOperationException | RuntimeException e ) {
+      _freeDirectFailed = true;
+      Log.warn("Cannot release direct memory explicitly, leaving it to the GC: " + e);
+    }
+  }
+}
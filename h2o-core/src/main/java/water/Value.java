@@ -6,6 +6,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
 import water.fvec.Frame;
 import water.fvec.Vec;
+import water.util.BlockCompression;
 import water.util.Log;
 import water.util.StringUtils;
 
@@ -94,6 +95,20 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
 
+  // ---
+  // An off-heap copy of the _mem array, or null.  Filled in by the Cleaner for
+  // cold Chunks when the off-heap tier is enabled (see MemoryManager), so that
+  // both _mem and _pojo can be dropped from the Java heap without a round-trip
+  // through the disk.  Like the on-disk copy, it stays valid until the Value
+  // is removed or replaced; see OffHeapCopy for when the memory is released.
+  private volatile OffHeapCopy _offHeap;
+  private static final AtomicReferenceFieldUpdater<Value,OffHeapCopy> OFF_HEAP_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,OffHeapCopy.class, "_offHeap");
+  /** Check if the backing byte[] has a copy in the off-heap tier */
+  public final boolean isOffHeap() { return _offHeap != null; }
+  /** Check if the Value is in DRAM, as bytes or as a POJO; reading it does no I/O */
+  public final boolean isLoaded() { return _mem != null || _pojo != null; }
+
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
@@ -103,7 +118,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || _mem != null;
     _pojo = null;
   }
 
@@ -117,11 +132,16 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( pojo != null )          // Has the POJO, make raw bytes
       return _mem = pojo.asBytes();
     if( _max == 0 ) return (_mem = new byte[0]);
+    OffHeapCopy off = _offHeap; // Read once!
+    if( off != null ) {         // Cheap restore from the off-heap tier
+      byte[] m = off.load();    // Null if released by a racing remove
+      if( m != null ) return (_mem = m);
+    }
     return (_mem = loadPersist());
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offHeap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -188,6 +208,8 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
  // Manipulate the on-disk bit
   private final static byte NOTdsk = 0<<3; // latest _mem is persisted or not
   private final static byte ON_dsk = 1<<3;
+  // Never stored; marks block compressed bytes on the wire
+  private final static byte WIRE_z = 1<<6;
   /** Check if the backing byte[] has been saved-to-disk */
   public final boolean isPersisted() { return (_persist&ON_dsk)!=0; }
   public final void setDsk() { _persist |=  ON_dsk; } // note: not atomic, but only monotonically set bit
@@ -220,6 +242,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public void removePersist() {
     // do not yank memory, as we could have a racing get hold on to this
     //  free_mem();
+    freeOffHeap();
     // 00 -> 01 try to delete (racing, probably nothing to delete)
     // 01       double delete; do nothing
     // 10 -> 11 delete
@@ -244,6 +267,38 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     } catch( IOException ioe ) { throw Log.throwErr(ioe); }
   }
 
+  /** Best-effort copy of the serialized form into the off-heap tier.  Only
+   *  called by the Cleaner, which then may drop the on-heap forms.
+   *  @return true if an off-heap copy exists, false if the off-heap budget is
+   *  exhausted (or the tier is disabled) */
+  boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    if( isDeleted() ) return false;
+    OffHeapCopy copy = OffHeapCopy.make(memOrLoad());
+    if( copy == null ) return false;
+    if( !OFF_HEAP_UPDATER.compareAndSet(this,null,copy) ) { // Only the Cleaner stores, but be safe
+      copy.releaseOwner();
+      return true;
+    }
+    if( isDeleted() ) freeOffHeap(); // Check del bit AFTER storing; close race with deleting user thread
+    return true;
+  }
+
+  /** Release the off-heap copy (if any) of a removed Value.  Readers in the
+   *  middle of a restore keep the memory until they are done. */
+  void freeOffHeap() {
+    OffHeapCopy copy = _offHeap;
+    if( copy != null && OFF_HEAP_UPDATER.compareAndSet(this,copy,null) )
+      copy.releaseOwner();
+  }
+
+  /** The Value was replaced in the K/V store.  Readers may still hold it, so
+   *  its off-heap copy is released once the Value itself is unreachable. */
+  void retireOffHeap() {
+    OffHeapCopy copy = _offHeap;
+    if( copy != null ) OffHeapCopy.retire(this,copy);
+  }
+
   String nameOfPersist() { return nameOfPersist(backend()); }
   /** One of ICE, HDFS, S3, GCS, NFS or TCP, according to where this Value is persisted.
    *  @return Short String of the persitance name */
@@ -362,16 +417,24 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   // Custom serializers: the _mem field is racily cleared by the MemoryManager
   // and the normal serializer then might ship over a null instead of the
   // intended byte[].  Also, the value is NOT on the deserialize'd machines disk
+  // Large Values headed to another node are block compressed when enabled
+  // (see BlockCompression); a wire-only bit in the persist byte flags it.
   public final AutoBuffer write_impl( AutoBuffer ab ) {
-    return ab.put1(_persist).put2(_type).putA1(memOrLoad());
+    byte p = _persist;
+    byte[] m = memOrLoad();
+    byte[] z = ab._h2o != null ? BlockCompression.compress(m) : null;
+    if( z != null ) { p |= WIRE_z; m = z; }
+    return ab.put1(p).put2(_type).putA1(m);
   }
   // Custom serializer: set _max from _mem length; set replicas & timestamp.
   public final Value read_impl(AutoBuffer bb) {
     assert _key == null;        // Not set yet
     // Set persistence backend but... strip off saved-to-disk bit
-    _persist = (byte)(bb.get1()&BACKEND_MASK);
+    byte p = (byte)bb.get1();
+    _persist = (byte)(p&BACKEND_MASK);
     _type = (short) bb.get2();
     _mem = bb.getA1();
+    if( (p&WIRE_z) != 0 ) _mem = BlockCompression.decompress(_mem);
     _max = _mem.length;
     assert _max < MAX : "Value size=0x"+Integer.toHexString(_max)+" during read is larger than "+Integer.toHexString(MAX)+", type: "+TypeMap.className(_type);
     _pojo = null;
@@ -2,6 +2,7 @@ package water.api;
 
 import water.DKV;
 import water.Key;
+import water.Keyed;
 import water.api.schemas3.JobV3;
 import water.api.schemas3.ParseSVMLightV3;
 import water.api.schemas3.ParseV3;
@@ -10,6 +11,8 @@ import water.fvec.Frame;
 import water.fvec.Vec;
 import water.parser.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,8 +39,29 @@ class ParseHandler extends Handler {
       srcs[i] = parse.source_frames[i].key();
     }
 
+    RowFilter rowFilter = null;
+    if (parse.row_filter != null && !parse.row_filter.trim().isEmpty()) {
+      rowFilter = RowFilter.parse(parse.row_filter); // fail early on a malformed filter
+      setup.setRowFilter(parse.row_filter);
+    }
+
     if (parse.partition_by != null) {
-      final String[][] partitionValues = syntheticColumValuesFromPartitions(parse.partition_by, srcs);
+      String[][] partitionValues = syntheticColumValuesFromPartitions(parse.partition_by, srcs);
+      if (rowFilter != null) {
+        // Files of partitions which cannot match the filter are not parsed at all
+        List<Key> keptSrcs = new ArrayList<>();
+        List<String[]> keptValues = new ArrayList<>();
+        for (int i = 0; i < srcs.length; i++) {
+          if (rowFilter.mayMatch(parse.partition_by, partitionValues[i]) || (i == srcs.length - 1 && keptSrcs.isEmpty())) {
+            keptSrcs.add(srcs[i]); // keep at least one file to get a (possibly empty) frame with the right columns
+            keptValues.add(partitionValues[i]);
+          } else if (parse.delete_on_done) {
+            Keyed.remove(srcs[i]);
+          }
+        }
+        srcs = keptSrcs.toArray(new Key[0]);
+        partitionValues = keptValues.toArray(new String[0][]);
+      }
       setup.setSyntheticColumns(parse.partition_by, partitionValues, Vec.T_CAT);
     }
 
@@ -241,6 +241,7 @@ public class RequestServer extends HttpServlet {
   public void doGeneric(String method, HttpServletRequest request, HttpServletResponse response) {
     try {
       ServletUtils.startTransaction(request.getHeader("User-Agent"));
+      JobScheduler.setRequestTenant(JobScheduler.tenantOf(request.getRemoteUser(), request.getHeader(JobScheduler.TENANT_HEADER)));
 
       // Note that getServletPath does an un-escape so that the %24 of job id's are turned into $ characters.
       String uri = request.getServletPath();
@@ -360,6 +361,7 @@ public class RequestServer extends HttpServlet {
         }).start();
       }
       ServletUtils.endTransaction();
+      JobScheduler.setRequestTenant(null);
     }
   }
 
@@ -50,6 +50,12 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
   @API(help="ready for view", direction=API.Direction.OUTPUT)
   public boolean ready_for_view;
 
+  @API(help="tenant the job is scheduled for", direction=API.Direction.OUTPUT)
+  public String tenant;
+
+  @API(help="waiting for admission by the job scheduler", direction=API.Direction.OUTPUT)
+  public boolean queued;
+
   //==========================
   // Custom adapters go here
 
@@ -92,6 +98,8 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
     }
     msec = job.msec();
     ready_for_view = job.readyForView();
+    tenant = job.tenant();
+    queued = job.isQueued();
 
     Keyed dest_type;
     Value value = null;
@@ -62,6 +62,10 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help = "Name of the column the persisted dataset has been partitioned by.")
   public String[] partition_by;
 
+  @API(help="Keep only rows matching this conjunction of column comparisons, e.g. \"year >= 2019 & carrier == 'AA'\". " +
+          "Parquet row groups, ORC stripes and dataset partitions which cannot match are skipped.", direction=API.Direction.INPUT)
+  public String row_filter;
+
   // Output fields
   @API(help="Parse job", direction=API.Direction.OUTPUT)
   public JobV3 job;
@@ -48,6 +48,7 @@ public class ByteVec extends Vec {
           sz[0] += _c0 != null ? _c0._len : 0;
           if (_cidx >= nChunks()) return 0;
           _c0 = chunkForChunkIdx(_cidx++);
+          ChunkPrefetcher.prefetchAfter(ByteVec.this, _cidx - 1, false);
           _sz = C1NChunk._OFF;
           if (job_key != null)
             Job.update(_c0._len, job_key);
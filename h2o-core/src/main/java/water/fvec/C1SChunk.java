@@ -56,9 +56,7 @@ public final class C1SChunk extends CSChunk {
    */
   @Override
   public double [] getDoubles(double [] vals, int from, int to, double NA){
-    for(int i = from; i < to; ++i)
-      vals[i-from] = getD(0xFF&_mem[_OFF+i],C1Chunk._NA,NA);
-    return vals;
+    return decodeDoubles(vals,from,to,C1Chunk._NA,NA);
   }
   /**
    * Dense bulk interface, fetch values from the given ids
@@ -43,9 +43,7 @@ public class C4SChunk extends CSChunk {
   @Override boolean setNA_impl(int idx) {setMantissa(idx,C4Chunk._NA); return true; }
 
   @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
-    for(int i = from; i < to; i++)
-      vals[i-from] = getD(getMantissa(i),C4Chunk._NA,NA);
-    return vals;
+    return decodeDoubles(vals,from,to,C4Chunk._NA,NA);
   }
 
   @Override public double [] getDoubles(double [] vals, int [] ids){
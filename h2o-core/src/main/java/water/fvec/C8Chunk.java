@@ -56,6 +56,15 @@ public class C8Chunk extends Chunk {
     }
     return vals;
   }
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    checkBulkRange(vals.length, from, to); // Unsafe copies are not range checked
+    UnsafeUtils.copyMemory(_mem, 8L*from, vals, 0, to-from);
+    if( NA != _NA )
+      for(int i = 0; i < to-from; i++)
+        if( vals[i] == _NA ) vals[i] = NA;
+    return vals;
+  }
+
   @Override public double [] getDoubles(double [] vals, int [] ids){
     int k = 0;
     for(int i:ids) {
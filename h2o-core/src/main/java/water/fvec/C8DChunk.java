@@ -58,10 +58,12 @@ public class C8DChunk extends Chunk {
   }
 
   @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
-    for(int i = from; i < to; i++) {
-      double d = UnsafeUtils.get8d(_mem, 8 * i);
-      vals[i - from] = Double.isNaN(d)?NA:d;
-    }
+    // Stored NAs are NaNs already; the common case is a plain memcpy
+    checkBulkRange(vals.length, from, to); // Unsafe copies are not range checked
+    UnsafeUtils.copyMemory(_mem, 8L*from, vals, 0, to-from);
+    if( !Double.isNaN(NA) )
+      for(int i = 0; i < to-from; i++)
+        if( Double.isNaN(vals[i]) ) vals[i] = NA;
     return vals;
   }
   @Override public double [] getDoubles(double [] vals, int [] ids){
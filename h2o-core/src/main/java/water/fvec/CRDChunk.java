@@ -0,0 +1,122 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+/**
+ * The run-length compression function, for doubles.  Used for sorted or
+ * slowly changing columns (e.g. keys after a sort, or a price that stays put
+ * for many rows) which do not compress otherwise.
+ *
+ * Row access is a binary search over the run starts; bulk reads find the
+ * first run once and then walk the runs.
+ *
+ * Layout: _len, number of runs, the start row of every run (ints, ascending,
+ * first one is always 0), then the value of every run (doubles, NaN for NA).
+ */
+public class CRDChunk extends Chunk {
+  static final int _OFF = 4 + 4;
+  /** Minimal average run length; shorter runs make every row access a binary search for little gain. */
+  static final int MIN_AVG_RUN = 8;
+  public static int computeByteSize(int runs) {
+    return _OFF + runs * (4 + 8);
+  }
+  /** True if rows in this many runs are worth run-length encoding. */
+  static boolean longRuns(int runs, int len) {
+    return runs > 0 && len >= (long) MIN_AVG_RUN * runs;
+  }
+  private transient int _runs;
+
+  CRDChunk() {}
+  CRDChunk(byte[] bs, int runs, int len) {
+    _start = -1;
+    set_len(len);
+    _runs = runs;
+    _mem = MemoryManager.malloc1(computeByteSize(runs), false);
+    UnsafeUtils.set4(_mem, 0, len);
+    UnsafeUtils.set4(_mem, 4, runs);
+    int r = -1;
+    long last = 0;
+    for (int i = 0; i < len; ++i) {
+      long bits = Double.doubleToLongBits(UnsafeUtils.get8d(bs, i << 3));
+      if (r == -1 || bits != last) {
+        ++r;
+        UnsafeUtils.set4(_mem, _OFF + (r << 2), i);
+        UnsafeUtils.set8(_mem, valOff(r), bits);
+        last = bits;
+      }
+    }
+    assert r + 1 == runs : "expected " + runs + " runs, found " + (r + 1);
+  }
+
+  private int valOff(int run) { return _OFF + (_runs << 2) + (run << 3); }
+  private int runStart(int run) { return UnsafeUtils.get4(_mem, _OFF + (run << 2)); }
+  private int runEnd(int run) { return run + 1 == _runs ? _len : runStart(run + 1); }
+  private double runVal(int run) { return UnsafeUtils.get8d(_mem, valOff(run)); }
+
+  // Index of the run holding row i
+  private int run(int i) {
+    int lo = 0, hi = _runs - 1;
+    while (lo < hi) {           // Find the last run starting at or before i
+      int mid = (lo + hi + 1) >>> 1;
+      if (runStart(mid) <= i) lo = mid;
+      else hi = mid - 1;
+    }
+    return lo;
+  }
+
+  @Override protected final long at8_impl(int i) {
+    double res = atd_impl(i);
+    if (Double.isNaN(res)) throw new IllegalArgumentException("at8_impl but value is missing");
+    return (long) res;
+  }
+  @Override protected final double atd_impl(int i) { return runVal(run(i)); }
+  @Override protected final boolean isNA_impl(int i) { return Double.isNaN(atd_impl(i)); }
+
+  // Only writes which do not split a run are supported in place
+  @Override boolean set_impl(int idx, long l) {
+    double d = (double) l;
+    return (long) d == l && set_impl(idx, d); // Else inflate, the double would lose precision
+  }
+  @Override boolean set_impl(int i, double d) {
+    return Double.doubleToLongBits(d) == Double.doubleToLongBits(atd_impl(i));
+  }
+  @Override boolean set_impl(int i, float f) { return set_impl(i, (double) f); }
+  @Override boolean setNA_impl(int idx) { return isNA_impl(idx); }
+
+  @Override public double[] getDoubles(double[] vals, int from, int to, double NA) {
+    checkBulkRange(vals.length, from, to);
+    for (int r = from < to ? run(from) : _runs; r < _runs && runStart(r) < to; ++r) {
+      double d = runVal(r);
+      if (Double.isNaN(d)) d = NA;
+      int lo = Math.max(runStart(r), from), hi = Math.min(runEnd(r), to);
+      for (int i = lo; i < hi; ++i) vals[i - from] = d;
+    }
+    return vals;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for (int r = from < to ? run(from) : _runs; r < _runs && runStart(r) < to; ++r) {
+      double d = runVal(r);
+      int n = Math.min(runEnd(r), to) - Math.max(runStart(r), from);
+      if (Double.isNaN(d)) v.addNAs(n);
+      else for (int i = 0; i < n; ++i) v.addValue(d);
+    }
+    return v;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for (int i : ids) {
+      double d = atd_impl(i);
+      if (Double.isNaN(d)) v.addNAs(1);
+      else v.addValue(d);
+    }
+    return v;
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem, 0));
+    _runs = UnsafeUtils.get4(_mem, 4);
+  }
+}
@@ -789,6 +789,22 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   public int [] getIntegers(int [] vals, int from, int to, int NA){
     return processRows(new ChunkVisitor.IntAryVisitor(vals,NA),from,to).vals;
   }
+  /**
+   * Dense bulk interface for integer chunks, fetch values from the given range.
+   * Throws if a value is not an integer.
+   * @param vals holds the extracted values, length must be >= to-from
+   * @param from
+   * @param to
+   * @param NA value used for missing rows
+   */
+  public long [] getLongs(long [] vals, int from, int to, long NA){
+    return processRows(new ChunkVisitor.LongAryVisitor(vals,NA),from,to).vals;
+  }
+
+  final void checkBulkRange(int len, int from, int to) {
+    if( from < 0 || to > _len || from > to || to - from > len )
+      throw new ArrayIndexOutOfBoundsException("Cannot extract rows [" + from + "," + to + ") of a chunk of " + _len + " rows into an array of length " + len);
+  }
   /**
    * Dense bulk interface, fetch values from the given ids
    * @param vals
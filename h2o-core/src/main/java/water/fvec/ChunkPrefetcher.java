@@ -0,0 +1,100 @@
+package water.fvec;
+
+import water.H2O;
+import water.Key;
+import water.MemoryManager;
+import water.Value;
+import water.util.Log;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded read-ahead of file chunks.  While a parser tokenizes one chunk of a
+ * {@link FileVec}, the next few chunks are loaded from the backing store (S3,
+ * HDFS, ...) by a small pool of I/O threads, so that fetch latency overlaps with
+ * parsing instead of adding up with it.
+ *
+ * Off by default; enable with {@code -Dsys.ai.h2o.parse.prefetch.chunks=N} to
+ * read up to N chunks ahead.  Prefetching is best-effort: requests are dropped
+ * when the queue is full or memory is tight, and the parser then simply loads
+ * the chunk itself as before.
+ */
+public final class ChunkPrefetcher {
+
+  /** Number of chunks to read ahead of the current one; 0 disables prefetching. */
+  static int DEPTH = Integer.parseInt(H2O.getSysProperty("parse.prefetch.chunks", "0"));
+  /** Number of I/O threads doing the loads. */
+  private static final int THREADS = Integer.parseInt(H2O.getSysProperty("parse.prefetch.threads", "4"));
+
+  private static final ConcurrentHashMap<Key, Boolean> IN_FLIGHT = new ConcurrentHashMap<>();
+  private static volatile ThreadPoolExecutor POOL;
+
+  private ChunkPrefetcher() {}
+
+  public static boolean isEnabled() { return DEPTH > 0; }
+
+  /**
+   * Schedule loading of chunks {@code cidx+1 .. cidx+DEPTH} of the given vec.
+   * @param localOnly only prefetch chunks homed on this node, i.e. the ones a
+   *                  distributed task is going to parse here
+   */
+  public static void prefetchAfter(Vec vec, int cidx, boolean localOnly) {
+    final int depth = DEPTH;
+    if( depth <= 0 || !(vec instanceof FileVec) ) return;
+    final int nchks = vec.nChunks();
+    for( int c = cidx + 1; c <= cidx + depth && c < nchks; c++ ) {
+      Key k = vec.chunkKey(c);
+      if( localOnly && !k.home() ) continue;
+      Value v = Value.STORE_get(k);
+      if( v != null && v.isLoaded() ) continue;   // Nothing to do
+      if( !MemoryManager.canAlloc() ) return;     // Do not add to memory pressure
+      if( IN_FLIGHT.putIfAbsent(k, Boolean.TRUE) != null ) continue;
+      try {
+        pool().execute(new Load((FileVec) vec, c, k));
+      } catch( RejectedExecutionException e ) {
+        IN_FLIGHT.remove(k);                      // Queue is full, parser will load it
+        return;
+      }
+    }
+  }
+
+  private static ThreadPoolExecutor pool() {
+    ThreadPoolExecutor pool = POOL;
+    if( pool == null ) {
+      synchronized( ChunkPrefetcher.class ) {
+        if( (pool = POOL) == null ) {
+          final AtomicInteger cnt = new AtomicInteger();
+          pool = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+              new ArrayBlockingQueue<Runnable>(Math.max(16, THREADS * DEPTH * 2)),
+              new ThreadFactory() {
+                @Override public Thread newThread(Runnable r) {
+                  Thread t = new Thread(r, "ChunkPrefetch-" + cnt.incrementAndGet());
+                  t.setDaemon(true);
+                  return t;
+                }
+              });
+          pool.allowCoreThreadTimeOut(true);
+          POOL = pool;
+        }
+      }
+    }
+    return pool;
+  }
+
+  private static class Load implements Runnable {
+    private final FileVec _vec;
+    private final int _cidx;
+    private final Key _key;
+    Load(FileVec vec, int cidx, Key key) { _vec = vec; _cidx = cidx; _key = key; }
+    @Override public void run() {
+      try {
+        _vec.chunkIdx(_cidx).memOrLoad();
+      } catch( Throwable t ) {                    // Parser will retry and report
+        Log.debug("Failed to prefetch chunk " + _cidx + " of " + _vec._key + ": " + t);
+      } finally {
+        IN_FLIGHT.remove(_key);
+      }
+    }
+  }
+}
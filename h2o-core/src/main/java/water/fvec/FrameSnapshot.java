@@ -0,0 +1,147 @@
+package water.fvec;
+
+import water.*;
+import water.persist.Persist;
+import water.util.FileUtils;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Binary columnar snapshot of a Frame.  A snapshot holds the row layout (ESPC),
+ * and for every column its type, domain, rollups and the compressed bytes of all
+ * of its chunks, exactly as they are held in the K/V store.  Loading a snapshot
+ * streams the chunks straight back into the DKV: there is no parse, no
+ * re-compression and no rollup pass, so save and load run at I/O speed.
+ *
+ * Like binary models, a snapshot can only be loaded by the same version of H2O
+ * which wrote it.  The snapshot can be written to any persist backend (local
+ * filesystem, HDFS, S3, ...).
+ *
+ * Layout, written column after column so that a column's chunks are contiguous:
+ * <pre>
+ *   magic, format version, names, espc
+ *   per column: type, domain, rollups (or null)
+ *   per column: chunk 0 .. chunk nChunks-1
+ * </pre>
+ */
+public final class FrameSnapshot {
+
+  private static final int MAGIC = 0x48324f53; // "H2OS"
+  private static final int FORMAT_VERSION = 1;
+
+  private FrameSnapshot() {}
+
+  /**
+   * Write a snapshot of the given Frame.
+   * @param fr Frame to save; it must not have virtual (wrapped, subset, ...) columns
+   * @param location target path, it can be on local filesystem, HDFS, S3...
+   * @param force If true, overwrite already existing file
+   * @return URI representation of the target location
+   * @throws IOException when writing fails
+   */
+  public static URI save(Frame fr, String location, boolean force) throws IOException {
+    Vec[] vecs = fr.vecs();
+    for( int i = 0; i < vecs.length; i++ )
+      if( vecs[i].getClass() != Vec.class )
+        throw new IllegalArgumentException("Column '" + fr.name(i) + "' is a virtual column (" +
+            vecs[i].getClass().getSimpleName() + "), make a copy of the frame before saving it");
+    OutputStream os = null;
+    try {
+      URI targetUri = FileUtils.getURI(location);
+      Persist p = H2O.getPM().getPersistForURI(targetUri);
+      os = p.create(targetUri.toString(), force);
+      AutoBuffer ab = new AutoBuffer(os, true);
+      write(fr, ab);
+      ab.close();
+      os.close();
+      return targetUri;
+    } finally {
+      FileUtils.closeSilently(os);
+    }
+  }
+
+  /**
+   * Load a snapshot into a new Frame.
+   * @param location path to the snapshot on a local filesystem, HDFS, S3...
+   * @param dest key of the new Frame, an existing Frame with this key is replaced
+   * @return the loaded Frame
+   * @throws IOException when reading fails
+   */
+  public static Frame load(String location, Key<Frame> dest) throws IOException {
+    InputStream is = null;
+    try {
+      URI sourceUri = FileUtils.getURI(location);
+      Persist p = H2O.getPM().getPersistForURI(sourceUri);
+      is = p.open(sourceUri.toString());
+      AutoBuffer ab = new AutoBuffer(is);
+      ab.sourceName = sourceUri.toString();
+      Frame fr = read(dest, ab);
+      ab.close();
+      is.close();
+      return fr;
+    } finally {
+      FileUtils.closeSilently(is);
+    }
+  }
+
+  private static void write(Frame fr, AutoBuffer ab) {
+    Vec[] vecs = fr.vecs();
+    long[] espc = vecs.length == 0 ? new long[]{0} : vecs[0].espc();
+    ab.put4(MAGIC).put4(FORMAT_VERSION);
+    ab.putAStr(fr.names()).putA8(espc);
+    for( Vec v : vecs ) {
+      ab.put1(v.get_type()).putAStr(v.domain());
+      ab.put(v.length() == 0 ? null : RollupStats.get(v));
+    }
+    for( Vec v : vecs ) {
+      int ncs = v.nChunks();
+      for( int i = 0; i < ncs; i++ ) {
+        Key ck = v.chunkKey(i);
+        ab.put(DKV.getGet(ck));   // Pull all Chunks local
+        if( !ck.home() ) H2O.raw_remove(ck); // Remove the non-local ones as you go
+      }
+    }
+    Log.info("Saved snapshot of frame " + fr._key + ": " + vecs.length + " columns, " + (espc.length - 1) + " chunks each");
+  }
+
+  private static Frame read(Key<Frame> dest, AutoBuffer ab) {
+    if( ab.get4() != MAGIC )
+      throw new IllegalArgumentException("Not a frame snapshot: " + ab.sourceName);
+    int version = ab.get4();
+    if( version != FORMAT_VERSION )
+      throw new IllegalArgumentException("Unsupported frame snapshot version " + version + " in " + ab.sourceName);
+    String[] names = ab.getAStr();
+    long[] espc = ab.getA8();
+    Key<Vec>[] keys = new Vec.VectorGroup().addVecs(names.length);
+    Vec[] vecs = new Vec[names.length];
+    RollupStats[] rollups = new RollupStats[names.length];
+    int rowLayout = names.length == 0 ? 0 : Vec.ESPC.rowLayout(keys[0], espc);
+    for( int i = 0; i < vecs.length; i++ ) {
+      byte type = ab.get1();
+      String[] domain = ab.getAStr();
+      vecs[i] = new Vec(keys[i], rowLayout, domain, type);
+      rollups[i] = ab.get(RollupStats.class);
+    }
+    Futures fs = new Futures();
+    for( Vec v : vecs ) {
+      int ncs = v.nChunks();
+      for( int i = 0; i < ncs; i++ )
+        DKV.put(v.chunkKey(i), ab.get(Chunk.class), fs, true); // Push chunk remote; do not cache local
+    }
+    for( int i = 0; i < vecs.length; i++ ) {
+      if( rollups[i] != null )
+        DKV.put(vecs[i].rollupStatsKey(), rollups[i], fs);
+      DKV.put(vecs[i], fs);
+    }
+    fs.blockForPending();
+    Frame fr = new Frame(dest, names, vecs);
+    fr.delete_and_lock();
+    fr.unlock();
+    Log.info("Loaded frame " + dest + " from snapshot " + ab.sourceName);
+    return fr;
+  }
+}
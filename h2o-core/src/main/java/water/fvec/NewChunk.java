@@ -1518,12 +1518,16 @@ public class NewChunk extends Chunk {
     final byte [] bs = MemoryManager.malloc1(_len *8,true);
     int j = 0;
     boolean fitsInUnique = true;
+    int runs = 0;               // Number of runs of equal values
+    long lastBits = 0;
     for(int i = 0; i < _len; ++i){
       double d = 0;
       if(_id == null || _id.length == 0 || (j < _id.length && _id[j] == i)) {
         d = getDouble(j);
         ++j;
       }
+      long bits = Double.doubleToLongBits(d);
+      if (i == 0 || bits != lastBits) { ++runs; lastBits = bits; }
       if (fitsInUnique) {
         if (hs.size() < CUDChunk.MAX_UNIQUES) //still got space
           hs.put(Double.doubleToLongBits(d),dummy); //store doubles as longs to avoid NaN comparison issues during extraction
@@ -1533,6 +1537,13 @@ public class NewChunk extends Chunk {
       UnsafeUtils.set8d(bs, 8*i, d);
     }
     assert j == _sparseLen :"j = " + j + ", _len = " + _sparseLen;
+    // Pick the smallest of run-length, dictionary and plain doubles; the
+    // fancier encodings must save at least 20% to be worth the slower access,
+    // and runs must be long enough to pay for a binary search per row.
+    int best = bs.length;
+    if (fitsInUnique) best = Math.min(best, CUDChunk.computeByteSize(hs.size(), len()));
+    if (CRDChunk.longRuns(runs, len()) && CRDChunk.computeByteSize(runs) < 0.8 * best)
+      return new CRDChunk(bs, runs, len());
     if (fitsInUnique && CUDChunk.computeByteSize(hs.size(), len()) < 0.8 * bs.length)
       return new CUDChunk(bs, hs, len());
     else
@@ -4,6 +4,7 @@ import water.*;
 import water.fvec.*;
 import water.parser.BufferedString;
 import water.parser.ParseDataset;
+import water.util.BlockingIO;
 import water.util.Log;
 
 import java.math.BigDecimal;
@@ -696,24 +697,38 @@ public class SQLManager {
     public void map(Chunk[] cs, NewChunk[] ncs) {
       if (isCancelled() || _job != null && _job.stop_requested()) return;
       //fetch data from sql table with limit and offset
-      Connection conn = null;
-      Statement stmt = null;
-      ResultSet rs = null;
       Chunk c0 = cs[0];
-      String sqlText = buildSelectChunkSql(_databaseType, _table, c0.start(), c0._len , _columns, _columnNames);
+      final String sqlText = buildSelectChunkSql(_databaseType, _table, c0.start(), c0._len , _columns, _columnNames);
+      final int fetchSize = c0._len;
+      final Connection conn;
       try {
         conn = sqlConn.take();
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Interrupted exception when trying to take connection from pool", e);
+      }
+      try {
+        // the query and the fetch block on the network, keep them off the F/J worker
+        BlockingIO.call(() -> { fetchRows(conn, sqlText, fetchSize, ncs); return null; });
+      } catch (SQLException ex) {
+        throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data", ex);
+      } finally {
+        //return connection to pool
+        sqlConn.add(conn);
+      }
+      if (_job != null) _job.update(1);
+    }
+
+    private static void fetchRows(Connection conn, String sqlText, int fetchSize, NewChunk[] ncs) throws SQLException {
+      Statement stmt = null;
+      ResultSet rs = null;
+      try {
         stmt = conn.createStatement();
         //set fetch size for best performance
-        stmt.setFetchSize(c0._len);
+        stmt.setFetchSize(fetchSize);
         rs = stmt.executeQuery(sqlText);
         while (rs.next()) {
           writeRow(rs, ncs);
         }
-      } catch (SQLException ex) {
-        throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data", ex);
-      } catch (InterruptedException e) {
-        throw new RuntimeException("Interrupted exception when trying to take connection from pool", e);
       } finally {
 
         //close result set
@@ -722,7 +737,6 @@ public class SQLManager {
             rs.close();
           } catch (SQLException sqlEx) {
           } // ignore
-          rs = null;
         }
 
         //close statement
@@ -731,14 +745,8 @@ public class SQLManager {
             stmt.close();
           } catch (SQLException sqlEx) {
           } // ignore
-          stmt = null;
         }
-
-        //return connection to pool
-        sqlConn.add(conn);
-
       }
-      if (_job != null) _job.update(1);
     }
 
     static void writeRow(ResultSet rs, NewChunk[] ncs) throws SQLException {
@@ -77,6 +77,10 @@ public class BufferedString extends Iced implements Comparable<BufferedString> {
      _len++;
    }
 
+   void addChars(int n) {
+     _len += n;
+   }
+
    void removeChar(){
      _len--;
    }
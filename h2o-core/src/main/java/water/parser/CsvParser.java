@@ -19,6 +19,8 @@ public class CsvParser extends Parser {
   private static final int GUESS_HEADER = ParseSetup.GUESS_HEADER;
   private static final int HAS_HEADER = ParseSetup.HAS_HEADER;
   private static final byte[] NON_DATA_LINE_MARKERS_DEFAULT = {'#'};
+  // Numbers below this can take 8 more digits at once and still stay below LARGEST_DIGIT_NUMBER
+  private static final long SWAR_NUMBER_LIMIT = LARGEST_DIGIT_NUMBER / 100000000L;
 
   private final byte[] _nonDataLineMarkers; 
 
@@ -138,6 +140,16 @@ MAIN_LOOP:
             str.addChar();
             if ((c & 0x80) == 128) //value beyond std ASCII
               isAllASCII = false;
+            if (SwarScan.ENABLED && str.getBuffer() == bits) {
+              // Take the rest of a plain run in one step, it ends at the next quote (or separator / EOL outside quotes)
+              int end = SwarScan.tokenEnd(bits, offset + 1, CHAR_SEPARATOR, (byte) quotes, quoteCount != 1);
+              if (end > offset + 1) {
+                if (isAllASCII && SwarScan.hasNonAscii(bits, offset + 1, end))
+                  isAllASCII = false;
+                str.addChars(end - offset - 1);
+                offset = end - 1;
+              }
+            }
             break;
           }
           
@@ -298,7 +310,13 @@ MAIN_LOOP:
         case NUMBER:
           if ((c >= '0') && (c <= '9')) {
             if (number >= LARGEST_DIGIT_NUMBER)  state = NUMBER_SKIP;
-            else  number = (number*10)+(c-'0');
+            else {
+              number = (number*10)+(c-'0');
+              while (SwarScan.ENABLED && number < SWAR_NUMBER_LIMIT && offset + 9 <= bits.length && SwarScan.isEightDigits(bits, offset + 1)) {
+                number = number*100000000L + SwarScan.eightDigits(bits, offset + 1);
+                offset += 8;
+              }
+            }
             break;
           } else if (c == CHAR_DECIMAL_SEP) {
             state = NUMBER_FRACTION;
@@ -406,6 +424,10 @@ MAIN_LOOP:
               state = NUMBER_SKIP_NO_DOT;
             } else {
               number = (number*10)+(c-'0');
+              while (SwarScan.ENABLED && number < SWAR_NUMBER_LIMIT && offset + 9 <= bits.length && SwarScan.isEightDigits(bits, offset + 1)) {
+                number = number*100000000L + SwarScan.eightDigits(bits, offset + 1);
+                offset += 8;
+              }
             }
             break;
           } else if ((c == 'e') || (c == 'E')) {
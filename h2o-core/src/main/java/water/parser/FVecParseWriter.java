@@ -154,6 +154,37 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     (_nvs[colIdx] = _vecs[colIdx].chunkForChunkIdx(_cidx)).addNAs(nrows);
   }
 
+  /**
+   * Register the levels of a dictionary of the source data in the categorical map of
+   * a categorical column.  Parsers which read such a dictionary once can then write
+   * the column values with {@link #addCategoricalId} without hashing every value.
+   * @return categorical id of each level, or null if the column is not typed as categorical
+   */
+  public int[] addCategoricalLevels(int colIdx, BufferedString[] levels) {
+    if( colIdx >= _nCols || _ctypes == null || _ctypes[colIdx] != Vec.T_CAT ) return null;
+    int[] ids = new int[levels.length];
+    for( int i = 0; i < levels.length; i++ ) {
+      if( _categoricals[colIdx].isMapFull() )
+        throw new ParseDataset.H2OParseException("Exceeded categorical limit on column #"+(colIdx+1)+" (using 1-based indexing).  Consider reparsing this column as a string.");
+      ids[i] = _categoricals[colIdx].addKey(levels[i]);
+    }
+    return ids;
+  }
+
+  /** Adds a value of a categorical column by an id returned from {@link #addCategoricalLevels}. */
+  public void addCategoricalId(int colIdx, int id) {
+    _nvs[_col = colIdx].addNum(id, 0);
+  }
+
+  /**
+   * Account for lines which were written column after column (all values of one
+   * column, then all values of the next), instead of line by line with {@link #newLine}.
+   */
+  public void addColumnarLines(int nrows) {
+    _nLines += nrows;
+    _col = -1;
+  }
+
   @Override public boolean isString(int colIdx) { return (colIdx < _nCols) && (_ctypes[colIdx] == Vec.T_CAT || _ctypes[colIdx] == Vec.T_STR);}
 
   @Override public void addStrCol(int colIdx, BufferedString str) {
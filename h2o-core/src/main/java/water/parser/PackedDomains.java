@@ -1,12 +1,21 @@
 package water.parser;
 
+import jsr166y.ForkJoinTask;
+import jsr166y.ForkJoinWorkerThread;
+import jsr166y.RecursiveAction;
 import water.MemoryManager;
 import water.util.StringUtils;
 
+import java.util.Arrays;
+
 import static water.util.ArrayUtils.*;
 
 public class PackedDomains {
 
+  // Smallest key range worth a separate task when merging / sorting in parallel
+  static int MIN_PART_BYTES = 1 << 18;
+  static int MIN_PART_WORDS = 1 << 14;
+
   public static int sizeOf(byte[] domain) {
     return encodeAsInt(domain, 0);
   }
@@ -42,12 +51,17 @@ public class PackedDomains {
   }
 
   static int calcMergedSize(byte[] as, byte[] bs) {
+    return 4 + calcMergedSize(as, 4, as.length, bs, 4, bs.length);
+  }
+
+  // Number of bytes the words of as[fromA, toA) and bs[fromB, toB) take once merged
+  private static int calcMergedSize(byte[] as, int fromA, int toA, byte[] bs, int fromB, int toB) {
     int shared = 0;
-    int pA = 4;
-    int pB = 4;
+    int pA = fromA;
+    int pB = fromB;
     BufferedString bsA = new BufferedString(as, 0, 0);
     BufferedString bsB = new BufferedString(bs, 0, 0);
-    while ((pA < as.length) && (pB < bs.length)) {
+    while ((pA < toA) && (pB < toB)) {
       int sizeA = encodeAsInt(as, pA);
       bsA.setOff(pA + 4);
       bsA.setLen(sizeA);
@@ -65,7 +79,7 @@ public class PackedDomains {
         pB += sizeA + 4;
       }
     }
-    return as.length + bs.length - 4 - shared;
+    return (toA - fromA) + (toB - fromB) - shared;
   }
 
   public static byte[] merge(byte[] as, byte[] bs) {
@@ -75,13 +89,132 @@ public class PackedDomains {
     if (size == bs.length)
       return bs;
     byte[] data = MemoryManager.malloc1(size);
+    int shared = merge(as, 4, as.length, bs, 4, bs.length, data, 4);
+    int len = encodeAsInt(as, 0) + encodeAsInt(bs, 0) - shared;
+    decodeAsInt(len, data, 0);
+    return data;
+  }
+
+  /**
+   * Merges two packed domains splitting the work into up to maxParts key ranges
+   * which are merged concurrently, so that the merge of a single high-cardinality
+   * column is not bound to one core.  Produces the same result as
+   * {@link #merge(byte[], byte[])}; the ranges are processed serially when not
+   * called from an F/J worker.
+   */
+  public static byte[] merge(byte[] as, byte[] bs, int maxParts) {
+    if (bs.length > as.length) { // split along the bigger domain
+      byte[] t = as; as = bs; bs = t;
+    }
+    final int nparts = Math.min(maxParts, as.length / MIN_PART_BYTES);
+    if (nparts <= 1 || sizeOf(bs) == 0)
+      return merge(as, bs);
+    final byte[] fas = as, fbs = bs;
+    final int[] offA = wordOffsets(as);
+    final int[] offB = wordOffsets(bs);
+    final int[] fromA = new int[nparts + 1];
+    final int[] fromB = new int[nparts + 1];
+    fromA[0] = fromB[0] = 4;
+    fromA[nparts] = as.length;
+    fromB[nparts] = bs.length;
+    for (int p = 1; p < nparts; p++) { // words of B equal to a split word of A go to the same range
+      fromA[p] = offA[(int) ((long) p * (offA.length - 1) / nparts)];
+      fromB[p] = offB[lowerBound(bs, offB, as, fromA[p])];
+    }
+    final int[] sizes = new int[nparts];
+    forEachPart(nparts, new PartTask() {
+      @Override void compute(int p) {
+        sizes[p] = calcMergedSize(fas, fromA[p], fromA[p + 1], fbs, fromB[p], fromB[p + 1]);
+      }
+    });
+    final int[] outPos = new int[nparts];
+    int size = 4;
+    for (int p = 0; p < nparts; p++) {
+      outPos[p] = size;
+      size += sizes[p];
+    }
+    if (size == as.length)
+      return as;
+    final byte[] data = MemoryManager.malloc1(size);
+    final int[] shared = new int[nparts];
+    forEachPart(nparts, new PartTask() {
+      @Override void compute(int p) {
+        shared[p] = merge(fas, fromA[p], fromA[p + 1], fbs, fromB[p], fromB[p + 1], data, outPos[p]);
+      }
+    });
+    int len = offA.length - 1 + offB.length - 1;
+    for (int s : shared)
+      len -= s;
+    decodeAsInt(len, data, 0);
+    return data;
+  }
+
+  /**
+   * Sorts the given words and packs them, for big domains the sort runs on up to
+   * maxParts slices concurrently which are then merged pairwise.
+   */
+  public static byte[] sortAndPack(final BufferedString[] domain, int maxParts) {
+    final int nparts = Math.min(maxParts, domain.length / MIN_PART_WORDS);
+    if (nparts <= 1) {
+      Arrays.sort(domain);
+      return pack(domain);
+    }
+    final byte[][] sorted = new byte[nparts][];
+    forEachPart(nparts, new PartTask() {
+      @Override void compute(int p) {
+        BufferedString[] slice = Arrays.copyOfRange(domain,
+            (int) ((long) p * domain.length / nparts), (int) ((long) (p + 1) * domain.length / nparts));
+        Arrays.sort(slice);
+        sorted[p] = pack(slice);
+      }
+    });
+    byte[][] packed = sorted;
+    while (packed.length > 1) {
+      final byte[][] in = packed;
+      final byte[][] out = new byte[(in.length + 1) / 2][];
+      final int partsPerPair = Math.max(1, maxParts / (in.length / 2));
+      forEachPart(in.length / 2, new PartTask() {
+        @Override void compute(int p) {
+          out[p] = merge(in[2 * p], in[2 * p + 1], partsPerPair);
+        }
+      });
+      if ((in.length & 1) == 1)
+        out[out.length - 1] = in[in.length - 1];
+      packed = out;
+    }
+    return packed[0];
+  }
+
+  // Merge-join of the sorted node-local levels with the sorted global domain,
+  // no per-level lookups or String conversions of the global domain
+  static void mapToPackedDomain(Categorical cat, byte[] packed, int[] ordMap) {
+    final BufferedString[] levels = cat.getColumnDomain();
+    Arrays.sort(levels);
+    final int n = sizeOf(packed);
+    final BufferedString word = new BufferedString(packed, 0, 0);
+    int pos = 4;
+    int g = 0;
+    for (BufferedString level : levels) {
+      while (g < n) {
+        int len = encodeAsInt(packed, pos);
+        word.setOff(pos + 4);
+        word.setLen(len);
+        int x = word.compareTo(level);
+        if (x == 0) ordMap[cat.getTokenId(level)] = g;
+        if (x >= 0) break;
+        pos += len + 4;
+        g++;
+      }
+    }
+  }
 
+  // Merges the words of as[fromA, toA) and bs[fromB, toB) into data starting at pos; returns number of shared words
+  private static int merge(byte[] as, int fromA, int toA, byte[] bs, int fromB, int toB, byte[] data, int pos) {
     int shared = 0; // number of shared words
-    int pos = 4; // position in output
-    int pA = 4; // position in A
-    int pB = 4; // position in B
+    int pA = fromA; // position in A
+    int pB = fromB; // position in B
 
-    while (pA < as.length && pB < bs.length) {
+    while (pA < toA && pB < toB) {
       int wordPos = pos;
       pos += 4;
 
@@ -119,13 +252,60 @@ public class PackedDomains {
         pA = wA;
       }
     }
-    while (pA < as.length)
+    while (pA < toA)
       data[pos++] = as[pA++];
-    while (pB < bs.length)
+    while (pB < toB)
       data[pos++] = bs[pB++];
-    int len = encodeAsInt(as, 0) + encodeAsInt(bs, 0) - shared;
-    decodeAsInt(len, data, 0);
-    return data;
+    return shared;
+  }
+
+  // Positions of all words of a packed domain, followed by the domain length
+  private static int[] wordOffsets(byte[] domain) {
+    final int n = sizeOf(domain);
+    int[] offsets = new int[n + 1];
+    int pos = 4;
+    for (int i = 0; i < n; i++) {
+      offsets[i] = pos;
+      pos += encodeAsInt(domain, pos) + 4;
+    }
+    offsets[n] = pos;
+    return offsets;
+  }
+
+  // Index of the first word of domain (given its offsets) which is not less than the word of key at keyPos
+  private static int lowerBound(byte[] domain, int[] offsets, byte[] key, int keyPos) {
+    BufferedString k = new BufferedString(key, keyPos + 4, encodeAsInt(key, keyPos));
+    BufferedString w = new BufferedString(domain, 0, 0);
+    int lo = 0, hi = offsets.length - 1;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      w.setOff(offsets[mid] + 4);
+      w.setLen(encodeAsInt(domain, offsets[mid]));
+      if (w.compareTo(k) < 0) lo = mid + 1;
+      else hi = mid;
+    }
+    return lo;
+  }
+
+  private static abstract class PartTask {
+    abstract void compute(int p);
+  }
+
+  // Runs the parts as F/J tasks when called from a worker, serially otherwise
+  private static void forEachPart(int nparts, final PartTask task) {
+    if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+      for (int p = 0; p < nparts; p++)
+        task.compute(p);
+      return;
+    }
+    RecursiveAction[] actions = new RecursiveAction[nparts];
+    for (int p = 0; p < nparts; p++) {
+      final int fp = p;
+      actions[p] = new RecursiveAction() {
+        @Override protected void compute() { task.compute(fp); }
+      };
+    }
+    ForkJoinTask.invokeAll(actions);
   }
 
 }
@@ -0,0 +1,132 @@
+package water.parser;
+
+import water.*;
+import water.fvec.ByteVec;
+import water.fvec.FileVec;
+import water.fvec.Frame;
+import water.util.Log;
+import water.util.StringUtils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cache of parse results keyed by a fingerprint of the source files and of the
+ * {@link ParseSetup}.  A file is fingerprinted by its path and what its persist
+ * backend reports about the content (size and modification time or ETag, see
+ * {@link water.persist.Persist#fingerprint(Key)}), so parsing the same unchanged
+ * files again copies the Frame parsed before instead of re-parsing the text.
+ *
+ * The cache lives in the DKV, so it is shared by all nodes.  Entries only point
+ * to Frames; a Frame which was deleted or modified since it was parsed is not
+ * used and its entry is dropped.  At most {@code parse.cache.max_entries}
+ * entries are kept, the oldest ones are dropped first.  Off by default, enable
+ * with {@code -Dsys.ai.h2o.parse.cache=true}.  Sources which cannot be
+ * fingerprinted (uploads, in-memory data) are always parsed.
+ *
+ * A lookup compares the {@link Frame#checksum()} of the cached Frame with the
+ * one it had when it was parsed.  That is cheap while the rollups of its Vecs
+ * are current, as they are after the parse, but takes a full pass over the data
+ * of Vecs that were written to since.
+ */
+public final class ParseCache {
+
+  static boolean ENABLED = H2O.getSysBoolProperty("parse.cache", false);
+
+  static int MAX_ENTRIES = Integer.parseInt(H2O.getSysProperty("parse.cache.max_entries", "100"));
+
+  private static final String KEY_PREFIX = "parse_cache_";
+  static final Key<Index> INDEX = Key.makeSystem(KEY_PREFIX + "index");
+
+  private ParseCache() {}
+
+  /** A cached parse result: the parsed Frame and its checksum at the time it was parsed. */
+  static final class Entry extends Keyed<Entry> {
+    final Key<Frame> _frame;
+    final long _checksum;
+    Entry(Key<Entry> key, Key<Frame> frame, long checksum) { super(key); _frame = frame; _checksum = checksum; }
+  }
+
+  /** The keys of all cache entries, oldest first. */
+  static final class Index extends Keyed<Index> {
+    Key[] _entries;
+    Index() { super(INDEX); _entries = new Key[0]; }
+  }
+
+  /** Adds and/or drops an entry of the index; the entries beyond the maximum are evicted. */
+  private static final class UpdateIndex extends TAtomic<Index> {
+    final Key _add, _drop;
+    final int _max;
+    Key[] _evicted;             // Out: entries which no longer fit
+    UpdateIndex(Key add, Key drop, int max) { _add = add; _drop = drop; _max = max; }
+    @Override protected Index atomic(Index old) {
+      if( old == null ) old = new Index();
+      List<Key> entries = new ArrayList<>(Arrays.asList(old._entries));
+      entries.remove(_drop);
+      if( _add != null ) {
+        entries.remove(_add);
+        entries.add(_add);
+      }
+      int evict = Math.max(0, entries.size() - _max);
+      _evicted = entries.subList(0, evict).toArray(new Key[evict]);
+      old._entries = entries.subList(evict, entries.size()).toArray(new Key[entries.size() - evict]);
+      return old;
+    }
+  }
+
+  /**
+   * Cache key for parsing the given sources with the given setup.
+   * @return the key, or null if caching is disabled or some source cannot be fingerprinted
+   */
+  static Key<Entry> cacheKey(Key[] keys, ParseSetup setup) {
+    if( !ENABLED ) return null;
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      for( Key k : keys ) {
+        ByteVec vec = ParseDataset.getByteVec(k);
+        if( !(vec instanceof FileVec) ) return null;
+        String fp = H2O.getPM().fingerprint(((FileVec) vec).getBackend(), vec._key);
+        if( fp == null ) return null;
+        md.update(StringUtils.bytesOf(FileVec.getPathForKey(vec._key) + "\n" + fp + "\n"));
+      }
+      md.update(setup.asBytes());
+      StringBuilder sb = new StringBuilder(KEY_PREFIX);
+      for( byte b : md.digest() )
+        sb.append(String.format("%02x", b));
+      return Key.makeSystem(sb.toString());
+    } catch( NoSuchAlgorithmException e ) {
+      throw new RuntimeException(e);
+    } catch( RuntimeException e ) {      // Cannot fingerprint; just parse
+      Log.debug("Parse cache disabled for " + keys.length + " source(s): " + e);
+      return null;
+    }
+  }
+
+  /** Frame parsed before under the given cache key, if it still exists unchanged. */
+  static Frame lookup(Key<Entry> cacheKey) {
+    Entry e = DKV.getGet(cacheKey);
+    if( e == null ) return null;
+    Frame fr = DKV.getGet(e._frame);
+    if( fr != null && fr.checksum() == e._checksum ) {
+      Log.info("Parse cache hit, reusing frame " + fr._key);
+      return fr;
+    }
+    DKV.remove(cacheKey);
+    new UpdateIndex(null, cacheKey, MAX_ENTRIES).invoke(INDEX);
+    return null;
+  }
+
+  /** Remember the given freshly parsed Frame under the cache key. */
+  static void register(Key<Entry> cacheKey, Key<Frame> frameKey) {
+    Frame fr = DKV.getGet(frameKey);
+    if( fr == null ) return;
+    DKV.put(new Entry(cacheKey, frameKey, fr.checksum()));
+    Futures fs = new Futures();
+    for( Key evicted : ((UpdateIndex) new UpdateIndex(cacheKey, null, MAX_ENTRIES).invoke(INDEX))._evicted )
+      DKV.remove(evicted, fs);
+    fs.blockForPending();
+  }
+}
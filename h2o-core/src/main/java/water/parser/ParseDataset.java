@@ -58,6 +58,159 @@ public final class ParseDataset {
     return pds;
   }
 
+  /**
+   * Parse new files and append their rows to an existing Frame, e.g. for datasets
+   * which grow by new files every hour.  The files are parsed with the column
+   * names and types of the existing Frame.  The Frame gets new Vecs in the
+   * extended row layout: the existing chunks are copied as they are (compressed,
+   * not re-encoded) and the new chunks added after them.  The Vecs may be shared
+   * with other Frames, which keep seeing the old rows; old Vecs which no other
+   * Frame in the DKV refers to are deleted.  Categorical levels not seen before
+   * are appended to the end of the existing domains, so the domains of the
+   * appended columns are no longer sorted.
+   *
+   * @param dest  key of the Frame to append to
+   * @param keys  input keys of the new data
+   * @param deleteOnDone  delete input data when finished
+   * @param setup  parse setup of the new files, its column names and types are
+   *               replaced by the ones of the existing Frame
+   * @return the updated Frame
+   */
+  public static Frame appendParse(Key<Frame> dest, Key[] keys, boolean deleteOnDone, ParseSetup setup) {
+    final Frame fr = DKV.getGet(dest);
+    if( fr == null )
+      throw new H2OIllegalArgumentException("dest", "appendParse", dest);
+    if( setup._number_columns != fr.numCols() )
+      throw new H2OIllegalArgumentException("Cannot append data with " + setup._number_columns +
+          " columns to frame " + dest + " with " + fr.numCols() + " columns.");
+    setup._column_names = fr.names().clone();
+    setup._column_types = fr.types();
+    final Frame tmp = parse(Key.<Frame>make(), keys, deleteOnDone, setup);
+    try {
+      fr.write_lock();
+      try {
+        appendFrame(fr, tmp);
+        fr.update();
+      } finally {
+        fr.unlock();
+      }
+    } finally {
+      tmp.delete();
+    }
+    return fr;
+  }
+
+  // Replace the Vecs of an existing frame by Vecs holding its rows followed by the rows of a freshly parsed one
+  private static void appendFrame(Frame fr, Frame tmp) {
+    final Vec[] vecs = fr.vecs();
+    final Vec[] newVecs = tmp.vecs();
+    final int[][] catMaps = new int[vecs.length][];
+    final String[][] domains = new String[vecs.length][];
+    boolean remap = false;
+    for( int i = 0; i < vecs.length; i++ ) {
+      domains[i] = vecs[i].domain();
+      if( newVecs[i].isBad() ) continue;  // All NAs, fits any column type
+      if( vecs[i].get_type() != newVecs[i].get_type() )
+        throw new H2OIllegalArgumentException("Cannot append column '" + fr.name(i) + "' of type " +
+            newVecs[i].get_type_str() + " to a column of type " + vecs[i].get_type_str() + ".");
+      if( vecs[i].isCategorical() ) {
+        catMaps[i] = extendDomain(vecs[i].domain(), newVecs[i].domain());
+        domains[i] = extendedDomain(vecs[i].domain(), newVecs[i].domain(), catMaps[i]);
+        if( domains[i].length >= Categorical.MAX_CATEGORICAL_COUNT )
+          throw new H2OParseException("Exceeded categorical limit on column '" + fr.name(i) + "' while appending.");
+        remap |= !isIdentity(catMaps[i]);
+      }
+    }
+    // Renumber the new rows to the (extended) domains of the existing frame
+    if( remap )
+      new RemapCategoricalsTask(catMaps).doAll(newVecs);
+    // The extended row layout
+    final long[] espc = vecs[0].espc();
+    final long[] tmpEspc = newVecs[0].espc();
+    final long[] newEspc = Arrays.copyOf(espc, espc.length + tmpEspc.length - 1);
+    for( int c = 1; c < tmpEspc.length; c++ )
+      newEspc[espc.length - 1 + c] = espc[espc.length - 1] + tmpEspc[c];
+    // Copy the existing chunks, then the new ones after them, into fresh Vecs
+    final Key<Vec>[] vkeys = new VectorGroup().addVecs(vecs.length);
+    new CopyChunksTask(vkeys, 0).doAll(vecs);
+    new CopyChunksTask(vkeys, espc.length - 1).doAll(newVecs);
+    final int rowLayout = Vec.ESPC.rowLayout(vkeys[0], newEspc);
+    Vec[] appended = new Vec[vecs.length];
+    Futures fs = new Futures();
+    for( int i = 0; i < vecs.length; i++ )
+      DKV.put(appended[i] = new Vec(vkeys[i], rowLayout, domains[i], vecs[i].get_type()), fs);
+    fs.blockForPending();
+    fr.restructure(fr.names(), appended);
+    // Drop the old Vecs, unless other Frames still use them
+    Set<Key> shared = vecsOfOtherFrames(fr._key);
+    for( Vec v : vecs )
+      if( !shared.contains(v._key) )
+        v.remove(fs);
+    fs.blockForPending();
+  }
+
+  private static Set<Key> vecsOfOtherFrames(Key frameKey) {
+    Set<Key> keys = new HashSet<>();
+    for( Key k : KeySnapshot.globalKeysOfClass(Frame.class) ) {
+      if( k.equals(frameKey) ) continue;
+      Frame other = DKV.getGet(k);
+      if( other != null ) keys.addAll(Arrays.asList(other.keys()));
+    }
+    return keys;
+  }
+
+  // Index of every new level in the existing domain, or past its end for levels not seen before
+  private static int[] extendDomain(String[] domain, String[] newDomain) {
+    HashMap<String, Integer> index = new HashMap<>();
+    for( int i = 0; i < domain.length; i++ ) index.put(domain[i], i);
+    int[] map = new int[newDomain.length];
+    int added = 0;
+    for( int i = 0; i < newDomain.length; i++ ) {
+      Integer idx = index.get(newDomain[i]);
+      map[i] = idx != null ? idx : domain.length + added++;
+    }
+    return map;
+  }
+
+  private static String[] extendedDomain(String[] domain, String[] newDomain, int[] map) {
+    int len = domain.length;
+    for( int idx : map ) len = Math.max(len, idx + 1);
+    String[] res = Arrays.copyOf(domain, len);
+    for( int i = 0; i < map.length; i++ ) res[map[i]] = newDomain[i];
+    return res;
+  }
+
+  private static boolean isIdentity(int[] map) {
+    for( int i = 0; i < map.length; i++ )
+      if( map[i] != i ) return false;
+    return true;
+  }
+
+  private static class RemapCategoricalsTask extends MRTask<RemapCategoricalsTask> {
+    private final int[][] _maps;
+    private RemapCategoricalsTask(int[][] maps) { _maps = maps; }
+    @Override public void map(Chunk[] chks) {
+      for( int i = 0; i < chks.length; i++ ) {
+        if( _maps[i] == null || isIdentity(_maps[i]) ) continue;
+        Chunk chk = chks[i];
+        for( int j = 0; j < chk._len; j++ )
+          if( !chk.isNA(j) )
+            chk.set(j, _maps[i][(int) chk.at8(j)]);
+        chk.close(chk.cidx(), _fs);
+      }
+    }
+  }
+
+  private static class CopyChunksTask extends MRTask<CopyChunksTask> {
+    private final Key[] _vecKeys;
+    private final int _chunkOffset;
+    private CopyChunksTask(Key[] vecKeys, int chunkOffset) { _vecKeys = vecKeys; _chunkOffset = chunkOffset; }
+    @Override public void map(Chunk[] chks) {
+      for( int i = 0; i < chks.length; i++ )
+        DKV.put(Vec.chunkKey(_vecKeys[i], _chunkOffset + chks[i].cidx()), chks[i].deepCopy(), _fs);
+    }
+  }
+
   // Allow both ByteVec keys and Frame-of-1-ByteVec
   static ByteVec getByteVec(Key key) {
     Iced ice = DKV.getGet(key);
@@ -125,6 +278,13 @@ public final class ParseDataset {
    * @return a new parse job
    */
   public static ParseDataset forkParseDataset(final Key<Frame> dest, final Key[] keys, final ParseSetup parseSetup, boolean deleteOnDone) {
+    // Same unchanged files parsed before with the same setup?
+    final Key<ParseCache.Entry> cacheKey = ParseCache.cacheKey(keys, parseSetup);
+    if( cacheKey != null ) {
+      Frame cached = ParseCache.lookup(cacheKey);
+      if( cached != null )
+        return forkCopyCached(dest, cached, keys, deleteOnDone);
+    }
     // Get a parser specific setup
     // FIXME: ParseSetup should be separated into two classes - one for using via Rest API as user setup
     //        and another as an internal parser setup to drive parsing.
@@ -176,10 +336,39 @@ public final class ParseDataset {
     new Frame(pds._job._result,new String[0],new Vec[0]).delete_and_lock(pds._job); // Write-Lock BEFORE returning
     for( Key k : keys ) Lockable.read_lock(k,pds._job); // Read-Lock BEFORE returning
     ParserFJTask fjt = new ParserFJTask(pds, keys, setup, deleteOnDone); // Fire off background parse
+    fjt._cacheKey = cacheKey;
     pds._job.start(fjt, totalParseSize);
     return pds;
   }
 
+  // Answer a parse from the cache: copy the Frame parsed before from the same files
+  private static ParseDataset forkCopyCached(final Key<Frame> dest, final Frame cached, final Key[] keys, final boolean deleteOnDone) {
+    final ParseDataset pds = new ParseDataset(dest);
+    final boolean sameFrame = dest.equals(cached._key); // Parsing again into the very same, unchanged Frame
+    if( !sameFrame ) {
+      new Frame(pds._job._result,new String[0],new Vec[0]).delete_and_lock(pds._job); // Write-Lock BEFORE returning
+      cached.read_lock(pds._job._key);
+    }
+    pds._job.start(new H2OCountedCompleter() {
+      @Override public void compute2() {
+        if( !sameFrame ) {
+          try {
+            Frame fr = new Frame(dest, cached.names(), cached.deepCopy(null).vecs());
+            fr.update(pds._job);
+            fr.unlock(pds._job);
+          } finally {
+            cached.unlock(pds._job);
+          }
+        }
+        if( deleteOnDone )
+          for( Key k : keys )
+            Keyed.remove(k);
+        tryComplete();
+      }
+    }, 1);
+    return pds;
+  }
+
   // Setup a private background parse job
   private ParseDataset(Key<Frame> dest) {
     _job = new Job<>(dest, Frame.class.getName(), "Parse");
@@ -192,6 +381,7 @@ public final class ParseDataset {
     final Key[] _keys;
     final ParseSetup _setup;
     final boolean _deleteOnDone;
+    Key<ParseCache.Entry> _cacheKey; // Where to remember the result, null if not cached
 
     public ParserFJTask( ParseDataset pds, Key[] keys, ParseSetup setup, boolean deleteOnDone) {
       _pds = pds;
@@ -213,6 +403,8 @@ public final class ParseDataset {
     @Override public void onCompletion(CountedCompleter caller) {
       if( _pds._job.stop_requested() )
         parseCleanup();
+      else if( _cacheKey != null )
+        ParseCache.register(_cacheKey, _pds._job._result);
       _pds._mfpt = null;
     }
 
@@ -299,6 +491,7 @@ public final class ParseDataset {
     final int[] ecols = Arrays.copyOf(ecols2, n); // skipped columns are excluded already
     Frame fr;
     ParseFinalizer finalizer = ParseFinalizer.get(setup);
+    byte[][] packedDomains = null; // Sorted global domains of the categorical columns
     // If we have any, go gather unified categorical domains
     if( n > 0 ) {
       if (!setup.getParseType().isDomainProvided) { // Domains are not provided via setup we need to collect them
@@ -306,6 +499,7 @@ public final class ParseDataset {
         {
           GatherCategoricalDomainsTask gcdt = new GatherCategoricalDomainsTask(mfpt._cKey, ecols,
                   mfpt._parseSetup._parse_columns_indices).doAllNodes();
+          packedDomains = gcdt._packedDomains;
           //Test domains for excessive length.
           List<String> offendingColNames = new ArrayList<>();
           for (int i = 0; i < ecols.length; i++) {
@@ -346,7 +540,7 @@ public final class ParseDataset {
           RPC[] rpcs = new RPC[H2O.CLOUD.size()];
           for (int i = 0; i < fcdt.length; i++){
             H2ONode[] nodes = H2O.CLOUD.members();
-            fcdt[i] = new CreateParse2GlobalCategoricalMaps(mfpt._cKey, fr._key, ecols, mfpt._parseSetup._parse_columns_indices);
+            fcdt[i] = new CreateParse2GlobalCategoricalMaps(mfpt._cKey, fr._key, ecols, mfpt._parseSetup._parse_columns_indices, packedDomains);
             rpcs[i] = new RPC<>(nodes[i], fcdt[i]).call();
           }
           for (RPC rpc : rpcs)
@@ -402,6 +596,11 @@ public final class ParseDataset {
         Log.warn(warns[i++] = err.toString());
       job.setWarnings(warns);
     }
+    // Readers only skipped data which could not match, drop the remaining non-matching rows
+    if( setup._row_filter != null ) {
+      job.update(0,"Filtering rows.");
+      RowFilter.parse(setup._row_filter).apply(fr);
+    }
     job.update(0,"Calculating data summary.");
     logParseResults(fr);
     // Release the frame for overwriting
@@ -422,12 +621,14 @@ public final class ParseDataset {
     private final Key   _frKey;
     private final int[] _ecol;
     private final int[] _parseColumns;
+    private final byte[][] _packedDomains; // Global domains in PackedDomains form, null if not collected
 
-    private CreateParse2GlobalCategoricalMaps(Key parseCatMapsKey, Key key, int[] ecol, int[] parseColumns) {
+    private CreateParse2GlobalCategoricalMaps(Key parseCatMapsKey, Key key, int[] ecol, int[] parseColumns, byte[][] packedDomains) {
       _parseCatMapsKey = parseCatMapsKey;
       _frKey = key;
       _ecol = ecol; // contains the categoricals column indices only
       _parseColumns = parseColumns;
+      _packedDomains = packedDomains;
     }
 
     @Override public void compute2() {
@@ -438,32 +639,46 @@ public final class ParseDataset {
         return;
       }
         final Categorical[] parseCatMaps = MultiFileParseTask._categoricals.get(_parseCatMapsKey); // include skipped columns
-        int[][] _nodeOrdMaps = new int[_ecol.length][];
+        final int[][] _nodeOrdMaps = new int[_ecol.length][];
 
-        // create old_ordinal->new_ordinal map for each cat column
+        // create old_ordinal->new_ordinal map for each cat column, columns in parallel
+        ArrayList<RecursiveAction> rs = new ArrayList<>();
         for (int eColIdx = 0; eColIdx < _ecol.length; eColIdx++) {
-          int colIdx = _parseColumns[_ecol[eColIdx]];
+          final int fe = eColIdx;
+          final int colIdx = _parseColumns[_ecol[eColIdx]];
           if (parseCatMaps[colIdx].size() != 0) {
             _nodeOrdMaps[eColIdx] = MemoryManager.malloc4(parseCatMaps[colIdx].maxId() + 1);
             Arrays.fill(_nodeOrdMaps[eColIdx], -1);
-            //Bulk String->BufferedString conversion is slightly faster, but consumes memory
-            final BufferedString[] unifiedDomain = _fr.vec(_ecol[eColIdx]).isCategorical()?
-                    BufferedString.toBufferedString(_fr.vec(_ecol[eColIdx]).domain()):new BufferedString[0];
-            //final String[] unifiedDomain = _fr.vec(colIdx).domain();
-            for (int i = 0; i < unifiedDomain.length; i++) {
-              //final BufferedString cat = new BufferedString(unifiedDomain[i]);
-              if (parseCatMaps[colIdx].containsKey(unifiedDomain[i])) {
-                _nodeOrdMaps[eColIdx][parseCatMaps[colIdx].getTokenId(unifiedDomain[i])] = i;
+            if (!_fr.vec(_ecol[eColIdx]).isCategorical())
+              continue;
+            rs.add(new RecursiveAction() {
+              @Override
+              protected void compute() {
+                if (_packedDomains != null)
+                  PackedDomains.mapToPackedDomain(parseCatMaps[colIdx], _packedDomains[fe], _nodeOrdMaps[fe]);
+                else
+                  mapToDomain(parseCatMaps[colIdx], _fr.vec(_ecol[fe]).domain(), _nodeOrdMaps[fe]);
               }
-            }
+            });
           } else {
             Log.debug("Column " + colIdx + " was marked as categorical but categorical map is empty!");
           }
         }
+        ForkJoinTask.invokeAll(rs);
         // Store the local->global ordinal maps in DKV by node parse categorical key and node index
         DKV.put(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + H2O.SELF.index()), new CategoricalUpdateMap(_nodeOrdMaps));
       tryComplete();
     }
+
+    private static void mapToDomain(Categorical cat, String[] domain, int[] ordMap) {
+      //Bulk String->BufferedString conversion is slightly faster, but consumes memory
+      final BufferedString[] unifiedDomain = BufferedString.toBufferedString(domain);
+      for (int i = 0; i < unifiedDomain.length; i++) {
+        if (cat.containsKey(unifiedDomain[i])) {
+          ordMap[cat.getTokenId(unifiedDomain[i])] = i;
+        }
+      }
+    }
   }
 
   // --------------------------------------------------------------------------
@@ -531,16 +746,20 @@ public final class ParseDataset {
     public void setupLocal() {
       if (!MultiFileParseTask._categoricals.containsKey(_k)) return;
       _packedDomains = new byte[_catColIdxs.length][];
-      final BufferedString[][] _perColDomains = new BufferedString[_catColIdxs.length][];
       final Categorical[] _colCats = MultiFileParseTask._categoricals.get(_k); // still refer to all columns
-      int i = 0;
-      for (int col : _catColIdxs) {
-        _colCats[_parseColumns[col]].convertToUTF8(_parseColumns[col] + 1);
-        _perColDomains[i] = _colCats[_parseColumns[col]].getColumnDomain();
-        Arrays.sort(_perColDomains[i]);
-        _packedDomains[i] = PackedDomains.pack(_perColDomains[i]);
-        i++;
+      RecursiveAction[] rs = new RecursiveAction[_catColIdxs.length];
+      for (int i = 0; i < _catColIdxs.length; i++) {
+        final int fi = i;
+        final int col = _parseColumns[_catColIdxs[i]];
+        rs[i] = new RecursiveAction() {
+          @Override
+          protected void compute() {
+            _colCats[col].convertToUTF8(col + 1);
+            _packedDomains[fi] = PackedDomains.sortAndPack(_colCats[col].getColumnDomain(), H2O.ARGS.nthreads);
+          }
+        };
       }
+      ForkJoinTask.invokeAll(rs);
       Log.trace("Done locally collecting domains on each node.");
     }
     
@@ -555,7 +774,7 @@ public final class ParseDataset {
           domtasks[i] = new H2OCountedCompleter(currThrPriority()) {
             @Override
             public void compute2() {
-              _packedDomains[fi] = PackedDomains.merge(_packedDomains[fi], other._packedDomains[fi]);
+              _packedDomains[fi] = PackedDomains.merge(_packedDomains[fi], other._packedDomains[fi], H2O.ARGS.nthreads);
               tryComplete();
             }
           };
@@ -940,6 +1159,8 @@ public final class ParseDataset {
                       :new AppendableVec(_vg.vecKey(_vecIdStart + _setup._parse_columns_indices[i]),
                       _espc, _setup._column_types[_setup._parse_columns_indices[i]], _startChunkIdx);
 
+        // Load the next chunks of this node while this one is parsed
+        ChunkPrefetcher.prefetchAfter(in.vec(), in.cidx(), true);
         // Break out the input & output vectors before the parse loop
         FVecParseReader din = new FVecParseReader(in);
         FVecParseWriter dout;
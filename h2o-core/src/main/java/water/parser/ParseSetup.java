@@ -48,6 +48,7 @@ public class ParseSetup extends Iced {
   String[] _synthetic_column_names; // Columns with constant values to be added to parsed Frame
   String[][] _synthetic_column_values; // For each imported file contains array of values for each synthetic column
   byte _synthetic_column_type = Vec.T_STR; // By default, all synthetic columns are treated as strings
+  String _row_filter;         // Rows not matching this filter are dropped, see RowFilter
 
   String [] _fileNames = new String[]{"unknown"};
   public boolean disableParallelParse;
@@ -71,6 +72,7 @@ public class ParseSetup extends Iced {
             ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
             new ParseWriter.ParseErr[0], ps._chunk_size, ps._decrypt_tool, ps._skipped_columns,
             ps._nonDataLineMarkers);
+    _row_filter = ps._row_filter;
   }
 
   public static ParseSetup makeSVMLightSetup(){
@@ -215,6 +217,7 @@ public class ParseSetup extends Iced {
 
   public String[] getColumnNames() { return _column_names; }
   public int[] getSkippedColumns() { return _skipped_columns; }
+  public String getRowFilter() { return _row_filter; }
   public int[] get_parse_columns_indices() { return _parse_columns_indices; }
   public String[][] getData() { return _data; }
 
@@ -279,6 +282,7 @@ public class ParseSetup extends Iced {
       if (demandedSetup._decrypt_tool != null)
         ps._decrypt_tool = demandedSetup._decrypt_tool;
       ps.setSkippedColumns(demandedSetup.getSkippedColumns());
+      ps._row_filter = demandedSetup._row_filter;
       ps.setParseColumnIndices(demandedSetup.getNumberColumns(), demandedSetup.getSkippedColumns()); // final consistent check between skipped_columns and parse_columns_indices
       return ps;
     }
@@ -824,6 +828,11 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  public ParseSetup setRowFilter(String row_filter) {
+    this._row_filter = row_filter;
+    return this;
+  }
+
   public ParseSetup setColumnTypes(byte[] column_types) {
     this._column_types = column_types;
     return this;
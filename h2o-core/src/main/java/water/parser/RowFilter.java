@@ -0,0 +1,266 @@
+package water.parser;
+
+import water.Iced;
+import water.MRTask;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row filter of a parse: a conjunction of comparisons of a column with a constant,
+ * e.g. {@code year >= 2019 & carrier == 'AA'}.
+ *
+ * Supported operators are {@code == != < <= > >=}, predicates are joined with
+ * {@code &}, {@code &&} or {@code and}.  Constants are numbers or quoted strings;
+ * column names containing other than word characters are quoted with backticks.
+ * A missing value never matches.
+ *
+ * The filter is exact: rows which do not match are dropped after the parse.  Before
+ * that, the parsers use it to skip data which cannot match (Parquet row groups and
+ * ORC stripes by their statistics, whole files of partitioned datasets by their
+ * partition values), so most of the non-matching data is never read.
+ */
+public final class RowFilter extends Iced<RowFilter> {
+
+  enum Op {
+    EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+    final String _sym;
+    Op(String sym) { _sym = sym; }
+  }
+
+  static final class Predicate extends Iced<Predicate> {
+    final String _column;
+    final Op _op;
+    final double _num;
+    final String _str;  // Constant of a string comparison, null for numeric ones
+
+    Predicate(String column, Op op, double num, String str) { _column = column; _op = op; _num = num; _str = str; }
+
+    boolean test(double d) {
+      if( Double.isNaN(d) ) return false;
+      if( _str != null ) return false;
+      switch( _op ) {
+        case EQ: return d == _num;
+        case NE: return d != _num;
+        case LT: return d <  _num;
+        case LE: return d <= _num;
+        case GT: return d >  _num;
+        default: return d >= _num;
+      }
+    }
+
+    boolean test(String s) {
+      if( s == null ) return false;
+      if( _str == null ) {
+        double d;
+        try { d = Double.parseDouble(s); } catch( NumberFormatException e ) { return false; }
+        return test(d);
+      }
+      int c = s.compareTo(_str);
+      switch( _op ) {
+        case EQ: return c == 0;
+        case NE: return c != 0;
+        case LT: return c <  0;
+        case LE: return c <= 0;
+        case GT: return c >  0;
+        default: return c >= 0;
+      }
+    }
+
+    /** True if no value in [min,max] can satisfy this numeric predicate. */
+    boolean excludes(double min, double max) {
+      switch( _op ) {
+        case EQ: return _num < min || _num > max;
+        case NE: return min == max && min == _num;
+        case LT: return min >= _num;
+        case LE: return min >  _num;
+        case GT: return max <= _num;
+        default: return max <  _num;
+      }
+    }
+
+    @Override public String toString() {
+      return "`" + _column + "` " + _op._sym + " " + (_str != null ? "'" + _str + "'" : Double.toString(_num));
+    }
+  }
+
+  /** Statistics of a block of the source data (a row group, a stripe, ...). */
+  public interface Stats {
+    /**
+     * @return {min, max} of the non-missing values of a numeric column in the block,
+     * an empty array if all its values in the block are missing, or null if unknown
+     */
+    double[] range(String column);
+  }
+
+  final Predicate[] _preds;
+
+  private RowFilter(Predicate[] preds) { _preds = preds; }
+
+  /** Columns referenced by the filter. */
+  public String[] columns() {
+    String[] cols = new String[_preds.length];
+    for( int i = 0; i < cols.length; i++ )
+      cols[i] = _preds[i]._column;
+    return cols;
+  }
+
+  /** True if a block with the given statistics cannot contain any matching row. */
+  public boolean canSkip(Stats stats) {
+    for( Predicate p : _preds ) {
+      double[] r = stats.range(p._column);
+      if( r == null ) continue;
+      if( r.length == 0 ) return true;  // All missing
+      if( p._str == null && p.excludes(r[0], r[1]) ) return true;
+    }
+    return false;
+  }
+
+  /**
+   * False if data with the given constant column values (e.g. the partition values
+   * of a file) cannot contain any matching row.  Predicates of other columns are not
+   * evaluated.
+   */
+  public boolean mayMatch(String[] columns, String[] values) {
+    for( Predicate p : _preds )
+      for( int i = 0; i < columns.length; i++ )
+        if( p._column.equals(columns[i]) && !p.test(values[i]) )
+          return false;
+    return true;
+  }
+
+  /** Keep only the matching rows of the given frame, its Vecs are replaced. */
+  void apply(Frame fr) {
+    int[] cols = new int[_preds.length];
+    for( int i = 0; i < cols.length; i++ ) {
+      cols[i] = fr.find(_preds[i]._column);
+      if( cols[i] == -1 )
+        throw new H2OIllegalArgumentException("Row filter references unknown column '" + _preds[i]._column + "'");
+      Vec v = fr.vec(cols[i]);
+      if( v.isUUID() || (_preds[i]._str != null && !(v.isCategorical() || v.isString())) )
+        throw new H2OIllegalArgumentException("Row filter predicate " + _preds[i] + " does not fit the type of the column");
+    }
+    Vec matches = new MatchTask(this, cols).doAll(Vec.T_NUM, fr).outputFrame().anyVec();
+    Frame filtered = fr.deepSlice(new Frame(matches), null);
+    matches.remove();
+    Vec[] old = fr.vecs();
+    fr.restructure(fr.names(), filtered.vecs());
+    for( Vec v : old )
+      v.remove();
+  }
+
+  private static class MatchTask extends MRTask<MatchTask> {
+    private final RowFilter _filter;
+    private final int[] _cols;
+    MatchTask(RowFilter filter, int[] cols) { _filter = filter; _cols = cols; }
+
+    @Override public void map(Chunk[] cs, NewChunk nc) {
+      BufferedString tmp = new BufferedString();
+      for( int row = 0; row < cs[0]._len; row++ ) {
+        boolean match = true;
+        for( int i = 0; i < _cols.length && match; i++ ) {
+          Predicate p = _filter._preds[i];
+          Chunk c = cs[_cols[i]];
+          if( c.isNA(row) ) match = false;
+          else if( c.vec().isCategorical() ) match = p.test(c.vec().domain()[(int) c.at8(row)]);
+          else if( c.vec().isString() ) match = p.test(c.atStr(tmp, row).toString());
+          else match = p.test(c.atd(row));
+        }
+        nc.addNum(match ? 1 : 0);
+      }
+    }
+  }
+
+  @Override public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for( Predicate p : _preds )
+      sb.append(sb.length() == 0 ? "" : " & ").append(p);
+    return sb.toString();
+  }
+
+  // ---
+  // Parsing
+
+  /** Parse a filter expression, see the class comment for the syntax. */
+  public static RowFilter parse(String expr) {
+    Tokenizer t = new Tokenizer(expr);
+    List<Predicate> preds = new ArrayList<>();
+    do {
+      String column = t.column();
+      Op op = t.op();
+      Object constant = t.constant();
+      preds.add(constant instanceof String
+          ? new Predicate(column, op, Double.NaN, (String) constant)
+          : new Predicate(column, op, (Double) constant, null));
+    } while( t.and() );
+    if( !t.atEnd() ) throw t.error("expected '&'");
+    return new RowFilter(preds.toArray(new Predicate[0]));
+  }
+
+  private static final class Tokenizer {
+    private final String _s;
+    private int _pos;
+    Tokenizer(String s) { _s = s; }
+
+    private void skipWs() { while( _pos < _s.length() && Character.isWhitespace(_s.charAt(_pos)) ) _pos++; }
+    boolean atEnd() { skipWs(); return _pos == _s.length(); }
+    H2OIllegalArgumentException error(String what) {
+      return new H2OIllegalArgumentException("Invalid row filter '" + _s + "' at position " + _pos + ": " + what);
+    }
+
+    String column() {
+      skipWs();
+      if( _pos < _s.length() && _s.charAt(_pos) == '`' ) return quoted('`');
+      int start = _pos;
+      while( _pos < _s.length() && (Character.isLetterOrDigit(_s.charAt(_pos)) || _s.charAt(_pos) == '_' || _s.charAt(_pos) == '.') ) _pos++;
+      if( start == _pos ) throw error("expected a column name");
+      return _s.substring(start, _pos);
+    }
+
+    Op op() {
+      skipWs();
+      Op best = null;
+      for( Op op : Op.values() )
+        if( _s.startsWith(op._sym, _pos) && (best == null || op._sym.length() > best._sym.length()) )
+          best = op;
+      if( best == null ) throw error("expected one of == != < <= > >=");
+      _pos += best._sym.length();
+      return best;
+    }
+
+    Object constant() {
+      skipWs();
+      if( _pos < _s.length() && (_s.charAt(_pos) == '\'' || _s.charAt(_pos) == '"') ) return quoted(_s.charAt(_pos));
+      int start = _pos;
+      while( _pos < _s.length() && "+-.0123456789eE".indexOf(_s.charAt(_pos)) >= 0 ) _pos++;
+      try {
+        return Double.parseDouble(_s.substring(start, _pos));
+      } catch( NumberFormatException e ) {
+        _pos = start;
+        throw error("expected a number or a quoted string");
+      }
+    }
+
+    private String quoted(char q) {
+      int end = _s.indexOf(q, _pos + 1);
+      if( end == -1 ) throw error("unterminated " + q);
+      String res = _s.substring(_pos + 1, end);
+      _pos = end + 1;
+      return res;
+    }
+
+    boolean and() {
+      skipWs();
+      if( _s.startsWith("&&", _pos) ) _pos += 2;
+      else if( _s.startsWith("&", _pos) ) _pos += 1;
+      else if( _s.regionMatches(true, _pos, "and", 0, 3) && _pos + 3 < _s.length() && Character.isWhitespace(_s.charAt(_pos + 3)) ) _pos += 3;
+      else return false;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package water.parser;
+
+import water.H2O;
+import water.util.UnsafeUtils;
+
+import java.nio.ByteOrder;
+
+/**
+ * Word-at-a-time ("SIMD within a register") helpers for the CSV parser: find
+ * the next delimiter of a token and convert runs of digits 8 bytes at a time,
+ * using plain long arithmetic.  Words are read in native order, so the fast
+ * paths are only used on little-endian platforms; they can also be turned off
+ * with {@code -Dsys.ai.h2o.parse.swar=false}.
+ */
+final class SwarScan {
+
+  static boolean ENABLED = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN &&
+      H2O.getSysBoolProperty("parse.swar", true);
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGHS = 0x8080808080808080L;
+
+  private SwarScan() {}
+
+  // Non-zero iff some byte of w is zero; the lowest flagged byte is the first zero
+  private static long zeroBytes(long w) {
+    return (w - ONES) & ~w & HIGHS;
+  }
+
+  /**
+   * Index of the first byte in bits[from, bits.length) which is the quote char,
+   * or also a separator or an end of line if stopAtEol.
+   * @return index of the stop byte, or bits.length if there is none
+   */
+  static int tokenEnd(byte[] bits, int from, byte sep, byte quote, boolean stopAtEol) {
+    final long q = (quote & 0xFF) * ONES;
+    final long s = (sep & 0xFF) * ONES;
+    final long cr = Parser.CHAR_CR * ONES;
+    final long lf = Parser.CHAR_LF * ONES;
+    int i = from;
+    for( ; i + 8 <= bits.length; i += 8 ) {
+      long w = UnsafeUtils.get8(bits, i);
+      long m = zeroBytes(w ^ q);
+      if( stopAtEol )
+        m |= zeroBytes(w ^ s) | zeroBytes(w ^ cr) | zeroBytes(w ^ lf);
+      if( m != 0 )
+        return i + (Long.numberOfTrailingZeros(m) >>> 3);
+    }
+    for( ; i < bits.length; i++ ) {
+      byte c = bits[i];
+      if( c == quote || (stopAtEol && (c == sep || c == Parser.CHAR_CR || c == Parser.CHAR_LF)) )
+        break;
+    }
+    return i;
+  }
+
+  /** True if any byte of bits[from, to) is beyond 7-bit ASCII. */
+  static boolean hasNonAscii(byte[] bits, int from, int to) {
+    long acc = 0;
+    int i = from;
+    for( ; i + 8 <= to; i += 8 )
+      acc |= UnsafeUtils.get8(bits, i);
+    for( ; i < to; i++ )
+      acc |= bits[i];
+    return (acc & HIGHS) != 0;
+  }
+
+  /** True if bits[off, off+8) are all ASCII digits; the caller checks the bounds. */
+  static boolean isEightDigits(byte[] bits, int off) {
+    long w = UnsafeUtils.get8(bits, off);
+    return ((w & 0xF0F0F0F0F0F0F0F0L) | (((w + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4)) == 0x3333333333333333L;
+  }
+
+  /** Value of the 8 digits at bits[off, off+8), see {@link #isEightDigits}. */
+  static long eightDigits(byte[] bits, int off) {
+    long w = UnsafeUtils.get8(bits, off);
+    w = ((w & 0x0F0F0F0F0F0F0F0FL) * 2561) >>> 8;
+    w = ((w & 0x00FF00FF00FF00FFL) * 6553601) >>> 16;
+    return ((w & 0x0000FFFF0000FFFFL) * 42949672960001L) >>> 32;
+  }
+}
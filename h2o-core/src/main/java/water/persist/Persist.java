@@ -219,6 +219,18 @@ public abstract class Persist {
     throw new RuntimeException("Not implemented");
   }
 
+  /**
+   * Fingerprint of the current content of a file, e.g. its size together with
+   * the modification time or ETag.  It must change whenever the content may have
+   * changed; used to recognize files which were already parsed.
+   *
+   * @param k key of a file imported by this backend
+   * @return fingerprint or null if not supported by this backend
+   */
+  public String fingerprint(Key k) {
+    return null;
+  }
+
   public InputStream open(String path) {
     throw new RuntimeException("Not implemented");
   }
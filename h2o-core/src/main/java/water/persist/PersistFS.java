@@ -2,11 +2,14 @@ package water.persist;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 
 import water.*;
 import water.api.FSIOException;
 import water.fvec.NFSFileVec;
+import water.util.BlockCompression;
 import water.util.Log;
 
 /**
@@ -49,6 +52,9 @@ public final class PersistFS extends Persist {
   @Override public byte[] load(Value v) throws IOException {
     File f = getFile(v);
     if( f.length() < v._max ) { // Should be fully on disk...
+      // unless it was block compressed when spilled
+      byte[] z = f.length() > 0 ? loadCompressed(f) : null;
+      if( z != null ) return z;
       // or it's a racey delete of a spilled value
       assert !v.isPersisted() : f.length() + " " + v._max + " " + v._key;
       return null; // No value
@@ -61,6 +67,18 @@ public final class PersistFS extends Persist {
       }
   }
 
+  // A compressed spill file is always shorter than the Value; anything short
+  // without a frame header is a partially deleted file.
+  private static byte[] loadCompressed(File f) throws IOException {
+    byte[] b;
+    try {
+      b = Files.readAllBytes(f.toPath());
+    } catch( NoSuchFileException e ) {
+      return null;              // Racing delete
+    }
+    return BlockCompression.isCompressed(b) ? BlockCompression.decompress(b) : null;
+  }
+
   // Store Value v to disk.
   @Override public void store(Value v) throws IOException {
     assert !v.isPersisted();
@@ -73,6 +91,8 @@ public final class PersistFS extends Persist {
           Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
           v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
         }
+        byte[] z = BlockCompression.compress(m); // Null if disabled or incompressible
+        if( z != null ) m = z;
         new AutoBuffer(s.getChannel(), false, Value.ICE).putA1(m, m.length).close();
       } catch( AutoBuffer.AutoBufferException abe ) {
       throw abe._ioe;
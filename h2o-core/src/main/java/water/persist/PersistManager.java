@@ -8,6 +8,7 @@ import water.exceptions.H2OIllegalArgumentException;
 import water.fvec.FileVec;
 import water.fvec.Vec;
 import water.parser.BufferedString;
+import water.util.BlockingIO;
 import water.util.FileUtils;
 import water.util.Log;
 import water.persist.Persist.PersistEntry;
@@ -191,18 +192,32 @@ public class PersistManager {
 
   public byte[] load(int backend, Value v) throws IOException {
     stats[backend].load_count.incrementAndGet();
-    byte[] arr = I[backend].load(v);
+    final Persist p = I[backend];
+    byte[] arr = isRemote(backend) ? BlockingIO.call(() -> p.load(v)) : p.load(v);
     stats[backend].load_bytes.addAndGet(arr.length);
     return arr;
   }
 
   public byte[] load(int backend, Key k, long skip, int max) throws IOException {
     stats[backend].load_count.incrementAndGet();
-    byte[] arr = I[backend].load(k, skip, max);
+    final Persist p = I[backend];
+    byte[] arr = isRemote(backend) ? BlockingIO.call(() -> p.load(k, skip, max)) : p.load(k, skip, max);
     stats[backend].load_bytes.addAndGet(arr.length);
     return arr;
   }
 
+  // Network backends; their reads are offloaded from F/J workers, see BlockingIO
+  private static boolean isRemote(int backend) {
+    return backend == Value.S3 || backend == Value.HDFS || backend == Value.GCS || backend == Value.HTTP;
+  }
+
+  /** Fingerprint of the current content of a file imported by the given
+   *  backend, null if it cannot be fingerprinted.  See {@link Persist#fingerprint(Key)}. */
+  public String fingerprint(int backend, Key k) {
+    Persist p = backend >= 0 && backend < I.length ? I[backend] : null;
+    return p == null ? null : p.fingerprint(k);
+  }
+
   /** Get the current Persist flavor for user-mode swapping. */
   public Persist getIce() { return I[Value.ICE]; }
 
@@ -87,6 +87,12 @@ public final class PersistNFS extends Persist {
     throw H2O.fail();
   }
 
+  @Override
+  public String fingerprint(Key k) {
+    File f = getFileForKey(k);
+    return f.isFile() ? f.length() + ":" + f.lastModified() : null;
+  }
+
   @Override
   public Key uriToKey(URI uri) {
     return NFSFileVec.make(uri.getScheme() == null ? new File(uri.toString()) : new File(uri))._key;
@@ -0,0 +1,210 @@
+package water.rapids;
+
+import water.H2O;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.ast.prims.operators.AstLAnd;
+import water.rapids.ast.prims.operators.AstLOr;
+import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes nested element-wise Rapids expressions, e.g. {@code (+ (* a 2) (log b))},
+ * as a single {@link FusedPipeline} instead of one MRTask and one temporary Frame
+ * per operator.
+ *
+ * A tree of unary math operators and (non short-circuit) binary operators is fused
+ * when it has at least two operators, and its operands are numbers and all-numeric
+ * Frames of the same shape.  Operands are evaluated exactly as in the unfused case;
+ * when they do not fit, the operators are applied one by one to the evaluated
+ * operands, so the results (including errors) are the same either way.
+ *
+ * Enabled by default, disable with {@code -Dsys.ai.h2o.rapids.fusion=false}.
+ */
+public final class ElementwiseFusion {
+
+  public static final boolean ENABLED = H2O.getSysBoolProperty("rapids.fusion", true);
+
+  private ElementwiseFusion() {}
+
+  /** Node of the operator tree: either an operator or an operand. */
+  private static final class Node {
+    final AstPrimitive _op;   // null for operands
+    final Node[] _kids;
+    final AstRoot _ast;       // the operand expression
+    Val _val;                 // the evaluated operand
+    double _con;              // the operand, or the folded operator, is a constant
+    int _reg = -1;            // or the pipeline register holding its values
+    String[] _names;          // column names of a register
+
+    Node(AstPrimitive op, Node[] kids) { _op = op; _kids = kids; _ast = null; }
+    Node(AstRoot ast) { _op = null; _kids = null; _ast = ast; }
+  }
+
+  /**
+   * Execute the application {@code ast} of the function {@code fun} fused, if it is
+   * a fusable tree of element-wise operators.
+   * @return the result, or null if the expression is not fusable and was not evaluated
+   */
+  public static Val exec(AstExec ast, AstPrimitive fun, Env env, Env.StackHelp stk) {
+    if (!fusable(fun) || ast._asts.length != fun.nargs()) return null;
+    Node root = plan(ast, fun, env);
+    if (countOps(root) < 2) return null;
+    List<Node> operands = new ArrayList<>();
+    collectOperands(root, operands);
+    for (Node n : operands)
+      n._val = stk.track(n._ast.exec(env));
+    List<Frame> frames = new ArrayList<>();
+    if (!fits(operands, frames))
+      return interpret(root, env, stk);
+
+    FusedPipeline p = new FusedPipeline(frames.size());
+    Vec[] in = new Vec[0];
+    for (Frame fr : frames)
+      in = ArrayUtils.append(in, fr.vecs());
+    int reg = 0;
+    for (Node n : operands)
+      if (n._val.isFrame()) { n._reg = reg++; n._names = n._val.getFrame().names(); }
+      else n._con = n._val.getNum();
+    compile(root, p);
+    return new ValFrame(p.map(new Frame(in), root._names));
+  }
+
+  private static boolean fusable(AstPrimitive fun) {
+    return (fun instanceof AstUniOp || fun instanceof AstBinOp) && !(fun instanceof AstLAnd || fun instanceof AstLOr);
+  }
+
+  private static Node plan(AstExec ast, AstPrimitive fun, Env env) {
+    Node[] kids = new Node[ast._asts.length - 1];
+    for (int i = 0; i < kids.length; i++) {
+      AstRoot arg = ast._asts[i + 1];
+      AstPrimitive f = arg instanceof AstExec ? function(((AstExec) arg)._asts[0], env) : null;
+      kids[i] = f != null && fusable(f) && ((AstExec) arg)._asts.length == f.nargs()
+          ? plan((AstExec) arg, f, env)
+          : new Node(arg);
+    }
+    return new Node(fun, kids);
+  }
+
+  /** Resolve the function of an application without side effects, or null. */
+  private static AstPrimitive function(AstRoot ast, Env env) {
+    if (ast instanceof AstPrimitive) return (AstPrimitive) ast;
+    if (!(ast instanceof AstId)) return null;
+    try {
+      Val v = env.lookup(ast.str());
+      return v.isFun() ? v.getFun() : null;
+    } catch (IllegalArgumentException e) {
+      return null; // Reported when (and if) the application is executed
+    }
+  }
+
+  private static int countOps(Node n) {
+    if (n._op == null) return 0;
+    int cnt = 1;
+    for (Node k : n._kids) cnt += countOps(k);
+    return cnt;
+  }
+
+  private static void collectOperands(Node n, List<Node> operands) {
+    if (n._op == null) operands.add(n);
+    else for (Node k : n._kids) collectOperands(k, operands);
+  }
+
+  /** Operands are numbers and numeric Frames of equal shape, at least one of them a Frame. */
+  private static boolean fits(List<Node> operands, List<Frame> frames) {
+    Frame first = null;
+    for (Node n : operands) {
+      if (n._val.isNum()) continue;
+      if (!n._val.isFrame()) return false;
+      Frame fr = n._val.getFrame();
+      if (fr.numCols() == 0) return false;
+      for (Vec v : fr.vecs())
+        if (!v.isNumeric()) return false;
+      if (first == null) first = fr;
+      else if (fr.numCols() != first.numCols() || fr.numRows() != first.numRows()
+          || !fr.anyVec().isCompatibleWith(first.anyVec()))
+        return false;
+      frames.add(fr);
+    }
+    return first != null;
+  }
+
+  /** Constant-fold or add the pipeline stages of an operator. */
+  private static void compile(Node n, FusedPipeline p) {
+    if (n._op == null) return;
+    for (Node k : n._kids) compile(k, p);
+    if (n._op instanceof AstUniOp) {
+      AstUniOp op = (AstUniOp) n._op;
+      Node a = n._kids[0];
+      if (a._reg == -1) { n._con = op.op(a._con); return; }
+      n._reg = p.add(new UniOpStage(op), a._reg);
+      n._names = new String[a._names.length];
+      for (int i = 0; i < n._names.length; i++)
+        n._names[i] = op.str() + "(" + a._names[i] + ")";
+    } else {
+      AstBinOp op = (AstBinOp) n._op;
+      Node l = n._kids[0], r = n._kids[1];
+      if (l._reg == -1 && r._reg == -1) { n._con = op.op(l._con, r._con); return; }
+      if (l._reg == -1) n._reg = p.add(new BinOpStage(op, BinOpStage.CON_LEFT, l._con), r._reg);
+      else if (r._reg == -1) n._reg = p.add(new BinOpStage(op, BinOpStage.CON_RIGHT, r._con), l._reg);
+      else n._reg = p.add(new BinOpStage(op, BinOpStage.NO_CON, 0), l._reg, r._reg);
+      n._names = l._reg != -1 ? l._names : r._names;
+    }
+  }
+
+  /** Apply the operators one by one, as the unfused execution does. */
+  private static Val interpret(Node n, Env env, Env.StackHelp stk) {
+    if (n._op == null) return n._val;
+    Val[] args = new Val[n._kids.length + 1];
+    for (int i = 0; i < n._kids.length; i++) {
+      args[i + 1] = interpret(n._kids[i], env, stk);
+      if (n._kids[i]._op != null) stk.track(env.returning(args[i + 1]));
+    }
+    return n._op instanceof AstUniOp
+        ? ((AstUniOp) n._op).exec(args)
+        : ((AstBinOp) n._op).prim_apply(args[1], args[2]);
+  }
+
+  private static class UniOpStage extends FusedPipeline.Stage {
+    private final AstUniOp _op;
+    UniOpStage(AstUniOp op) { _op = op; }
+
+    @Override protected void map(double[][] args, double[] out, int len) {
+      double[] a = args[0];
+      for (int i = 0; i < len; i++)
+        out[i] = _op.op(a[i]);
+    }
+  }
+
+  private static class BinOpStage extends FusedPipeline.Stage {
+    static final byte NO_CON = 0, CON_LEFT = 1, CON_RIGHT = 2;
+    private final AstBinOp _op;
+    private final byte _conSide;
+    private final double _con;
+    BinOpStage(AstBinOp op, byte conSide, double con) { _op = op; _conSide = conSide; _con = con; }
+
+    @Override protected void map(double[][] args, double[] out, int len) {
+      double[] a = args[0];
+      switch (_conSide) {
+        case CON_LEFT:
+          for (int i = 0; i < len; i++) out[i] = _op.op(_con, a[i]);
+          break;
+        case CON_RIGHT:
+          for (int i = 0; i < len; i++) out[i] = _op.op(a[i], _con);
+          break;
+        default:
+          double[] b = args[1];
+          for (int i = 0; i < len; i++) out[i] = _op.op(a[i], b[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package water.rapids;
+
+import water.Iced;
+import water.IcedUtils;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+/**
+ * A chain of element-wise stages executed in a single pass over a Frame.
+ *
+ * Chaining element-wise operations one {@link MRTask} at a time materializes
+ * every intermediate result as a temporary Frame, which is then read again by
+ * the next operation.  A pipeline instead runs all the stages chunk by chunk
+ * within one MRTask; intermediate results only live in scratch buffers of one
+ * chunk length, and are never stored in the DKV.
+ *
+ * Stages operate on <em>registers</em>, the first {@code nInputs} registers hold
+ * the values of the input columns, and every {@link #add added} stage computes one
+ * more.  The program is run once per <em>lane</em>: for a Frame with
+ * {@code nInputs * nLanes} columns, lane {@code l} reads input {@code i} from column
+ * {@code i * nLanes + l} and writes output column {@code l}.  This matches the
+ * column-wise semantics of Rapids element-wise operators on multi-column Frames.
+ *
+ * The result is either a new Frame ({@link #map}), or the final register is fed
+ * to a {@link Reducer} and never materialized at all ({@link #reduce}).
+ */
+public final class FusedPipeline extends Iced<FusedPipeline> {
+
+  /** One element-wise step of a pipeline. */
+  public abstract static class Stage extends Iced<Stage> {
+    /** Compute {@code out[0..len)} from the values of the argument registers. */
+    protected abstract void map(double[][] args, double[] out, int len);
+  }
+
+  /** Terminal reduction of the final register of a pipeline. */
+  public abstract static class Reducer<R extends Reducer<R>> extends Iced<R> {
+    /** Accumulate {@code values[0..len)} of the given lane. */
+    protected abstract void map(int lane, double[] values, int len);
+    /** Merge the state of another instance. */
+    protected abstract void reduce(R that);
+  }
+
+  private final int _nInputs;
+  private Stage[] _stages = new Stage[0];
+  private int[][] _args = new int[0][];
+
+  public FusedPipeline(int nInputs) {
+    if (nInputs < 1) throw new IllegalArgumentException("A pipeline needs at least one input");
+    _nInputs = nInputs;
+  }
+
+  public int numInputs() { return _nInputs; }
+
+  public int numStages() { return _stages.length; }
+
+  /**
+   * Append a stage reading the given registers.
+   * @return the register holding the output of the stage
+   */
+  public int add(Stage stage, int... args) {
+    int reg = _nInputs + _stages.length;
+    for (int a : args)
+      if (a < 0 || a >= reg)
+        throw new IllegalArgumentException("Register " + a + " is not defined before stage " + _stages.length);
+    _stages = Arrays.copyOf(_stages, _stages.length + 1);
+    _stages[_stages.length - 1] = stage;
+    _args = Arrays.copyOf(_args, _args.length + 1);
+    _args[_args.length - 1] = args.clone();
+    return reg;
+  }
+
+  /** Number of lanes of the given input Frame, see the class comment. */
+  private int lanes(Frame fr) {
+    if (fr.numCols() == 0 || fr.numCols() % _nInputs != 0)
+      throw new IllegalArgumentException("Expected a multiple of " + _nInputs + " columns, found " + fr.numCols());
+    return fr.numCols() / _nInputs;
+  }
+
+  /** Run the pipeline, the final register of every lane becomes a column of the returned Frame. */
+  public Frame map(Frame fr, String[] names) {
+    int nLanes = lanes(fr);
+    return new MapTask(this, nLanes).doAll(nLanes, Vec.T_NUM, fr).outputFrame(names, null);
+  }
+
+  /**
+   * Run the pipeline, and reduce the final register of every lane.  Every chunk is
+   * accumulated into a fresh deep copy of the given (empty) reducer.
+   */
+  public <R extends Reducer<R>> R reduce(Frame fr, R reducer) {
+    R res = new ReduceTask<>(this, lanes(fr), reducer).doAll(fr)._reducer;
+    return res != null ? res : IcedUtils.deepCopy(reducer);
+  }
+
+  /** Evaluate all stages of one lane, returns the final register. */
+  private double[] run(Chunk[] cs, int lane, int nLanes, double[][] regs) {
+    int len = cs[0]._len;
+    for (int i = 0; i < _nInputs; i++)
+      regs[i] = cs[i * nLanes + lane].getDoubles(scratch(regs[i], len), 0, len);
+    for (int s = 0; s < _stages.length; s++) {
+      int out = _nInputs + s;
+      regs[out] = scratch(regs[out], len);
+      double[][] args = new double[_args[s].length][];
+      for (int a = 0; a < args.length; a++)
+        args[a] = regs[_args[s][a]];
+      _stages[s].map(args, regs[out], len);
+    }
+    return regs[regs.length - 1];
+  }
+
+  private static double[] scratch(double[] buf, int len) {
+    return buf != null && buf.length >= len ? buf : new double[len];
+  }
+
+  private static class MapTask extends MRTask<MapTask> {
+    private final FusedPipeline _p;
+    private final int _nLanes;
+    MapTask(FusedPipeline p, int nLanes) { _p = p; _nLanes = nLanes; }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      double[][] regs = new double[_p._nInputs + _p._stages.length][];
+      for (int lane = 0; lane < _nLanes; lane++) {
+        double[] res = _p.run(cs, lane, _nLanes, regs);
+        NewChunk nc = ncs[lane];
+        for (int i = 0; i < cs[0]._len; i++)
+          nc.addNum(res[i]);
+      }
+    }
+  }
+
+  private static class ReduceTask<R extends Reducer<R>> extends MRTask<ReduceTask<R>> {
+    private final FusedPipeline _p;
+    private final int _nLanes;
+    private final R _empty;
+    R _reducer;
+    ReduceTask(FusedPipeline p, int nLanes, R empty) { _p = p; _nLanes = nLanes; _empty = empty; }
+
+    @Override public void map(Chunk[] cs) {
+      _reducer = IcedUtils.deepCopy(_empty);
+      double[][] regs = new double[_p._nInputs + _p._stages.length][];
+      for (int lane = 0; lane < _nLanes; lane++)
+        _reducer.map(lane, _p.run(cs, lane, _nLanes, regs), cs[0]._len);
+    }
+
+    @Override public void reduce(ReduceTask<R> that) {
+      if (that._reducer == null) return;
+      if (_reducer == null) _reducer = that._reducer;
+      else _reducer.reduce(that._reducer);
+    }
+  }
+}
@@ -172,9 +172,14 @@ class RadixOrder extends H2O.H2OCountedCompleter<RadixOrder> {
       return new GetLongStatsTask().doAll(col);
     }
     @Override public void map(Chunk c) {
-      for(int i=0; i<c._len; ++i) {
-        if( !c.isNA(i) ) {
-          long l = c.at8(i);
+      final long NA = Long.MIN_VALUE;
+      long[] vals = new long[Math.min(c._len, 1024)];
+      for( int from=0; from<c._len; from+=vals.length ) {
+        int to = Math.min(c._len, from+vals.length);
+        c.getLongs(vals, from, to, NA);
+        for( int i=0; i<to-from; ++i ) {
+          long l = vals[i];
+          if( l == NA && c.isNA(from+i) ) continue; // Sentinel may also be a legit value
           _colMin = Math.min(_colMin, l);
           _colMax = Math.max(_colMax, l);
         }
@@ -1,5 +1,6 @@
 package water.rapids.ast;
 
+import water.rapids.ElementwiseFusion;
 import water.rapids.Env;
 import water.rapids.Val;
 import water.rapids.vals.ValFun;
@@ -60,6 +61,9 @@ public class AstExec extends AstRoot {
       throw new IllegalArgumentException(
           "Incorrect number of arguments; '" + ast + "' expects " + (nargs - 1) + " but was passed " + (_asts.length - 1));
     try (Env.StackHelp stk = env.stk()) {
+      // Chains of element-wise operators run as one pass, without temporary Frames
+      Val fused = ElementwiseFusion.ENABLED ? ElementwiseFusion.exec(this, ast, env, stk) : null;
+      if (fused != null) return env.returning(fused);
       return env.returning(ast.apply(env, stk, _asts));
     }
   }
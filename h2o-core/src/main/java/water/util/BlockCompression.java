@@ -0,0 +1,189 @@
+package water.util;
+
+import water.H2O;
+import water.MemoryManager;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Adaptive block compression for Value bytes spilled to the ice root by the
+ * Cleaner, and for large Values shipped between nodes.  Off by default; enable
+ * with {@code -Dsys.ai.h2o.mem.compress=deflate}, or plug in a faster codec
+ * (e.g. LZ4 or Zstd) by giving the name of a class implementing {@link Codec}.
+ *
+ * The payload is cut in blocks which are compressed independently; a block
+ * which does not shrink enough is stored raw.  If the first block does not
+ * compress, the whole payload is assumed incompressible (e.g. random doubles)
+ * and no frame is made at all, so the caller keeps the raw bytes.
+ *
+ * Frame layout: magic (4 bytes), codec id (1 byte), raw length (4 bytes), block
+ * size (4 bytes), then per block a 4 byte header followed by the block bytes.
+ * A positive header is the compressed length, a negative one is the negated
+ * length of a raw block.
+ */
+public final class BlockCompression {
+
+  /** A block codec; implementations must have a public no-arg constructor. */
+  public interface Codec {
+    /** Unique id, recorded in every frame made by this codec; 1 is reserved for deflate. */
+    byte id();
+    /** Compress src[off,off+len) into dst starting at dstOff, writing at most
+     *  maxLen bytes.  Returns the number of bytes written, or -1 if the result
+     *  would not fit in maxLen. */
+    int compress(byte[] src, int off, int len, byte[] dst, int dstOff, int maxLen);
+    /** Decompress src[off,off+len) into exactly rawLen bytes of dst starting at dstOff. */
+    void decompress(byte[] src, int off, int len, byte[] dst, int dstOff, int rawLen);
+  }
+
+  /** Built-in codec on top of java.util.zip; favors speed over ratio. */
+  public static final class DeflateCodec implements Codec {
+    @Override public byte id() { return 1; }
+    @Override public int compress(byte[] src, int off, int len, byte[] dst, int dstOff, int maxLen) {
+      Deflater d = new Deflater(Deflater.BEST_SPEED, true);
+      try {
+        d.setInput(src, off, len);
+        d.finish();
+        int n = 0;
+        while( !d.finished() && n < maxLen )
+          n += d.deflate(dst, dstOff + n, maxLen - n);
+        return d.finished() ? n : -1;
+      } finally {
+        d.end();
+      }
+    }
+    @Override public void decompress(byte[] src, int off, int len, byte[] dst, int dstOff, int rawLen) {
+      Inflater inf = new Inflater(true);
+      try {
+        inf.setInput(src, off, len);
+        int n = 0;
+        while( n < rawLen && !inf.finished() ) {
+          int k = inf.inflate(dst, dstOff + n, rawLen - n);
+          if( k == 0 && (inf.needsInput() || inf.needsDictionary()) ) break;
+          n += k;
+        }
+        if( n != rawLen ) throw new IllegalStateException("Corrupted block, expected " + rawLen + " bytes, got " + n);
+      } catch( DataFormatException e ) {
+        throw new IllegalStateException("Corrupted block", e);
+      } finally {
+        inf.end();
+      }
+    }
+  }
+
+  static final int MAGIC = 0x48325a31; // "H2Z1"
+  static final int HDR = 4 + 1 + 4 + 4;
+  private static final DeflateCodec DEFLATE = new DeflateCodec();
+
+  /** Active codec, null when compression is disabled. */
+  static Codec CODEC = makeCodec(H2O.getSysProperty("mem.compress", "none"));
+  /** Payloads smaller than this are never compressed. */
+  static int MIN_SIZE = Integer.parseInt(H2O.getSysProperty("mem.compress.minSize", String.valueOf(64 << 10)));
+  /** Size of the independently compressed blocks. */
+  static int BLOCK_SIZE = Integer.parseInt(H2O.getSysProperty("mem.compress.blockSize", String.valueOf(256 << 10)));
+  /** A block must shrink at least this much to be stored compressed. */
+  static double MIN_SAVINGS = Double.parseDouble(H2O.getSysProperty("mem.compress.minSavings", "0.1"));
+
+  private BlockCompression() {}
+
+  static Codec makeCodec(String name) {
+    switch( name.toLowerCase() ) {
+      case "":
+      case "none":    return null;
+      case "deflate": return DEFLATE;
+      default:
+        try {
+          Codec c = (Codec) Class.forName(name).getDeclaredConstructor().newInstance();
+          if( c.id() == DEFLATE.id() )
+            throw new IllegalArgumentException("Codec id " + c.id() + " of " + name + " is reserved");
+          return c;
+        } catch( ReflectiveOperationException | ClassCastException e ) {
+          throw new IllegalArgumentException("Cannot create a block codec using class " + name, e);
+        }
+    }
+  }
+
+  public static boolean isEnabled() { return CODEC != null; }
+
+  /** True if the bytes start with a compression frame header. */
+  public static boolean isCompressed(byte[] b) {
+    return b != null && b.length >= HDR && UnsafeUtils.get4(b, 0) == MAGIC;
+  }
+
+  /** Size of the uncompressed payload of a frame. */
+  public static int rawLength(byte[] frame) {
+    assert isCompressed(frame);
+    return UnsafeUtils.get4(frame, 5);
+  }
+
+  /**
+   * Compress the bytes, if enabled and worthwhile.
+   * @return a compression frame, or null when the raw bytes should be kept
+   */
+  public static byte[] compress(byte[] raw) {
+    final Codec codec = CODEC;
+    if( codec == null || raw == null || raw.length < MIN_SIZE ) return null;
+    final int bsz = BLOCK_SIZE;
+    final int max = (int) (raw.length * (1 - MIN_SAVINGS)); // Whole frame must beat this
+    if( max < HDR + 4 ) return null;
+    byte[] dst = MemoryManager.malloc1(max);
+    UnsafeUtils.set4(dst, 0, MAGIC);
+    dst[4] = codec.id();
+    UnsafeUtils.set4(dst, 5, raw.length);
+    UnsafeUtils.set4(dst, 9, bsz);
+    int pos = HDR;
+    for( int off = 0; off < raw.length; off += bsz ) {
+      int len = Math.min(bsz, raw.length - off);
+      int room = max - pos - 4;
+      if( room <= 0 ) return null;
+      int n = codec.compress(raw, off, len, dst, pos + 4, Math.min(room, (int) (len * (1 - MIN_SAVINGS))));
+      if( n < 0 ) {             // Block did not shrink enough
+        if( off == 0 ) return null; // Probe block; assume the rest is alike
+        if( len > room ) return null;
+        System.arraycopy(raw, off, dst, pos + 4, len);
+        UnsafeUtils.set4(dst, pos, -len);
+        pos += 4 + len;
+      } else {
+        UnsafeUtils.set4(dst, pos, n);
+        pos += 4 + n;
+      }
+    }
+    return Arrays.copyOf(dst, pos);
+  }
+
+  /** Inflate a frame made by {@link #compress}. */
+  public static byte[] decompress(byte[] frame) {
+    if( !isCompressed(frame) ) throw new IllegalArgumentException("Not a compression frame");
+    final Codec codec = codecFor(frame[4]);
+    final int rawLen = rawLength(frame);
+    final int bsz = UnsafeUtils.get4(frame, 9);
+    byte[] raw = MemoryManager.malloc1(rawLen);
+    int pos = HDR, off = 0;
+    while( pos < frame.length ) {
+      int n = UnsafeUtils.get4(frame, pos);
+      pos += 4;
+      if( n < 0 ) {
+        System.arraycopy(frame, pos, raw, off, -n);
+        off -= n;
+        pos -= n;
+      } else {
+        int len = Math.min(bsz, rawLen - off);
+        codec.decompress(frame, pos, n, raw, off, len);
+        off += len;
+        pos += n;
+      }
+    }
+    if( off != rawLen ) throw new IllegalStateException("Corrupted frame, expected " + rawLen + " bytes, got " + off);
+    return raw;
+  }
+
+  private static Codec codecFor(byte id) {
+    if( id == DEFLATE.id() ) return DEFLATE;
+    Codec c = CODEC;
+    if( c == null || c.id() != id )
+      throw new IllegalStateException("No block codec with id " + id + " configured on this node");
+    return c;
+  }
+}
@@ -0,0 +1,109 @@
+package water.util;
+
+import jsr166y.ForkJoinPool;
+import jsr166y.ForkJoinWorkerThread;
+import water.H2O;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking I/O (remote storage reads, JDBC fetches) off the F/J worker threads.
+ *
+ * An F/J worker calling {@link #call} hands the I/O to a dedicated executor and
+ * waits for it as a {@link ForkJoinPool.ManagedBlocker}, so its pool can activate
+ * a spare worker for CPU work in the meantime.  The executor uses virtual threads
+ * when the JVM provides them (Java 21+), and a pool of daemon platform threads
+ * otherwise.  Calls from other threads (Jetty, timers, ...) run directly.
+ *
+ * Disable with {@code -Dsys.ai.h2o.blocking_io.offload=false}.
+ */
+public final class BlockingIO {
+
+  public static final boolean ENABLED = H2O.getSysBoolProperty("blocking_io.offload", true);
+  /** Max number of platform threads of the fallback executor; when exhausted, I/O runs on the caller. */
+  static final int MAX_PLATFORM_THREADS = Integer.parseInt(H2O.getSysProperty("blocking_io.max_threads", "256"));
+
+  /** A blocking call, possibly throwing a checked exception. */
+  public interface IOCall<V, E extends Exception> {
+    V call() throws E;
+  }
+
+  private static volatile ExecutorService _executor;
+  private static boolean _virtual;
+
+  private BlockingIO() {}
+
+  /** True if the I/O runs on virtual threads. */
+  public static boolean usesVirtualThreads() {
+    executor();
+    return _virtual;
+  }
+
+  private static ExecutorService executor() {
+    ExecutorService e = _executor;
+    if (e == null) {
+      synchronized (BlockingIO.class) {
+        if ((e = _executor) == null)
+          _executor = e = makeExecutor();
+      }
+    }
+    return e;
+  }
+
+  private static ExecutorService makeExecutor() {
+    try {
+      Method m = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      ExecutorService e = (ExecutorService) m.invoke(null);
+      _virtual = true;
+      Log.info("Blocking I/O runs on virtual threads");
+      return e;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      Log.debug("Virtual threads are not available (" + e + "), blocking I/O runs on platform threads");
+    }
+    final AtomicInteger cnt = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(0, MAX_PLATFORM_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<Runnable>(), r -> {
+          Thread t = new Thread(r, "BlockingIO-" + cnt.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    return pool;
+  }
+
+  /**
+   * Run a blocking call; on an F/J worker it is offloaded, see the class comment.
+   * Exceptions of the call are rethrown as they are.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V, E extends Exception> V call(final IOCall<V, E> io) throws E {
+    if (!ENABLED || !(Thread.currentThread() instanceof ForkJoinWorkerThread))
+      return io.call();
+    final Future<V> f = executor().submit(io::call);
+    try {
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+        @Override public boolean isReleasable() { return f.isDone(); }
+        @Override public boolean block() throws InterruptedException {
+          try { f.get(); } catch (ExecutionException ignore) { } // Reported below
+          return true;
+        }
+      });
+      return f.get();
+    } catch (InterruptedException e) {
+      f.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for blocking I/O", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) throw (Error) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw (E) cause;
+    }
+  }
+}
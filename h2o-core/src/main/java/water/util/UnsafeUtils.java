@@ -6,6 +6,8 @@ import water.nbhm.UtilUnsafe;
 public class UnsafeUtils {
   private static final Unsafe _unsafe = UtilUnsafe.getUnsafe();
   private static final long _Bbase  = _unsafe.arrayBaseOffset(byte[].class);
+  private static final long _Lbase  = _unsafe.arrayBaseOffset(long[].class);
+  private static final long _Dbase  = _unsafe.arrayBaseOffset(double[].class);
   public static byte   get1 ( byte[] buf, int off ) { return _unsafe.getByte  (buf, _Bbase+off); }
   public static int    get2 ( byte[] buf, int off ) { return _unsafe.getShort (buf, _Bbase+off); }
   public static int    get4 ( byte[] buf, int off ) { return _unsafe.getInt   (buf, _Bbase+off); }
@@ -22,4 +24,11 @@ public class UnsafeUtils {
 
   public static void copyMemory( byte[] srcBase, long srcOff, byte[] dstBase, long dstOff, long len )
   { _unsafe.copyMemory(srcBase,_Bbase+srcOff,dstBase,_Bbase+dstOff,len); }
+
+  // Bulk copies of native-order 8-byte elements (as written by set8/set8d)
+  // into primitive arrays; a single memcpy instead of a get8 per element.
+  public static void copyMemory( byte[] srcBase, long srcOff, long[] dst, int dstIdx, int len )
+  { _unsafe.copyMemory(srcBase,_Bbase+srcOff,dst,_Lbase+8L*dstIdx,8L*len); }
+  public static void copyMemory( byte[] srcBase, long srcOff, double[] dst, int dstIdx, int len )
+  { _unsafe.copyMemory(srcBase,_Bbase+srcOff,dst,_Dbase+8L*dstIdx,8L*len); }
 }
@@ -5,8 +5,12 @@ import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +94,32 @@ public class AutoBufferTest extends TestUtil {
     ab.close();
   }
 
+  @Test
+  public void testBulkArrayThroughFileChannel() throws Exception {
+    File f = File.createTempFile("ab-bulk", ".bin");
+    try {
+      byte[] big = new byte[3 * AutoBuffer.BULK_MIN + 7];
+      new Random(0xBEEFL).nextBytes(big);
+      byte[] small = new byte[]{1, 2, 3};
+      try (FileOutputStream os = new FileOutputStream(f)) {
+        AutoBuffer ab = new AutoBuffer(os.getChannel(), false, Value.ICE);
+        ab.put4(42).putA1(big).putA1(small).put4(-1);
+        ab.close();
+      }
+      assertEquals(4 + 4 + big.length + 4 + small.length + 4, f.length());
+      try (FileInputStream is = new FileInputStream(f)) {
+        AutoBuffer ab = new AutoBuffer(is.getChannel(), true, Value.ICE);
+        assertEquals(42, ab.get4());
+        assertArrayEquals(big, ab.getA1());
+        assertArrayEquals(small, ab.getA1());
+        assertEquals(-1, ab.get4());
+        ab.close();
+      }
+    } finally {
+      f.delete();
+    }
+  }
+
   static class XYZZY implements Serializable {
     int i = 1;
     String s = "hi";
@@ -0,0 +1,86 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Vec;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static water.fvec.VecHelper.vecChunkIdx;
+
+public class CleanerTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static Vec randVec(long seed) {
+    Vec vcon = Vec.makeCon(0, 3 * 1024, 10);
+    try {
+      return vcon.makeRand(seed);
+    } finally {
+      vcon.remove();
+    }
+  }
+
+  @Test public void testSpilledChunksFreedInLRUOrder() throws IOException {
+    Vec vec = randVec(0xBEEFL);
+    try {
+      assertTrue(vec.nChunks() >= 3);
+      Value v0 = vecChunkIdx(vec, 0), v1 = vecChunkIdx(vec, 1), v2 = vecChunkIdx(vec, 2);
+      for( Value v : new Value[]{v0, v1, v2} ) {
+        v.memOrLoad();
+        v.storePersist();
+        assertTrue(v.isPersisted());
+      }
+      Cleaner.LRUBatch lru = new Cleaner.LRUBatch();
+      assertFalse(lru.add(v1, 300));
+      assertFalse(lru.add(v0, 100));
+      assertFalse(lru.add(v2, 200));
+      v0.touchAt(100); v1.touchAt(300); v2.touchAt(200);
+
+      // Enough to need the two least-recently-used Chunks
+      long freed = lru.free(v0._max + 1, 1000);
+      assertEquals(v0._max + v2._max, freed);
+      assertFalse(v0.isLoaded());
+      assertFalse(v2.isLoaded());
+      assertTrue("most recently used Chunk survives", v1.isLoaded());
+
+      // The batch is empty again, and spilled Chunks reload from disk
+      assertEquals(0, lru.free(Long.MAX_VALUE, 1000));
+      assertFalse(Double.isNaN(vec.at(0)));
+      assertArrayEquals(v1.memOrLoad(), vecChunkIdx(vec, 1).memOrLoad());
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test public void testChunksTouchedMeanwhileAreKept() throws IOException {
+    Vec vec = randVec(0xF00DL);
+    try {
+      Value v0 = vecChunkIdx(vec, 0);
+      v0.memOrLoad();
+      v0.storePersist();
+      Cleaner.LRUBatch lru = new Cleaner.LRUBatch();
+      lru.add(v0, 100);
+      v0.touchAt(5000); // Touched after the walk saw it
+      assertEquals(0, lru.free(Long.MAX_VALUE, 1000));
+      assertTrue(v0.isLoaded());
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test public void testSpillRoundTrip() throws IOException {
+    Vec vec = randVec(0xCAFEL);
+    try {
+      Value val = vecChunkIdx(vec, 0);
+      byte[] expected = val.memOrLoad().clone();
+      val.storePersist();
+      val.freeMem();
+      val.freePOJO();
+      assertFalse(val.isLoaded());
+      assertArrayEquals(expected, val.memOrLoad());
+    } finally {
+      vec.remove();
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class JobSchedulerTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private final List<String> _started = Collections.synchronizedList(new ArrayList<String>());
+  private final List<Job> _jobs = new ArrayList<>();
+
+  private Job job(String tenant, String desc) {
+    Job j = new Job<>(null, null, desc);
+    j.setTenant(tenant);
+    DKV.put(j);
+    _jobs.add(j);
+    return j;
+  }
+
+  private Task submit(JobScheduler s, Job j) {
+    Task t = new Task(j._description);
+    s.submit(j, t);
+    return t;
+  }
+
+  private class Task extends H2O.H2OCountedCompleter<Task> {
+    final String _desc;
+    Task(String desc) { _desc = desc; }
+    @Override public void compute2() {
+      _started.add(_desc);
+      tryComplete();
+    }
+  }
+
+  // Blocks its F/J worker until opened
+  private class Gate extends H2O.H2OCountedCompleter<Gate> {
+    final String _desc;
+    final CountDownLatch _open = new CountDownLatch(1);
+    Gate(String desc) { _desc = desc; }
+    @Override public void compute2() {
+      _started.add(_desc);
+      try {
+        _open.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      tryComplete();
+    }
+  }
+
+  private Job started(String tenant, String desc, H2O.H2OCountedCompleter task) {
+    Job j = new Job<>(null, null, desc);
+    j.setTenant(tenant);
+    _jobs.add(j);
+    return j.start(task, 1);
+  }
+
+  private JobScheduler install(JobScheduler s) {
+    _installed = JobScheduler.INSTANCE;
+    return JobScheduler.INSTANCE = s;
+  }
+  private JobScheduler _installed;
+
+  private void cleanup() {
+    if (_installed != null) JobScheduler.INSTANCE = _installed;
+    for (Job j : _jobs) DKV.remove(j._key);
+  }
+
+  @Test
+  public void testWeightedFairOrder() {
+    try {
+      Map<String, Double> weights = new HashMap<>();
+      weights.put("a", 2.0);
+      JobScheduler s = new JobScheduler(3, 0, weights);
+      Job a0 = job("a", "a0"), b0 = job("b", "b0"), c0 = job("c", "c0");
+      submit(s, a0).join();
+      submit(s, b0).join();
+      submit(s, c0).join();
+      assertEquals(ar("a0", "b0", "c0"), _started.toArray(new String[0]));
+
+      Task b1 = submit(s, job("b", "b1"));
+      Task a1 = submit(s, job("a", "a1"));
+      assertEquals(1, s.queued("a"));
+      assertEquals(1, s.queued("b"));
+      assertEquals(3, _started.size());
+
+      s.release(c0); // 1 of 2 for tenant a beats 1 of 1 for b, even though b1 came first
+      a1.join();
+      assertEquals("a1", _started.get(3));
+      assertEquals(1, s.queued("b"));
+
+      s.release(a0);
+      b1.join();
+      assertEquals("b1", _started.get(4));
+      assertEquals(0, s.queued("b"));
+      assertEquals(2, s.running("b"));
+    } finally {
+      cleanup();
+    }
+  }
+
+  @Test
+  public void testTenantQuota() {
+    try {
+      JobScheduler s = new JobScheduler(2, 1, new HashMap<String, Double>());
+      Job a0 = job("a", "a0");
+      submit(s, a0).join();
+      Task a1 = submit(s, job("a", "a1"));
+      submit(s, job("b", "b0")).join();
+      assertEquals(1, s.running("a"));
+      assertEquals(1, s.queued("a"));
+      assertEquals(1, s.running("b"));
+
+      s.release(a0);
+      a1.join();
+      assertEquals(ar("a0", "b0", "a1"), _started.toArray(new String[0]));
+    } finally {
+      cleanup();
+    }
+  }
+
+  @Test
+  public void testStartedJobsAreQueuedUntilASlotIsReleased() {
+    try {
+      JobScheduler s = install(new JobScheduler(1, 0, new HashMap<String, Double>()));
+      Gate g0 = new Gate("a0"), g1 = new Gate("b0");
+      Job a0 = started("a", "a0", g0);
+      Job b0 = started("b", "b0", g1);
+      assertTrue(b0.isQueued());
+      assertEquals(Job.JobStatus.PENDING, b0.getStatus());
+      assertEquals(0, b0.msec());
+      assertEquals(1, s.queued("b"));
+      assertFalse(_started.contains("b0"));
+
+      g0._open.countDown();
+      a0.get(); // Barrier1 releases the slot of a0, and admits b0
+      assertFalse(b0.isQueued());
+      assertEquals(Job.JobStatus.RUNNING, b0.getStatus());
+      assertEquals(0, s.queued("b"));
+      assertEquals(0, s.running("a"));
+      assertEquals(1, s.running("b"));
+
+      g1._open.countDown();
+      b0.get();
+      assertEquals(ar("a0", "b0"), _started.toArray(new String[0]));
+      assertEquals(0, s.running("b"));
+    } finally {
+      cleanup();
+    }
+  }
+
+  @Test
+  public void testChildJobsAreChargedToTheParentTenant() {
+    final Gate g = new Gate("child");
+    try {
+      JobScheduler s = install(new JobScheduler(1, 0, new HashMap<String, Double>()));
+      final Job[] child = new Job[1];
+      Job parent = started("b", "parent", new H2O.H2OCountedCompleter() {
+        @Override public void compute2() {
+          child[0] = new Job<>(null, null, "child").start(g, 1); // No tenant given
+          tryComplete();
+        }
+      });
+      parent.get();
+      _jobs.add(child[0]);
+      assertEquals("b", child[0].tenant());
+      assertFalse("never queued", child[0].isQueued());
+      assertEquals("charged to its tenant", 1, s.running("b"));
+
+      Job a1 = started("a", "a1", new Task("a1"));
+      assertTrue("the child Job holds the slot", a1.isQueued());
+      g._open.countDown();
+      child[0].get();
+      a1.get();
+      assertTrue(_started.contains("a1"));
+      assertEquals(0, s.running("b"));
+    } finally {
+      g._open.countDown();
+      cleanup();
+    }
+  }
+
+  @Test
+  public void testStoppedWhileQueued() {
+    Gate g0 = new Gate("a0");
+    try {
+      JobScheduler s = install(new JobScheduler(1, 0, new HashMap<String, Double>()));
+      Job a0 = started("a", "a0", g0);
+      Task t = new Task("a1");
+      Job a1 = started("a", "a1", t);
+      assertTrue(a1.isQueued());
+
+      a1.stop(); // a0 keeps its slot, a1 completes right away
+      try {
+        a1.get();
+      } catch (RuntimeException e) {
+        assertTrue(Job.isCancelledException(e));
+      }
+      assertTrue(a1.isStopped());
+      assertTrue(t.isCompletedAbnormally());
+      assertEquals(Job.JobStatus.STOPPED, a1.getStatus());
+      assertEquals(0, s.queued("a"));
+      assertEquals(1, s.running("a"));
+      assertFalse(_started.contains("a1"));
+
+      g0._open.countDown();
+      a0.get();
+      assertFalse(_started.contains("a1"));
+    } finally {
+      g0._open.countDown();
+      cleanup();
+    }
+  }
+
+  @Test
+  public void testTenantOfRequest() {
+    assertEquals("alice", JobScheduler.tenantOf("alice", "bob"));
+    assertEquals(JobScheduler.TRUST_TENANT_HEADER ? "bob" : null, JobScheduler.tenantOf(null, "bob"));
+    assertNull(JobScheduler.tenantOf(null, "bob\nINFO: forged"));
+    assertNull(JobScheduler.tenantOf(null, null));
+  }
+
+  @Test
+  public void testParseWeights() {
+    Map<String, Double> w = JobScheduler.parseWeights("alice:2, bob : 0.5,bad,neg:-1,:3");
+    assertEquals(2, w.size());
+    assertEquals(2, w.get("alice"), 0);
+    assertEquals(0.5, w.get("bob"), 0);
+  }
+}
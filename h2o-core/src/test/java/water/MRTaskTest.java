@@ -2,6 +2,7 @@ package water;
 
 import org.junit.*;
 import water.fvec.*;
+import water.util.IcedInt;
 import water.util.PrettyPrint;
 
 import java.util.concurrent.atomic.AtomicInteger;
@@ -154,5 +155,164 @@ public class MRTaskTest extends TestUtil {
     }
   }
 
-}
+  // Chunks of very different sizes (and local chunk ranges split by cost) are each mapped exactly once
+  @Test
+  public void testSkewedChunkLayout() {
+    final int oldMinChunks = MRTask.COST_SPLIT_MIN_CHUNKS;
+    try {
+      Scope.enter();
+      MRTask.COST_SPLIT_MIN_CHUNKS = 16;
+      long[] layout = new long[200];
+      java.util.Arrays.fill(layout, 1);
+      layout[3] = 50000;
+      layout[150] = 20000;
+      int nrows = 0;
+      for (long l : layout) nrows += l;
+      double[] data = new double[nrows];
+      for (int i = 0; i < nrows; i++) data[i] = i % 7 == 0 ? 0 : i;
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, data)
+              .withChunkLayout(layout)
+              .build());
+      class CountTask extends MRTask<CountTask> {
+        int[] _visits;
+        double _sum;
+        @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+          _visits = new int[cs[0].vec().nChunks()];
+          _visits[cs[0].cidx()]++;
+          for (int i = 0; i < cs[0]._len; i++) {
+            _sum += cs[0].atd(i);
+            ncs[0].addNum(cs[0].atd(i) + 1);
+          }
+        }
+        @Override public void reduce(CountTask t) {
+          if (_visits == null) _visits = t._visits;
+          else if (t._visits != null) water.util.ArrayUtils.add(_visits, t._visits);
+          _sum += t._sum;
+        }
+      }
+      CountTask t = new CountTask().doAll(1, Vec.T_NUM, fr);
+      Frame out = Scope.track(t.outputFrame());
+      for (int c = 0; c < layout.length; c++)
+        assertEquals("chunk " + c, 1, t._visits[c]);
+      double expected = 0;
+      for (double d : data) expected += d;
+      assertEquals(expected, t._sum, 0);
+      assertEquals(expected + nrows, out.vec(0).mean() * nrows, 1e-9 * expected);
+      assertEquals(fr.anyVec().nChunks(), out.anyVec().nChunks());
+    } finally {
+      MRTask.COST_SPLIT_MIN_CHUNKS = oldMinChunks;
+      Scope.exit();
+    }
+  }
 
+  // Remote calls of a speculative task complete it through their race, results are reduced once
+  @Test
+  public void testSpeculativeExecutionResults() {
+    try {
+      Scope.enter();
+      Vec v = Scope.track(Vec.makeSeq(1, 100000));
+      class SumTask extends MRTask<SumTask> {
+        double _sum;
+        long _nchunks;
+        @Override public void map(Chunk c) {
+          for (int i = 0; i < c._len; i++) _sum += c.atd(i);
+          _nchunks++;
+        }
+        @Override public void reduce(SumTask t) { _sum += t._sum; _nchunks += t._nchunks; }
+      }
+      for (int k = 0; k < 3; k++) {
+        SumTask t = new SumTask().withSpeculativeExecution().doAll(v);
+        assertEquals(100000L * 100001L / 2, t._sum, 0);
+        assertEquals(v.nChunks(), t._nchunks);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // Sums a Vec; on one node the chunks are mapped only once the test releases them
+  static class LaggingSumTask extends MRTask<LaggingSumTask> {
+    static final AtomicInteger SETUP = new AtomicInteger(), CLOSE = new AtomicInteger();
+    final int _laggard;
+    final Key _release, _released;
+    double _sum;
+    long _nchunks;
+    int[] _mappedBy; // Node which mapped each chunk
+    LaggingSumTask(int laggard, Key release, Key released) { _laggard = laggard; _release = release; _released = released; }
+    @Override protected void setupLocal() { SETUP.incrementAndGet(); }
+    @Override public void map(Chunk c) {
+      if (H2O.SELF.index() == _laggard) await(_release);
+      for (int i = 0; i < c._len; i++) _sum += c.atd(i);
+      _nchunks++;
+      _mappedBy = new int[c.vec().nChunks()];
+      java.util.Arrays.fill(_mappedBy, -1);
+      _mappedBy[c.cidx()] = H2O.SELF.index();
+    }
+    @Override public void reduce(LaggingSumTask t) {
+      _sum += t._sum;
+      _nchunks += t._nchunks;
+      if (_mappedBy == null) _mappedBy = t._mappedBy;
+      else if (t._mappedBy != null)
+        for (int i = 0; i < _mappedBy.length; i++) _mappedBy[i] = Math.max(_mappedBy[i], t._mappedBy[i]);
+    }
+    @Override protected void closeLocal() {
+      CLOSE.incrementAndGet();
+      if (H2O.SELF.index() == _laggard) DKV.put(_released, new IcedInt(1));
+    }
+  }
+
+  // Wait for a key to show up in the DKV; bounded, so a failed test cannot hang a node
+  private static boolean await(Key k) {
+    long deadline = System.currentTimeMillis() + 60 * 1000;
+    while (DKV.get(k) == null) {
+      if (System.currentTimeMillis() > deadline) return false;
+      try { Thread.sleep(10); } catch (InterruptedException ignore) { }
+    }
+    return true;
+  }
+
+  // The chunks of a lagging node are mapped by a speculative copy on this node,
+  // whose result is reduced in place of the late remote one
+  @Test
+  public void testSpeculativeCopyOfLaggingNode() {
+    final long oldMinMs = MRTask.SPECULATION_MIN_MS;
+    final double oldFactor = MRTask.SPECULATION_FACTOR;
+    final Key release = Key.make(), released = Key.make();
+    Scope.enter();
+    try {
+      MRTask.SPECULATION_MIN_MS = 100;
+      MRTask.SPECULATION_FACTOR = 4;
+      Vec v = Scope.track(Vec.makeCon(1, 64 * 1024, 10));
+      int laggard = -1;
+      for (int i = 0; i < v.nChunks() && laggard == -1; i++)
+        if (v.chunkKey(i).home_node() != H2O.SELF) laggard = v.chunkKey(i).home_node().index();
+      assertTrue("some chunks are homed on other nodes", laggard != -1);
+      LaggingSumTask.SETUP.set(0);
+      LaggingSumTask.CLOSE.set(0);
+
+      // The lagging node is held back until the task is done without it
+      LaggingSumTask t = new LaggingSumTask(laggard, release, released).withSpeculativeExecution().doAll(v);
+      assertEquals(v.length(), t._sum, 0);
+      assertEquals("each chunk reduced once", v.nChunks(), t._nchunks);
+      for (int i = 0; i < v.nChunks(); i++) {
+        assertTrue("chunk " + i + " mapped", t._mappedBy[i] != -1);
+        if (v.chunkKey(i).home_node().index() == laggard)
+          assertEquals("chunk " + i + " of the lagging node", H2O.SELF.index(), t._mappedBy[i]);
+      }
+      assertEquals("setupLocal of the task and of its speculative copy", 2, LaggingSumTask.SETUP.get());
+      assertEquals("closeLocal of the task and of its speculative copy", 2, LaggingSumTask.CLOSE.get());
+    } finally {
+      DKV.put(release, new IcedInt(1));
+      await(released);  // Before the keys go, so the lagging node does not wait out its deadline
+      DKV.remove(release);
+      DKV.remove(released);
+      MRTask.SPECULATION_MIN_MS = oldMinMs;
+      MRTask.SPECULATION_FACTOR = oldFactor;
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SmallMessageBatchingTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static ByteBuffer msg(UDP.udp type, int len, int priority) {
+    byte[] b = new byte[len];
+    b[0] = (byte) type.ordinal();
+    ByteBuffer bb = ByteBuffer.wrap(b);
+    bb.position(H2ONode.queuePriority((byte) priority, len)); // Secret back-channel priority, as sendMessage sets it
+    return bb;
+  }
+
+  private static int frames(ByteBuffer out) {
+    int n = 0;
+    for (int pos = 0; pos < out.position(); n++) {
+      int len = out.getChar(pos);
+      assertEquals((byte) 0xef, out.get(pos + 2 + len));
+      pos += 2 + len + 1;
+    }
+    return n;
+  }
+
+  @Test
+  public void testUrgentMessages() {
+    assertTrue(H2ONode.isUrgent(msg(UDP.udp.ack, 16, 0)));
+    assertTrue(H2ONode.isUrgent(msg(UDP.udp.ackack, 16, 0)));
+    assertTrue(H2ONode.isUrgent(msg(UDP.udp.nack, 16, 0)));
+    assertTrue("high-priority task", H2ONode.isUrgent(msg(UDP.udp.exec, 32, H2O.MIN_HI_PRIORITY)));
+    assertTrue("high-priority task", H2ONode.isUrgent(msg(UDP.udp.exec, 32, H2O.MAX_PRIORITY)));
+    assertFalse("mid-priority task", H2ONode.isUrgent(msg(UDP.udp.exec, 32, H2O.MIN_HI_PRIORITY - 1)));
+    assertFalse("mid-priority task", H2ONode.isUrgent(msg(UDP.udp.exec, 32, 10)));
+    assertFalse("low-priority task", H2ONode.isUrgent(msg(UDP.udp.exec, 32, 1)));
+  }
+
+  @Test
+  public void testQueuePriorityKeepsTheOrder() {
+    int prev = -1;
+    for (int p = 0; p <= H2O.MAX_PRIORITY; p++) {
+      int q = H2ONode.queuePriority((byte) p, 1024);
+      assertTrue(q >= prev);
+      assertEquals("priority " + p, p >= H2O.MIN_HI_PRIORITY, H2ONode.isHiPriority(q));
+      prev = q;
+    }
+    assertEquals("capped at the message length", 8, H2ONode.queuePriority(H2O.MAX_PRIORITY, 8));
+  }
+
+  @Test
+  public void testPacksQueuedMessagesWithoutLinger() throws InterruptedException {
+    LinkedBlockingQueue<ByteBuffer> q = new LinkedBlockingQueue<>();
+    q.add(msg(UDP.udp.exec, 20, 0));
+    q.add(msg(UDP.udp.exec, 30, 0));
+    ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    AtomicInteger flushes = new AtomicInteger();
+    int n = H2ONode.packSmallMessages(msg(UDP.udp.exec, 10, 0), q, out, 0, flushes::incrementAndGet);
+    assertEquals(3, n);
+    assertEquals(3, frames(out));
+    assertEquals(0, flushes.get());
+    assertTrue(q.isEmpty());
+  }
+
+  @Test
+  public void testLingerWaitsForMoreMessages() throws InterruptedException {
+    final LinkedBlockingQueue<ByteBuffer> q = new LinkedBlockingQueue<>();
+    Thread late = new Thread(() -> {
+      try { Thread.sleep(20); } catch (InterruptedException ignore) { }
+      q.add(msg(UDP.udp.exec, 10, 0));
+    });
+    late.start();
+    ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    int n = H2ONode.packSmallMessages(msg(UDP.udp.exec, 10, 0), q, out, TimeUnit.MILLISECONDS.toNanos(500), () -> {});
+    late.join();
+    assertEquals("late message shares the frame", 2, n);
+  }
+
+  @Test
+  public void testUrgentMessageIsNotHeldBack() throws InterruptedException {
+    LinkedBlockingQueue<ByteBuffer> q = new LinkedBlockingQueue<>();
+    ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    long start = System.nanoTime();
+    int n = H2ONode.packSmallMessages(msg(UDP.udp.ack, 10, 0), q, out, TimeUnit.SECONDS.toNanos(10), () -> {});
+    assertEquals(1, n);
+    assertTrue("ack shipped without the linger", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+  }
+
+  @Test
+  public void testFlushesFullBuffer() throws InterruptedException {
+    LinkedBlockingQueue<ByteBuffer> q = new LinkedBlockingQueue<>();
+    for (int i = 0; i < 4; i++) q.add(msg(UDP.udp.exec, 100, 0));
+    final ByteBuffer out = ByteBuffer.allocate(250);
+    AtomicInteger flushes = new AtomicInteger();
+    int n = H2ONode.packSmallMessages(msg(UDP.udp.exec, 100, 0), q, out, 0, () -> {
+      flushes.incrementAndGet();
+      out.clear(); // as sendBuffer does once the bytes are on the wire
+    });
+    assertEquals(5, n);
+    assertEquals("two messages fit per buffer", 2, flushes.get());
+    assertEquals(1, frames(out));
+  }
+}
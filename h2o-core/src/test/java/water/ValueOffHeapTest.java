@@ -0,0 +1,115 @@
+package water;
+
+import org.junit.*;
+import water.fvec.Vec;
+import water.util.IcedInt;
+
+import static org.junit.Assert.*;
+import static water.fvec.VecHelper.vecChunkIdx;
+
+public class ValueOffHeapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testStoreAndRestoreOffHeap() {
+    final long oldMax = MemoryManager.OFF_HEAP_MAX;
+    Vec vcon = Vec.makeCon(0, 1024, 6);
+    Vec vrnd = vcon.makeRand(0x123456L);
+    vcon.remove();
+    try {
+      MemoryManager.OFF_HEAP_MAX = Long.MAX_VALUE;
+      final long used = MemoryManager.offHeapUsed();
+      Value val = vecChunkIdx(vrnd, 0);
+      byte[] expected = val.memOrLoad().clone();
+      double first = vrnd.at(0);
+
+      assertTrue(val.storeOffHeap());
+      assertTrue(val.isOffHeap());
+      assertEquals(used + val._max, MemoryManager.offHeapUsed());
+
+      // Drop the on-heap forms, as the Cleaner does under pressure
+      val.freeMem();
+      val.freePOJO();
+      assertNull(val.rawMem());
+      assertNull(val.rawPOJO());
+      assertFalse(val.isPersisted());
+
+      assertArrayEquals(expected, val.memOrLoad());
+      assertEquals(first, vrnd.at(0), 0);
+
+      // Removing the Value releases the off-heap budget
+      vrnd.remove();
+      assertFalse(val.isOffHeap());
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      MemoryManager.OFF_HEAP_MAX = oldMax;
+      if( DKV.get(vrnd._key) != null ) vrnd.remove();
+    }
+  }
+
+  @Test public void testOffHeapBudgetIsRespected() {
+    final long oldMax = MemoryManager.OFF_HEAP_MAX;
+    Vec vcon = Vec.makeCon(0, 1024, 6);
+    Vec vrnd = vcon.makeRand(0xCAFEL);
+    vcon.remove();
+    try {
+      MemoryManager.OFF_HEAP_MAX = 0; // tier disabled
+      Value val = vecChunkIdx(vrnd, 0);
+      assertFalse(val.storeOffHeap());
+      assertFalse(val.isOffHeap());
+    } finally {
+      MemoryManager.OFF_HEAP_MAX = oldMax;
+      vrnd.remove();
+    }
+  }
+
+  @Test public void testCopyIsReleasedWithTheLastReference() {
+    final long oldMax = MemoryManager.OFF_HEAP_MAX;
+    try {
+      MemoryManager.OFF_HEAP_MAX = Long.MAX_VALUE;
+      final long used = MemoryManager.offHeapUsed();
+      byte[] bytes = new byte[]{1, 2, 3, 4, 5};
+      OffHeapCopy copy = OffHeapCopy.make(bytes);
+      assertNotNull(copy);
+      assertEquals(used + bytes.length, MemoryManager.offHeapUsed());
+      assertArrayEquals(bytes, copy.load());
+      assertEquals("a load returns its reference", used + bytes.length, MemoryManager.offHeapUsed());
+
+      copy.releaseOwner();
+      copy.releaseOwner(); // Only the first call counts
+      assertEquals(used, MemoryManager.offHeapUsed());
+      assertNull("released copy cannot be loaded", copy.load());
+    } finally {
+      MemoryManager.OFF_HEAP_MAX = oldMax;
+    }
+  }
+
+  @Test public void testReplacedValueKeepsCopyWhileReachable() throws InterruptedException {
+    final long oldMax = MemoryManager.OFF_HEAP_MAX;
+    Key k = Key.make("offHeapReplaced");
+    try {
+      MemoryManager.OFF_HEAP_MAX = Long.MAX_VALUE;
+      final long used = MemoryManager.offHeapUsed();
+      DKV.put(k, new IcedInt(42));
+      Value old = DKV.get(k);
+      assertTrue(old.storeOffHeap());
+      final long size = old._max;
+      old.freeMem();
+      old.freePOJO();
+
+      DKV.put(k, new IcedInt(43)); // Replace; a racing reader may still hold the old Value
+      assertEquals(used + size, MemoryManager.offHeapUsed());
+      assertEquals(42, ((IcedInt) old.get())._val);
+
+      old = null;
+      for( int i = 0; i < 100 && MemoryManager.offHeapUsed() != used; i++ ) {
+        System.gc();
+        Thread.sleep(10);
+        OffHeapCopy.drainRetired();
+      }
+      assertEquals("released once the old Value is unreachable", used, MemoryManager.offHeapUsed());
+    } finally {
+      MemoryManager.OFF_HEAP_MAX = oldMax;
+      DKV.remove(k);
+    }
+  }
+}
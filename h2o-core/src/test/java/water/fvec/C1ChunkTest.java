@@ -104,4 +104,16 @@ public class C1ChunkTest extends TestUtil {
     Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
     vec.remove();
   }
+
+  @Test
+  public void test_getLongs_bulk() {
+    NewChunk nc = new NewChunk(null, 0);
+    int[] vals = new int[]{0, 1, 3, 254};
+    for (int v : vals) nc.addNum(v, 0);
+    nc.addNA();
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C1Chunk);
+    long[] dense = cc.getLongs(new long[vals.length + 1], 0, vals.length + 1, -1);
+    Assert.assertArrayEquals(new long[]{0, 1, 3, 254, -1}, dense);
+  }
 }
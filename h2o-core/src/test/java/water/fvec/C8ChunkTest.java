@@ -102,4 +102,21 @@ public class C8ChunkTest extends TestUtil {
     Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
     vec.remove();
   }
+
+  @Test
+  public void test_getLongs_bulk() {
+    NewChunk nc = new NewChunk(null, 0);
+    long[] vals = new long[]{Long.MAX_VALUE, -1, 0, Long.MIN_VALUE + 1, 1L << 40};
+    for (long v : vals) nc.addNum(v, 0);
+    nc.addNA();
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C8Chunk);
+
+    long[] dense = cc.getLongs(new long[vals.length + 1], 0, vals.length + 1, C8Chunk._NA);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], dense[i]);
+    Assert.assertEquals(C8Chunk._NA, dense[vals.length]);
+
+    long[] imputed = cc.getLongs(new long[3], 3, 6, 42);
+    Assert.assertArrayEquals(new long[]{Long.MIN_VALUE + 1, 1L << 40, 42}, imputed);
+  }
 }
@@ -140,4 +140,18 @@ public class C8DChunkTest extends TestUtil {
     }
   }
 
+  @Test
+  public void test_getDoubles_bulk() {
+    NewChunk nc = new NewChunk(null, 0);
+    double[] vals = new double[]{Math.PI, Double.NaN, -1e300, 0, Double.POSITIVE_INFINITY, 1.5e-300};
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C8DChunk);
+
+    double[] dense = cc.getDoubles(new double[vals.length], 0, vals.length);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], dense[i], 0);
+
+    double[] imputed = cc.getDoubles(new double[4], 1, 5, -7);
+    Assert.assertArrayEquals(new double[]{-7, -1e300, 0, Double.POSITIVE_INFINITY}, imputed, 0);
+  }
 }
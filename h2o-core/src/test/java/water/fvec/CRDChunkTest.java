@@ -0,0 +1,104 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+
+public class CRDChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Sorted prices: few long runs of distinct, non-integer values
+  private static double[] sortedRuns() {
+    double[] vals = new double[1000];
+    for (int i = 0; i < vals.length; ++i)
+      vals[i] = i < 100 ? Double.NaN : 0.1 * (i / 50) + Math.PI;
+    return vals;
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    double[] vals = sortedRuns();
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertEquals(vals.length, cc._len);
+    Assert.assertTrue(cc instanceof CRDChunk);
+    Assert.assertTrue(cc._mem.length < vals.length);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc.atd(i), 0);
+    for (int i = vals.length - 1; i >= 0; --i) Assert.assertEquals(vals[i], cc.atd(i), 0); // backwards
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CRDChunk);
+    Assert.assertEquals(cc._len, cc2._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc2.atd(i), 0);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    Assert.assertEquals(vals.length, nc._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], nc.atd(i), 0);
+    Chunk cc3 = nc.compress();
+    Assert.assertTrue(cc3 instanceof CRDChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_shortRunsNotRunLengthEncoded() {
+    // Runs of 3 distinct values: run-length would save space, but not pay for the binary search
+    double[] vals = new double[1000];
+    for (int i = 0; i < vals.length; ++i) vals[i] = 0.1 * (i / 3) + Math.PI;
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc.getClass().getSimpleName(), cc instanceof C8DChunk);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc.atd(i), 0);
+
+    // Runs of exactly MIN_AVG_RUN rows qualify
+    for (int i = 0; i < vals.length; ++i) vals[i] = 0.1 * (i / CRDChunk.MIN_AVG_RUN) + Math.PI;
+    nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Assert.assertTrue(nc.compress() instanceof CRDChunk);
+  }
+
+  @Test
+  public void test_getDoubles() {
+    double[] vals = sortedRuns();
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRDChunk);
+    double[] dense = cc.getDoubles(new double[vals.length], 0, vals.length, -1);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(Double.isNaN(vals[i]) ? -1 : vals[i], dense[i], 0);
+    double[] part = cc.getDoubles(new double[130], 90, 220);
+    for (int i = 0; i < part.length; ++i) Assert.assertEquals(vals[90 + i], part[i], 0);
+  }
+
+  @Test
+  public void test_set() {
+    double[] vals = sortedRuns();
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRDChunk);
+    Assert.assertTrue(cc.set_impl(500, vals[500]));  // same value, run unchanged
+    Assert.assertFalse(cc.set_impl(500, 17.0));      // would split a run
+    Assert.assertTrue(cc.setNA_impl(0));
+    Assert.assertFalse(cc.setNA_impl(500));
+  }
+
+  @Test
+  public void test_setLongKeepsPrecision() {
+    double[] vals = sortedRuns();
+    final long big = 1L << 60;                       // Exact as a double, its neighbours are not
+    for (int i = 500; i < 600; ++i) vals[i] = big;
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRDChunk);
+    Assert.assertTrue(cc.set_impl(550, big));
+    Assert.assertFalse(cc.set_impl(550, big + 1));   // Rounds to big, must inflate instead
+  }
+}
@@ -0,0 +1,60 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.Value;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ChunkPrefetcherTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testPrefetchAndStream() throws Exception {
+    int oldDepth = ChunkPrefetcher.DEPTH;
+    File f = File.createTempFile("prefetch", ".bin");
+    NFSFileVec vec = null;
+    try {
+      ChunkPrefetcher.DEPTH = 3;
+      byte[] data = new byte[40 * 1024 + 17];
+      new Random(0xF00D).nextBytes(data);
+      try (FileOutputStream os = new FileOutputStream(f)) {
+        os.write(data);
+      }
+      vec = NFSFileVec.make(f);
+      vec.setChunkSize(4096);
+      assertTrue(vec.nChunks() > 4);
+
+      ChunkPrefetcher.prefetchAfter(vec, 0, true);
+      for (int c = 1; c <= 3; c++) {
+        long deadline = System.currentTimeMillis() + 10000;
+        Value v;
+        while ((v = Value.STORE_get(vec.chunkKey(c))) == null || !v.isLoaded()) {
+          assertTrue("Chunk " + c + " was not prefetched", System.currentTimeMillis() < deadline);
+          Thread.sleep(10);
+        }
+      }
+
+      // Stream reads prefetch as they go and see the same bytes
+      byte[] read = new byte[data.length];
+      try (InputStream is = vec.openStream(null)) {
+        int off = 0, n;
+        while (off < read.length && (n = is.read(read, off, read.length - off)) > 0)
+          off += n;
+        assertEquals(data.length, off);
+        assertEquals(-1, is.read());
+      }
+      assertArrayEquals(data, read);
+    } finally {
+      ChunkPrefetcher.DEPTH = oldDepth;
+      if (vec != null) vec.remove();
+      assertTrue(f.delete());
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class FrameSnapshotTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+          .withName("snapshot_src")
+          .withColNames("num", "cat", "str")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+          .withDataForCol(0, ard(1.5, Double.NaN, 3, 4, 5.25))
+          .withDataForCol(1, ar("b", "a", null, "c", "a"))
+          .withDataForCol(2, ar("x", "yy", "zzz", null, ""))
+          .withChunkLayout(2, 0, 3)
+          .build();
+      fr.vec(0).mean(); // make sure rollups exist
+
+      File f = new File(tmpFolder.getRoot(), "frame.snapshot");
+      FrameSnapshot.save(fr, f.getAbsolutePath(), false);
+      assertTrue(f.length() > 0);
+
+      Frame loaded = FrameSnapshot.load(f.getAbsolutePath(), Key.<Frame>make("snapshot_dst"));
+      Scope.track(loaded);
+      assertNotEquals(fr.vec(0)._key, loaded.vec(0)._key);
+      assertArrayEquals(fr.names(), loaded.names());
+      assertArrayEquals(fr.anyVec().espc(), loaded.anyVec().espc());
+      assertArrayEquals(fr.vec(1).domain(), loaded.vec(1).domain());
+      for (int i = 0; i < fr.numCols(); i++) {
+        assertEquals(fr.vec(i).get_type(), loaded.vec(i).get_type());
+        assertNotNull("Rollups are restored", DKV.get(loaded.vec(i).rollupStatsKey()));
+      }
+      assertEquals(fr.vec(0).mean(), loaded.vec(0).mean(), 0);
+      assertEquals(1, loaded.vec(0).naCnt());
+      assertFrameEquals(fr, loaded, 0);
+      assertEquals(fr.checksum(), loaded.checksum());
+    } finally {
+      Scope.exit();
+    }
+  }
+}
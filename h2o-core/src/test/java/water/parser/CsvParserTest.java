@@ -356,6 +356,49 @@ public class CsvParserTest extends TestUtil {
       assertEquals("abcde,", outWriter._data[1][0]);
       assertFalse(outWriter.hasErrors());
     }
+
+    @Test
+    public void testWordAtATimeScanningMatchesByteByByte() {
+      final String csv = "12345678901234567,0.123456789012345678,\"long quoted, string with , commas\",plain string of some length\n" +
+          "-98765432109876543210,1234567890.0987654321e3,\"\"\"escaped\"\" quotes inside a longer string\",ünïcödé strïng hère\n" +
+          "7,1.5,\"multi\nline string\",x\n" +
+          "123456789,99999999.99999999,short,\"unended quoted string that runs to the end";
+      final boolean oldEnabled = SwarScan.ENABLED;
+      try {
+        SwarScan.ENABLED = false;
+        final List<String> expected = parseAndRecord(csv);
+        SwarScan.ENABLED = true;
+        final List<String> actual = parseAndRecord(csv);
+        assertEquals(expected, actual);
+        assertTrue(actual.contains("0:12345678901234567e0"));
+        assertTrue(actual.contains("2:long quoted, string with , commas"));
+        assertTrue(actual.contains("2:\"escaped\" quotes inside a longer string"));
+        assertTrue(actual.contains("3:ascii=false"));
+      } finally {
+        SwarScan.ENABLED = oldEnabled;
+      }
+    }
+
+    private static List<String> parseAndRecord(String csv) {
+      ParseSetup parseSetup = new ParseSetup();
+      parseSetup._parse_type = DefaultParserProviders.CSV_INFO;
+      parseSetup._check_header = ParseSetup.NO_HEADER;
+      parseSetup._separator = ',';
+      parseSetup._number_columns = 4;
+      parseSetup._single_quotes = false;
+      parseSetup._nonDataLineMarkers = new byte[0];
+      CsvParser csvParser = new CsvParser(parseSetup, null);
+
+      final List<String> values = new ArrayList<>();
+      final PreviewParseWriter recorder = new PreviewParseWriter(parseSetup._number_columns) {
+        @Override public void addNumCol(int colIdx, long number, int exp) { values.add(colIdx + ":" + number + "e" + exp); }
+        @Override public void addStrCol(int colIdx, BufferedString str) { values.add(colIdx + ":" + str.toString()); }
+        @Override public void setIsAllASCII(int colIdx, boolean b) { values.add(colIdx + ":ascii=" + b); }
+      };
+      csvParser.parseChunk(0, new Parser.ByteAryData(StringUtils.bytesOf(csv), 0), recorder);
+      assertFalse(recorder.hasErrors());
+      return values;
+    }
   }
 
 
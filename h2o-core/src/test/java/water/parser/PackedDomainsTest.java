@@ -1,6 +1,12 @@
 package water.parser;
 
+import org.junit.BeforeClass;
 import org.junit.Test;
+import jsr166y.ForkJoinWorkerThread;
+import water.H2O;
+import water.TestUtil;
+
+import java.util.*;
 
 import static org.junit.Assert.*;
 import static water.parser.PackedDomains.*;
@@ -10,7 +16,10 @@ import static water.parser.PackedDomains.*;
  * 
  * Created by vpatryshev on 4/12/17.
  */
-public class PackedDomainsTest {
+public class PackedDomainsTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
 
   @Test
   public void testSizeOf() throws Exception {
@@ -119,6 +128,65 @@ public class PackedDomainsTest {
     assertArrayEquals(pack(third), merge(third, third));
   }
 
+  @Test
+  public void testPartitionedMergeAndSort() throws Exception {
+    final int oldBytes = PackedDomains.MIN_PART_BYTES;
+    final int oldWords = PackedDomains.MIN_PART_WORDS;
+    try {
+      PackedDomains.MIN_PART_BYTES = 16;
+      PackedDomains.MIN_PART_WORDS = 4;
+      checkPartitionedMergeAndSort(new Random(0xCAFE), false);
+      // From an F/J worker the ranges are merged and sorted as parallel tasks
+      H2O.submitTask(new H2O.H2OCountedCompleter() {
+        @Override public void compute2() {
+          checkPartitionedMergeAndSort(new Random(0xBABE), true);
+          tryComplete();
+        }
+      }).join();
+    } finally {
+      PackedDomains.MIN_PART_BYTES = oldBytes;
+      PackedDomains.MIN_PART_WORDS = oldWords;
+    }
+  }
+
+  private static void checkPartitionedMergeAndSort(Random rnd, boolean onWorker) {
+    assertEquals(onWorker, Thread.currentThread() instanceof ForkJoinWorkerThread);
+    for (int t = 0; t < 200; t++) {
+      TreeSet<String> a = new TreeSet<>(), b = new TreeSet<>();
+      int n = rnd.nextInt(300);
+      for (int i = 0; i < n; i++) {
+        String word = Integer.toString(rnd.nextInt(500), 7 + rnd.nextInt(30));
+        if (rnd.nextInt(3) != 0) a.add(word);
+        if (rnd.nextInt(3) != 0) b.add(word);
+      }
+      String[] as = a.toArray(new String[0]), bs = b.toArray(new String[0]);
+      byte[] expected = merge(as, bs);
+      int parts = 1 + rnd.nextInt(8);
+      assertArrayEquals(expected, PackedDomains.merge(pack(as), pack(bs), parts));
+      assertArrayEquals(expected, PackedDomains.merge(pack(bs), pack(as), parts));
+
+      List<String> shuffled = new ArrayList<>(a);
+      shuffled.addAll(b);
+      shuffled = new ArrayList<>(new HashSet<>(shuffled));
+      Collections.shuffle(shuffled, rnd);
+      BufferedString[] words = new BufferedString[shuffled.size()];
+      for (int i = 0; i < words.length; i++)
+        words[i] = new BufferedString(shuffled.get(i));
+      assertArrayEquals(expected, PackedDomains.sortAndPack(words, parts));
+    }
+  }
+
+  @Test
+  public void testMapToPackedDomain() {
+    Categorical cat = new Categorical();
+    for (String level : new String[]{"x", "aardvark", "neo", "zambezi"}) // node-local ids in order of appearance
+      cat.addKey(new BufferedString(level));
+    int[] ordMap = new int[cat.maxId() + 1];
+    Arrays.fill(ordMap, -1);
+    mapToPackedDomain(cat, pack(allWords), ordMap);
+    assertArrayEquals(new int[]{-1, 8, 3, 6, 10}, ordMap); // ids start at 1
+  }
+
   private static byte[] merge(String[] s1, String[] s2) {
     return PackedDomains.merge(pack(s1), pack(s2));
   }
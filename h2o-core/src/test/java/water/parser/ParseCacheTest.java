@@ -0,0 +1,113 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ParseCacheTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testRepeatedParseIsAnsweredFromCache() throws Exception {
+    final boolean oldEnabled = ParseCache.ENABLED;
+    File f = File.createTempFile("parse_cache", ".csv");
+    Key<ParseCache.Entry> cacheKey1 = null, cacheKey2 = null;
+    Scope.enter();
+    try {
+      ParseCache.ENABLED = true;
+      write(f, "a,b\n1,x\n2,y\n3,z\n");
+
+      Key nfs = NFSFileVec.make(f)._key;
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{nfs}, false, ParseSetup.HAS_HEADER);
+      cacheKey1 = ParseCache.cacheKey(new Key[]{nfs}, ps);
+      assertNotNull(cacheKey1);
+      Frame first = ParseDataset.parse(Key.make("first.hex"), new Key[]{nfs}, true, ps);
+      Scope.track(first);
+      ParseCache.Entry entry = DKV.getGet(cacheKey1);
+      assertNotNull(entry);
+      assertEquals(first._key, entry._frame);
+
+      nfs = NFSFileVec.make(f)._key;
+      ps = ParseSetup.guessSetup(new Key[]{nfs}, false, ParseSetup.HAS_HEADER);
+      assertEquals(cacheKey1, ParseCache.cacheKey(new Key[]{nfs}, ps));
+      Frame second = ParseDataset.parse(Key.make("second.hex"), new Key[]{nfs}, true, ps);
+      Scope.track(second);
+      assertNull(DKV.get(nfs));                              // Input deleted as for a real parse
+      assertNotEquals(first.vec(0)._key, second.vec(0)._key); // A copy, not shared Vecs
+      assertFrameEquals(first, second, 0);
+
+      // Changed content is parsed again
+      write(f, "a,b\n1,x\n2,y\n3,z\n4,w\n");
+      assertTrue(f.setLastModified(f.lastModified() + 2000));
+      nfs = NFSFileVec.make(f)._key;
+      ps = ParseSetup.guessSetup(new Key[]{nfs}, false, ParseSetup.HAS_HEADER);
+      cacheKey2 = ParseCache.cacheKey(new Key[]{nfs}, ps);
+      assertNotEquals(cacheKey1, cacheKey2);
+      Frame third = ParseDataset.parse(Key.make("third.hex"), new Key[]{nfs}, true, ps);
+      Scope.track(third);
+      assertEquals(4, third.numRows());
+    } finally {
+      ParseCache.ENABLED = oldEnabled;
+      if (cacheKey1 != null) DKV.remove(cacheKey1);
+      if (cacheKey2 != null) DKV.remove(cacheKey2);
+      DKV.remove(ParseCache.INDEX);
+      Scope.exit();
+      assertTrue(f.delete());
+    }
+  }
+
+  @Test
+  public void testCacheIsBounded() {
+    final int oldMax = ParseCache.MAX_ENTRIES;
+    Key<ParseCache.Entry>[] cacheKeys = new Key[3];
+    Scope.enter();
+    try {
+      ParseCache.MAX_ENTRIES = 2;
+      Frame[] frames = new Frame[cacheKeys.length];
+      for (int i = 0; i < cacheKeys.length; i++) {
+        frames[i] = Scope.track(new TestFrameBuilder()
+            .withColNames("x")
+            .withVecTypes(Vec.T_NUM)
+            .withDataForCol(0, ard(i, i + 1))
+            .build());
+        cacheKeys[i] = Key.makeSystem("parse_cache_test_" + i);
+        ParseCache.register(cacheKeys[i], frames[i]._key);
+      }
+      assertNull("oldest entry evicted", DKV.get(cacheKeys[0]));
+      assertEquals(frames[1]._key, ParseCache.lookup(cacheKeys[1])._key);
+      assertEquals(frames[2]._key, ParseCache.lookup(cacheKeys[2])._key);
+
+      // An entry whose Frame is gone is dropped on lookup, and frees its slot
+      frames[2].delete();
+      assertNull(ParseCache.lookup(cacheKeys[2]));
+      assertNull(DKV.get(cacheKeys[2]));
+      ParseCache.Index index = DKV.getGet(ParseCache.INDEX);
+      assertArrayEquals(new Key[]{cacheKeys[1]}, index._entries);
+    } finally {
+      ParseCache.MAX_ENTRIES = oldMax;
+      for (Key k : cacheKeys)
+        if (k != null) DKV.remove(k);
+      DKV.remove(ParseCache.INDEX);
+      Scope.exit();
+    }
+  }
+
+  private static void write(File f, String data) throws Exception {
+    try (FileOutputStream os = new FileOutputStream(f)) {
+      os.write(data.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
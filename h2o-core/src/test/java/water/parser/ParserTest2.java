@@ -4,8 +4,10 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import water.DKV;
 import water.Key;
 import water.TestUtil;
+import water.Value;
 import water.fvec.FVecFactory;
 import water.fvec.Frame;
 import water.fvec.Vec;
@@ -307,6 +309,66 @@ public class ParserTest2 extends TestUtil {
     ParserTest.testParsed(ParseDataset.parse(Key.make(), k),exp,33);
   }
 
+  @Test public void testAppendParse() {
+    Frame fr = null;
+    try {
+      fr = ParseDataset.parse(Key.make("append_test.hex"), FVecFactory.makeByteVec("b,1\n", "a,2\n"));
+      Key[] oldKeys = fr.keys();
+      int nchunks = fr.anyVec().nChunks();
+
+      Key k = FVecFactory.makeByteVec("c,3\n", "a,4\n", ",5\n");
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{k}, false, ParseSetup.NO_HEADER);
+      fr = ParseDataset.appendParse(fr._key, new Key[]{k}, true, ps);
+
+      Assert.assertEquals(5, fr.numRows());
+      Assert.assertTrue(fr.anyVec().nChunks() > nchunks);
+      for (Key oldKey : oldKeys)
+        Assert.assertNull("unshared Vecs are replaced", DKV.get(oldKey));
+      Assert.assertArrayEquals(new String[]{"a", "b", "c"}, fr.vec(0).domain());
+      String[] levels = {"b", "a", "c", "a", null};
+      for (int i = 0; i < levels.length; i++) {
+        if (levels[i] == null) Assert.assertTrue(fr.vec(0).isNA(i));
+        else Assert.assertEquals(levels[i], fr.vec(0).factor(fr.vec(0).at8(i)));
+        Assert.assertEquals(i + 1, fr.vec(1).at8(i));
+      }
+      Assert.assertEquals(5, fr.vec(1).max(), 0);
+      Frame fr2 = DKV.getGet(fr._key);
+      Assert.assertEquals(5, fr2.numRows());
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testAppendParseToSharedVecs() {
+    Frame fr = null, other = null;
+    try {
+      fr = ParseDataset.parse(Key.make("append_shared.hex"), FVecFactory.makeByteVec("b,1\n", "a,2\n"));
+      other = new Frame(Key.<Frame>make("append_shared_copy.hex"), fr.names(), fr.vecs());
+      DKV.put(other);
+      Key firstChunk = fr.vec(0).chunkKey(0);
+      Value firstChunkValue = DKV.get(firstChunk);
+
+      Key k = FVecFactory.makeByteVec("c,3\n");
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{k}, false, ParseSetup.NO_HEADER);
+      fr = ParseDataset.appendParse(fr._key, new Key[]{k}, true, ps);
+
+      Assert.assertEquals(3, fr.numRows());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c"}, fr.vec(0).domain());
+      Assert.assertEquals(3, fr.vec(1).at8(2));
+      // The other Frame keeps its Vecs, rows and domains
+      other = DKV.getGet(other._key);
+      Assert.assertEquals(2, other.numRows());
+      Assert.assertArrayEquals(new String[]{"a", "b"}, other.vec(0).domain());
+      Assert.assertEquals(2, other.vec(1).max(), 0);
+      Assert.assertSame(firstChunkValue, DKV.get(firstChunk));
+      for (int i = 0; i < fr.numCols(); i++)
+        Assert.assertNotEquals(other.vec(i)._key, fr.vec(i)._key);
+    } finally {
+      if (other != null) other.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
   @Ignore
   public void testSpeedOfCategoricalUpdate() {
     Categorical cat = new Categorical();
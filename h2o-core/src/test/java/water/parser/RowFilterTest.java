@@ -0,0 +1,98 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RowFilterTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testParseExpression() {
+    RowFilter f = RowFilter.parse(" year>=2019 && `dep time` < 1.5e3 and carrier == 'AA' & x != \"b c\"");
+    assertArrayEquals(ar("year", "dep time", "carrier", "x"), f.columns());
+    assertEquals(RowFilter.Op.GE, f._preds[0]._op);
+    assertEquals(2019, f._preds[0]._num, 0);
+    assertEquals(RowFilter.Op.LT, f._preds[1]._op);
+    assertEquals(1500, f._preds[1]._num, 0);
+    assertEquals("AA", f._preds[2]._str);
+    assertEquals(RowFilter.Op.NE, f._preds[3]._op);
+    assertEquals("b c", f._preds[3]._str);
+
+    for (String bad : new String[]{"", "a", "a ==", "a = 1", "a == 1 b == 2", "a == 'x", "== 1"}) {
+      try {
+        RowFilter.parse(bad);
+        fail("Expected a failure for '" + bad + "'");
+      } catch (H2OIllegalArgumentException expected) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testSkipByStatistics() {
+    RowFilter f = RowFilter.parse("a >= 10 & b == 3");
+    assertFalse(f.canSkip(stats(new double[]{0, 10}, new double[]{1, 5})));
+    assertTrue(f.canSkip(stats(new double[]{0, 9.5}, new double[]{1, 5})));
+    assertTrue(f.canSkip(stats(new double[]{10, 20}, new double[]{4, 5})));
+    assertTrue(f.canSkip(stats(new double[]{10, 20}, new double[0])));  // b is all missing
+    assertFalse(f.canSkip(stats(null, null)));                           // unknown
+
+    assertTrue(RowFilter.parse("a != 1").canSkip(stats(new double[]{1, 1}, null)));
+    assertFalse(RowFilter.parse("a != 1").canSkip(stats(new double[]{1, 2}, null)));
+    assertFalse(RowFilter.parse("a == 'x'").canSkip(stats(new double[]{1, 2}, null)));
+  }
+
+  @Test
+  public void testMayMatchPartitionValues() {
+    RowFilter f = RowFilter.parse("year == 2019 & region == 'EU' & price > 10");
+    assertTrue(f.mayMatch(ar("year", "region"), ar("2019", "EU")));
+    assertFalse(f.mayMatch(ar("year", "region"), ar("2018", "EU")));
+    assertFalse(f.mayMatch(ar("year", "region"), ar("2019", "US")));
+    assertFalse(f.mayMatch(ar("year"), ar("unknown")));
+    assertTrue(f.mayMatch(ar("month"), ar("1")));
+  }
+
+  @Test
+  public void testParseWithRowFilter() throws Exception {
+    File f = File.createTempFile("row_filter", ".csv");
+    Scope.enter();
+    try {
+      try (FileOutputStream os = new FileOutputStream(f)) {
+        os.write("a,b,c\n1,x,foo\n2,y,bar\n3,x,\n4,z,baz\n,x,qux\n5,x,quux\n".getBytes(StandardCharsets.UTF_8));
+      }
+      Key nfs = NFSFileVec.make(f)._key;
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{nfs}, false, ParseSetup.HAS_HEADER);
+      ps.setRowFilter("a >= 2 & b == 'x'");
+      Frame fr = Scope.track(ParseDataset.parse(Key.<Frame>make("row_filter.hex"), new Key[]{nfs}, true, ps));
+      assertEquals(2, fr.numRows());
+      assertEquals(3, fr.vec("a").at8(0));
+      assertEquals(5, fr.vec("a").at8(1));
+      assertArrayEquals(ar("x", "y", "z"), fr.vec("b").domain());
+      assertTrue(fr.vec("b").isCategorical());
+      assertEquals(0, fr.vec("b").at8(0));
+    } finally {
+      Scope.exit();
+      assertTrue(f.delete());
+    }
+  }
+
+  private static RowFilter.Stats stats(final double[] a, final double[] b) {
+    return new RowFilter.Stats() {
+      @Override public double[] range(String column) {
+        return "a".equals(column) ? a : "b".equals(column) ? b : null;
+      }
+    };
+  }
+}
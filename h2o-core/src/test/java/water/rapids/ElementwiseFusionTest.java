@@ -0,0 +1,103 @@
+package water.rapids;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class ElementwiseFusionTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  private static Frame frame(String name, String[] cols, double[] c0, double[] c1) {
+    return new TestFrameBuilder()
+        .withName(name)
+        .withColNames(cols)
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+        .withDataForCol(0, c0)
+        .withDataForCol(1, c1)
+        .withChunkLayout(2, 3)
+        .build();
+  }
+
+  @Test
+  public void testFusedChainMatchesElementwise() {
+    Scope.enter();
+    try {
+      Frame a = Scope.track(frame("fusionA", ar("x", "y"), ard(1, 2, Double.NaN, 4, 5), ard(-1, 0, 1, 2, 3)));
+      Frame b = Scope.track(frame("fusionB", ar("u", "v"), ard(1, 10, 100, 0, 2), ard(3, 2, 1, Double.NaN, 5)));
+      Frame res = Scope.track(Rapids.exec("(- (+ (* fusionA 2) (log fusionB)) (sqrt 4))").getFrame());
+      assertArrayEquals(ar("x", "y"), res.names());
+      for (int c = 0; c < 2; c++)
+        for (int r = 0; r < 5; r++) {
+          double expected = (a.vec(c).at(r) * 2 + Math.log(b.vec(c).at(r))) - 2;
+          assertEquals(expected, res.vec(c).at(r), 0);
+        }
+
+      Frame uni = Scope.track(Rapids.exec("(abs (- 1 fusionB))").getFrame());
+      assertArrayEquals(ar("abs(u)", "abs(v)"), uni.names());
+      assertEquals(99, uni.vec(0).at(2), 0);
+      assertTrue(uni.vec(1).isNA(3));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testNotFusableOperandsFallBack() {
+    Scope.enter();
+    try {
+      Scope.track(new TestFrameBuilder()
+          .withName("fusionC")
+          .withColNames("num", "cat")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT)
+          .withDataForCol(0, ard(1, 2, 3))
+          .withDataForCol(1, ar("a", "b", "a"))
+          .build());
+      Frame res = Scope.track(Rapids.exec("(+ (* fusionC 2) 1)").getFrame());
+      assertEquals(5, res.vec(0).at(1), 0);
+      assertTrue("categoricals are turned into NAs as without fusion", res.vec(1).isNA(0));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testPipelineReduce() {
+    Scope.enter();
+    try {
+      Frame a = Scope.track(frame("fusionR", ar("x", "y"), ard(1, 2, 3, 4, 5), ard(1, 1, 1, 1, 1)));
+      FusedPipeline p = new FusedPipeline(1);
+      p.add(new Square(), 0);
+      SumReducer sums = p.reduce(a, new SumReducer(2));
+      assertArrayEquals(ard(55, 5), sums._sums, 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static class Square extends FusedPipeline.Stage {
+    @Override protected void map(double[][] args, double[] out, int len) {
+      for (int i = 0; i < len; i++) out[i] = args[0][i] * args[0][i];
+    }
+  }
+
+  private static class SumReducer extends FusedPipeline.Reducer<SumReducer> {
+    final double[] _sums;
+    SumReducer(int lanes) { _sums = new double[lanes]; }
+
+    @Override protected void map(int lane, double[] values, int len) {
+      for (int i = 0; i < len; i++) _sums[lane] += values[i];
+    }
+
+    @Override protected void reduce(SumReducer that) {
+      for (int i = 0; i < _sums.length; i++) _sums[i] += that._sums[i];
+    }
+  }
+}
@@ -12,6 +12,7 @@ import water.util.ArrayUtils;
 import java.io.IOException;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SortTest extends TestUtil {
@@ -230,6 +231,30 @@ public class SortTest extends TestUtil {
   }
 
 
+  @Test public void testSortIntegersWithNAs() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+          .withColNames("x")
+          .withVecTypes(Vec.T_NUM)
+          .withDataForCol(0, ard(7, Double.NaN, -3, 100000, 5, Double.NaN, -3, 2))
+          .withChunkLayout(3, 3, 2)
+          .build());
+      Frame sorted = Scope.track(fr.sort(new int[]{0}));
+      Vec v = sorted.vec(0);
+      assertEquals(2, v.naCnt());
+      double prev = Double.NEGATIVE_INFINITY;
+      for( long r = 0; r < v.length(); r++ ) {
+        if( v.isNA(r) ) continue;
+        assertTrue(v.at(r) >= prev);
+        prev = v.at(r);
+      }
+      assertEquals(100000, prev, 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test public void testSortOverflows2() throws IOException {
     Scope.enter();
     Frame fr, sorted1, sorted2;
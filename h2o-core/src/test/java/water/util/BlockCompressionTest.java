@@ -0,0 +1,80 @@
+package water.util;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BlockCompressionTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static byte[] compressible(int len) {
+    byte[] b = new byte[len];
+    for (int i = 0; i < len; i++) b[i] = (byte) ((i / 100) % 7);
+    return b;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    BlockCompression.Codec old = BlockCompression.CODEC;
+    try {
+      BlockCompression.CODEC = new BlockCompression.DeflateCodec();
+      byte[] raw = compressible(3 * BlockCompression.BLOCK_SIZE + 17);
+      byte[] z = BlockCompression.compress(raw);
+      assertNotNull(z);
+      assertTrue(BlockCompression.isCompressed(z));
+      assertTrue(z.length < raw.length / 10);
+      assertEquals(raw.length, BlockCompression.rawLength(z));
+      assertArrayEquals(raw, BlockCompression.decompress(z));
+    } finally {
+      BlockCompression.CODEC = old;
+    }
+  }
+
+  @Test
+  public void testIncompressibleBlocksAreStoredRaw() {
+    BlockCompression.Codec old = BlockCompression.CODEC;
+    try {
+      BlockCompression.CODEC = new BlockCompression.DeflateCodec();
+      int bsz = BlockCompression.BLOCK_SIZE;
+      // First block compresses well, the second one is noise
+      byte[] raw = compressible(4 * bsz);
+      byte[] noise = new byte[bsz];
+      new Random(0xDECAFL).nextBytes(noise);
+      System.arraycopy(noise, 0, raw, bsz, bsz);
+      byte[] z = BlockCompression.compress(raw);
+      assertNotNull(z);
+      assertTrue(z.length > bsz);
+      assertArrayEquals(raw, BlockCompression.decompress(z));
+
+      // Nothing to gain: keep the raw bytes
+      byte[] rnd = new byte[2 * bsz];
+      new Random(0xC0FFEEL).nextBytes(rnd);
+      assertNull(BlockCompression.compress(rnd));
+    } finally {
+      BlockCompression.CODEC = old;
+    }
+  }
+
+  @Test
+  public void testDisabledOrSmall() {
+    BlockCompression.Codec old = BlockCompression.CODEC;
+    try {
+      BlockCompression.CODEC = null;
+      assertNull(BlockCompression.compress(compressible(1 << 20)));
+      BlockCompression.CODEC = new BlockCompression.DeflateCodec();
+      assertNull(BlockCompression.compress(compressible(BlockCompression.MIN_SIZE - 1)));
+      assertNull(BlockCompression.compress(null));
+    } finally {
+      BlockCompression.CODEC = old;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownCodec() {
+    BlockCompression.makeCodec("no.such.Codec");
+  }
+}
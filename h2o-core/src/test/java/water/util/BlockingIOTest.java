@@ -0,0 +1,49 @@
+package water.util;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.TestUtil;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class BlockingIOTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testRunsDirectlyOutsideFJ() {
+    final Thread caller = Thread.currentThread();
+    Thread t = BlockingIO.call(Thread::currentThread);
+    assertSame(caller, t);
+  }
+
+  @Test
+  public void testOffloadsFromFJWorker() {
+    IOTask task = new IOTask();
+    H2O.submitTask(task).join();
+    assertNotNull(task._worker);
+    assertTrue("I/O runs off the F/J worker", task._worker != task._io);
+    assertEquals(42, task._res);
+    assertTrue(task._ex instanceof IOException);
+    assertEquals("boom", task._ex.getMessage());
+  }
+
+  private static class IOTask extends H2O.H2OCountedCompleter<IOTask> {
+    transient Thread _worker, _io;
+    transient int _res;
+    transient Exception _ex;
+
+    @Override public void compute2() {
+      _worker = Thread.currentThread();
+      try {
+        _res = BlockingIO.call(() -> { _io = Thread.currentThread(); return 42; });
+        BlockingIO.call(() -> { throw new IOException("boom"); });
+      } catch (IOException e) {
+        _ex = e;
+      }
+      tryComplete();
+    }
+  }
+}
@@ -324,6 +324,61 @@ public abstract class GenModel implements IGenModel, IGeneratedModel, Serializab
     throw new UnsupportedOperationException("`offset` column is not supported");
   }
 
+  /** Number of rows the specialized batch scorers work on at a time. */
+  protected static final int BATCH_BLOCK_ROWS = 256;
+
+  /**
+   * Scores a batch of rows given column by column: {@code data[c][r]} is the value of feature {@code c}
+   * (in the order of {@link #getNames()}, categoricals as domain indices, NaN for missing) of row {@code r}.
+   * The result is the same as calling {@link #score0(double[], double[])} on every row, but models
+   * can score the whole batch at once and avoid the per-row overhead. The input arrays are not modified.
+   *
+   * @param data column-major input, at least {@link #nfeatures()} columns of at least nrows values
+   * @param nrows number of rows to score
+   * @param preds re-used output, {@code preds[r]} receives the predictions of row {@code r};
+   *              may be null, or contain null rows, which are allocated as needed
+   * @return the output matrix
+   * @throws UnsupportedOperationException if the model was trained with an offset column, the batch
+   *         does not carry the offsets
+   */
+  public double[][] scoreBatch(double[][] data, int nrows, double[][] preds) {
+    checkBatch(data, nrows);
+    preds = makeBatchPreds(nrows, preds);
+    double[] row = new double[nfeatures()];
+    for (int r = 0; r < nrows; r++) {
+      gatherRow(data, r, row);
+      score0(row, preds[r]);
+    }
+    return preds;
+  }
+
+  protected final void checkBatch(double[][] data, int nrows) {
+    if (requiresOffset() || _offsetColumn != null)
+      throw new UnsupportedOperationException("Batch scoring does not support models with an `offset` column");
+    if (nrows < 0)
+      throw new IllegalArgumentException("Number of rows cannot be negative: " + nrows);
+    if (data.length < nfeatures())
+      throw new IllegalArgumentException("Expected " + nfeatures() + " columns, got " + data.length);
+    for (int c = 0; c < nfeatures(); c++)
+      if (data[c].length < nrows)
+        throw new IllegalArgumentException("Column " + c + " has only " + data[c].length + " values, expected " + nrows);
+  }
+
+  protected final double[][] makeBatchPreds(int nrows, double[][] preds) {
+    if (preds == null || preds.length < nrows)
+      preds = preds == null ? new double[nrows][] : Arrays.copyOf(preds, nrows);
+    final int len = getPredsSize(getModelCategory());
+    for (int r = 0; r < nrows; r++)
+      if (preds[r] == null) preds[r] = new double[len];
+    return preds;
+  }
+
+  /** Copies row r of the column-major batch into the given row array. */
+  protected static void gatherRow(double[][] data, int r, double[] row) {
+    for (int c = 0; c < row.length; c++)
+      row[c] = data[c][r];
+  }
+
   /** Subclasses implement calibration of class probabilities. The input is array of
    *  predictions returned by the scoring function (score0). Supports classification
    *  models that were trained with calibration enabled. Original probabilities
@@ -77,6 +77,37 @@ public class DeeplearningMojoModel extends MojoModel {
     return modifyOutputs(neuronsInput, preds, dataRow);
   }
 
+  /**
+   * Propagates blocks of rows through the network layer by layer, so that the weights of a layer
+   * are read once per block rather than once per row. Same result as {@link #score0(double[], double[])}.
+   */
+  @Override
+  public double[][] scoreBatch(double[][] data, int nrows, double[][] preds) {
+    checkBatch(data, nrows);
+    preds = makeBatchPreds(nrows, preds);
+    final int block = Math.min(nrows, BATCH_BLOCK_ROWS);
+    final double[][] rows = new double[block][nfeatures()];
+    double[][] inputs = new double[block][_units[0]];
+    final double[] numsA = new double[_nums];
+    final int[] catsA = new int[_cats];
+    for (int from = 0; from < nrows; from += block) {
+      final int n = Math.min(block, nrows - from);
+      for (int r = 0; r < n; r++) {
+        gatherRow(data, from + r, rows[r]);
+        setInput(rows[r], inputs[r], numsA, catsA, _nums, _cats, _catoffsets, _normmul, _normsub, _use_all_factor_levels, true);
+      }
+      double[][] neurons = inputs;
+      for (int layer = 0; layer < _numLayers; layer++) {
+        NeuralNetwork oneLayer = new NeuralNetwork(_allActivations[layer], _all_drop_out_ratios[layer],
+                _weightsAndBias[layer], neurons[0], _units[layer + 1]);
+        neurons = oneLayer.fpropBatch(neurons, n);
+      }
+      for (int r = 0; r < n; r++)
+        modifyOutputs(neurons[r], preds[from + r], rows[r]);
+    }
+    return preds;
+  }
+
   public double[] modifyOutputs(double[] out, double[] preds, double[] dataRow) {
     if (this.isAutoEncoder()) { // only perform unscale numerical value if need
       if (_normmul != null && _normmul.length > 0) { // undo the standardization on output
@@ -45,36 +45,81 @@ public class NeuralNetwork {  // represent one layer of neural network
   public double[] formNNInputs() {
     double[] input2ActFun = new double[_outSize];
     int cols = _inputs.length;
-    int rows = input2ActFun.length;
-    int extra=cols-cols%8;
-    int multiple = (cols/8)*8-1;
     int idx = 0;
-    for (int row = 0; row < rows; row++) {
-      double psum0 = 0, psum1 = 0, psum2 = 0, psum3 = 0, psum4 = 0, psum5 = 0, psum6 = 0, psum7 = 0;
-
-      for (int col=0; col < multiple; col+=8) {
-        int off=idx+col;
-        psum0 += _weightsAndBias._wValues[off    ] * _inputs[col    ];
-        psum1 += _weightsAndBias._wValues[off + 1] * _inputs[col + 1];
-        psum2 += _weightsAndBias._wValues[off + 2] * _inputs[col + 2];
-        psum3 += _weightsAndBias._wValues[off + 3] * _inputs[col + 3];
-        psum4 += _weightsAndBias._wValues[off + 4] * _inputs[col + 4];
-        psum5 += _weightsAndBias._wValues[off + 5] * _inputs[col + 5];
-        psum6 += _weightsAndBias._wValues[off + 6] * _inputs[col + 6];
-        psum7 += _weightsAndBias._wValues[off + 7] * _inputs[col + 7];
-      }
-      input2ActFun[row] += psum0+psum1+psum2+psum3;
-      input2ActFun[row] += psum4+psum5+psum6+psum7;
+    for (int row = 0; row < input2ActFun.length; row++) {
+      input2ActFun[row] = gemvRow(_weightsAndBias._wValues, idx, _inputs, cols, _weightsAndBias._bValues[row]);
+      idx += cols;
+    }
+    return input2ActFun;
+  }
 
-      for (int col = extra; col<cols;col++) {
-        input2ActFun[row] += _weightsAndBias._wValues[idx+col]*_inputs[col];
+  /**
+   * Forward propagates a batch of n input rows through this layer; {@link #_inputs} only gives the
+   * input size.  Outputs are bit for bit those of {@link #fprop1Layer()} for every row.
+   */
+  public double[][] fpropBatch(double[][] inputs, int n) {
+    ActivationFunctions createActivations = createActFuns(_activation);
+    double[][] outputs = new double[n][];
+    if (_maxK == 1) {
+      double[][] input2ActFun = formNNInputs(inputs, n);
+      for (int r = 0; r < n; r++)
+        outputs[r] = createActivations.eval(input2ActFun[r], _drop_out_ratio, _maxK);
+    } else {
+      for (int r = 0; r < n; r++) {
+        _inputs = inputs[r];
+        outputs[r] = createActivations.eval(formNNInputsMaxOut(), _drop_out_ratio, _maxK);
       }
-      input2ActFun[row] += _weightsAndBias._bValues[row];
+    }
+    return outputs;
+  }
+
+  /*
+  Same sums as formNNInputs, but each row of the weight matrix is applied to all the inputs of the
+  batch before moving to the next one
+   */
+  double[][] formNNInputs(double[][] inputs, int n) {
+    double[][] input2ActFun = new double[n][_outSize];
+    int cols = _inSize;
+    int idx = 0;
+    for (int row = 0; row < _outSize; row++) {
+      final double bias = _weightsAndBias._bValues[row];
+      for (int r = 0; r < n; r++)
+        input2ActFun[r][row] = gemvRow(_weightsAndBias._wValues, idx, inputs[r], cols, bias);
       idx += cols;
     }
     return input2ActFun;
   }
 
+  /*
+  One row of gemv_row_optimized: the weights w[idx..idx+cols) times the inputs, plus the bias
+   */
+  private static double gemvRow(float[] w, int idx, double[] inputs, int cols, double bias) {
+    int extra=cols-cols%8;
+    int multiple = (cols/8)*8-1;
+    double psum0 = 0, psum1 = 0, psum2 = 0, psum3 = 0, psum4 = 0, psum5 = 0, psum6 = 0, psum7 = 0;
+
+    for (int col=0; col < multiple; col+=8) {
+      int off=idx+col;
+      psum0 += w[off    ] * inputs[col    ];
+      psum1 += w[off + 1] * inputs[col + 1];
+      psum2 += w[off + 2] * inputs[col + 2];
+      psum3 += w[off + 3] * inputs[col + 3];
+      psum4 += w[off + 4] * inputs[col + 4];
+      psum5 += w[off + 5] * inputs[col + 5];
+      psum6 += w[off + 6] * inputs[col + 6];
+      psum7 += w[off + 7] * inputs[col + 7];
+    }
+    double sum = 0;
+    sum += psum0+psum1+psum2+psum3;
+    sum += psum4+psum5+psum6+psum7;
+
+    for (int col = extra; col<cols;col++) {
+      sum += w[idx+col]*inputs[col];
+    }
+    sum += bias;
+    return sum;
+  }
+
   public double[] formNNInputsMaxOut() {
     double[] input2ActFun = new double[_outSize*_maxK];
 
@@ -0,0 +1,238 @@
+package hex.genmodel.algos.tree;
+
+import hex.genmodel.utils.ByteBufferWrapper;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A decoded, array-based copy of one compressed tree (the current, "version 2"
+ * format scored by {@link SharedTreeMojoModel#scoreTree}).  Nodes are laid out
+ * as a struct-of-arrays with resolved child indices, so scoring a row is a
+ * plain walk over int/float arrays with no varint or bitset header decoding.
+ *
+ * Scoring is bit-for-bit the same as {@link SharedTreeMojoModel#scoreTree} with
+ * {@code computeLeafAssignment == false}; bitsets are read in place from the
+ * compressed tree.
+ */
+final class FlatTree implements Serializable {
+
+  private static final int LEAF = -1;
+
+  private static final int LEFT = 0;
+  private static final int RIGHT = 1;
+
+  private static final byte NA_LEFT = 1;     // Missing/unseen values go left
+  private static final byte NA_VS_REST = 2;  // Only NAs go right
+  private static final byte GROUP = 4;       // Group (bitset) split, i.e. "equal" != 0
+  private static final byte HAS_BITSET = 8;  // A bitset is in effect (possibly inherited from an ancestor)
+
+  // Per node
+  private int[] _col;       // Split column, or LEAF
+  private float[] _val;     // Split value, or the prediction of a leaf
+  private int[] _left;
+  private int[] _right;
+  private byte[] _flags;
+  private int[] _domLen;    // Domain length of the split column; Integer.MAX_VALUE if not categorical
+  private int[] _bsByteOff; // Bitset of the node, see GenmodelBitSet
+  private int[] _bsBitOff;
+  private int[] _bsNBits;
+  private int _n;
+
+  private final byte[] _tree; // Backing store of the bitsets
+
+  private FlatTree(byte[] tree) {
+    _tree = tree;
+    int cap = 16;
+    _col = new int[cap];
+    _val = new float[cap];
+    _left = new int[cap];
+    _right = new int[cap];
+    _flags = new byte[cap];
+    _domLen = new int[cap];
+    _bsByteOff = new int[cap];
+    _bsBitOff = new int[cap];
+    _bsNBits = new int[cap];
+  }
+
+  static FlatTree make(byte[] tree, String[][] domains) {
+    FlatTree ft = new FlatTree(tree);
+    ft.decode(new ByteBufferWrapper(tree), domains);
+    ft.trim();
+    return ft;
+  }
+
+  int numNodes() { return _n; }
+
+  double score(double[] row) {
+    int n = 0;
+    while (true) {
+      final int col = _col[n];
+      if (col == LEAF)
+        return _val[n];
+      final double d = row[col];
+      final byte flags = _flags[n];
+      final boolean group = (flags & GROUP) != 0;
+      final boolean right;
+      if (Double.isNaN(d) || (group && (flags & HAS_BITSET) != 0 && !inRange(n, (int) d)) || _domLen[n] <= (int) d)
+        right = (flags & NA_LEFT) == 0;
+      else
+        right = (flags & NA_VS_REST) == 0 && (group ? contains(n, (int) d) : d >= _val[n]);
+      n = right ? _right[n] : _left[n];
+    }
+  }
+
+  private boolean inRange(int n, int b) {
+    b -= _bsBitOff[n];
+    return b >= 0 && b < _bsNBits[n];
+  }
+
+  private boolean contains(int n, int idx) {
+    idx -= _bsBitOff[n];
+    return (_tree[_bsByteOff[n] + (idx >> 3)] & ((byte) 1 << (idx & 7))) != 0;
+  }
+
+  // Decode the nodes depth-first, with an explicit stack of the subtrees still
+  // to visit so that very deep trees cannot overflow the call stack.  Each
+  // pending subtree is a (position, bitset, parent, side) tuple.  The scorer
+  // keeps the last bitset it filled, so a group split without its own bitset
+  // (NA vs REST) checks the range of the nearest ancestor's; "bitset" is the
+  // index of that ancestor, or -1.
+  private void decode(ByteBufferWrapper ab, String[][] domains) {
+    int[] stack = new int[64];
+    int sp = push(stack, 0, 0, -1, -1, LEFT);
+    while (sp > 0) {
+      final int side = stack[--sp];
+      final int parent = stack[--sp];
+      int bs = stack[--sp];
+      ab.skip(stack[--sp] - ab.position());
+
+      final int nodeType = ab.get1U();
+      final int colId = ab.get2();
+      if (colId == 65535) {
+        link(parent, side, leaf(ab.get4f()));
+        continue;
+      }
+      final int n = alloc();
+      link(parent, side, n);
+      final int naSplitDir = ab.get1U();
+      final boolean naVsRest = naSplitDir == NaSplitDir.NAvsREST.value();
+      final boolean leftward = naSplitDir == NaSplitDir.NALeft.value() || naSplitDir == NaSplitDir.Left.value();
+      final int lmask = nodeType & 51;
+      final int equal = nodeType & 12;
+      assert equal != 4;
+      byte flags = 0;
+      if (leftward) flags |= NA_LEFT;
+      if (naVsRest) flags |= NA_VS_REST;
+      if (equal != 0) flags |= GROUP;
+      _col[n] = colId;
+      _val[n] = -1;
+      if (!naVsRest) {
+        if (equal == 0) {
+          _val[n] = ab.get4f();
+        } else {
+          if (equal == 8) {       // Inline 32 bit set, see GenmodelBitSet.fill2
+            _bsBitOff[n] = 0;
+            _bsNBits[n] = 32;
+            _bsByteOff[n] = ab.position();
+            ab.skip(4);
+          } else {                // See GenmodelBitSet.fill3
+            _bsBitOff[n] = ab.get2();
+            _bsNBits[n] = ab.get4();
+            _bsByteOff[n] = ab.position();
+            ab.skip(((_bsNBits[n] - 1) >> 3) + 1);
+          }
+          bs = n;
+        }
+      }
+      if (bs != -1) {
+        flags |= HAS_BITSET;
+        _bsBitOff[n] = _bsBitOff[bs];
+        _bsNBits[n] = _bsNBits[bs];
+        _bsByteOff[n] = _bsByteOff[bs];
+      }
+      _flags[n] = flags;
+      _domLen[n] = domains != null && domains[colId] != null ? domains[colId].length : Integer.MAX_VALUE;
+
+      // Left subtree: either an inline prediction, or a size-prefixed subtree
+      int leftPos = -1;
+      int rightPos;
+      if ((lmask & 16) != 0) {
+        _left[n] = leaf(ab.get4f());
+        rightPos = ab.position();
+      } else {
+        int size;
+        switch (lmask) {
+          case 0:  size = ab.get1U(); break;
+          case 1:  size = ab.get2(); break;
+          case 2:  size = ab.get3(); break;
+          case 3:  size = ab.get4(); break;
+          default: throw new IllegalStateException("illegal lmask value " + lmask + " in tree " + Arrays.toString(_tree));
+        }
+        leftPos = ab.position();
+        rightPos = leftPos + size;
+      }
+      // Right subtree: an inline prediction if the right-leaf bit is set
+      if ((nodeType & 64) != 0) {
+        ab.skip(rightPos - ab.position());
+        _right[n] = leaf(ab.get4f());
+      } else {
+        if (sp + 8 > stack.length) stack = Arrays.copyOf(stack, stack.length << 1);
+        sp = push(stack, sp, rightPos, bs, n, RIGHT);
+      }
+      if (leftPos != -1) {      // Pushed last, so decoded first
+        if (sp + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length << 1);
+        sp = push(stack, sp, leftPos, bs, n, LEFT);
+      }
+    }
+  }
+
+  private static int push(int[] stack, int sp, int pos, int bs, int parent, int side) {
+    stack[sp++] = pos;
+    stack[sp++] = bs;
+    stack[sp++] = parent;
+    stack[sp++] = side;
+    return sp;
+  }
+
+  private void link(int parent, int side, int n) {
+    if (parent == -1) return;  // The root
+    if (side == LEFT) _left[parent] = n;
+    else _right[parent] = n;
+  }
+
+  private int leaf(float pred) {
+    int n = alloc();
+    _col[n] = LEAF;
+    _val[n] = pred;
+    return n;
+  }
+
+  private int alloc() {
+    if (_n == _col.length) {
+      int cap = _n << 1;
+      _col = Arrays.copyOf(_col, cap);
+      _val = Arrays.copyOf(_val, cap);
+      _left = Arrays.copyOf(_left, cap);
+      _right = Arrays.copyOf(_right, cap);
+      _flags = Arrays.copyOf(_flags, cap);
+      _domLen = Arrays.copyOf(_domLen, cap);
+      _bsByteOff = Arrays.copyOf(_bsByteOff, cap);
+      _bsBitOff = Arrays.copyOf(_bsBitOff, cap);
+      _bsNBits = Arrays.copyOf(_bsNBits, cap);
+    }
+    return _n++;
+  }
+
+  private void trim() {
+    _col = Arrays.copyOf(_col, _n);
+    _val = Arrays.copyOf(_val, _n);
+    _left = Arrays.copyOf(_left, _n);
+    _right = Arrays.copyOf(_right, _n);
+    _flags = Arrays.copyOf(_flags, _n);
+    _domLen = Arrays.copyOf(_domLen, _n);
+    _bsByteOff = Arrays.copyOf(_bsByteOff, _n);
+    _bsBitOff = Arrays.copyOf(_bsBitOff, _n);
+    _bsNBits = Arrays.copyOf(_bsNBits, _n);
+  }
+}
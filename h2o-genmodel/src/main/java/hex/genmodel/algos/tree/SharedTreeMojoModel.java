@@ -25,6 +25,11 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
     private static final int NsdLeft = NaSplitDir.Left.value();
 
     private ScoreTree _scoreTree;
+
+    /**
+     * Decoded copies of {@link #_compressed_trees} used for scoring, see {@link #flattenTrees()}; null if not enabled.
+     */
+    private volatile FlatTree[] _flat_trees;
     
     private static Logger logger = LoggerFactory.getLogger(SharedTreeMojoModel.class);
 
@@ -75,6 +80,35 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
         _scoreTree = new ScoreTree1(); // Second version
       } else
         _scoreTree = new ScoreTree2(); // Current version
+      if (Boolean.getBoolean(FLATTEN_TREES_PROPERTY))
+        flattenTrees();
+    }
+
+    /**
+     * System property which turns on {@link #flattenTrees()} for every tree MOJO loaded.
+     */
+    public static final String FLATTEN_TREES_PROPERTY = "sys.ai.h2o.genmodel.flattenTrees";
+
+    /**
+     * Decodes all trees into a flat array-based node layout (with resolved child
+     * offsets and split values) and uses it for scoring from then on.  This trades
+     * some extra memory (roughly 40 bytes per node) for skipping the decoding of the
+     * compressed tree format on every row; predictions stay exactly the same.
+     *
+     * @return true if scoring now uses the flat trees; false for MOJOs older than
+     * version 1.2, whose tree format is not supported
+     */
+    public final boolean flattenTrees() {
+      if (!(_scoreTree instanceof ScoreTree2))
+        return false;
+      if (_flat_trees == null) {
+        FlatTree[] flat = new FlatTree[_compressed_trees.length];
+        for (int i = 0; i < flat.length; i++)
+          if (_compressed_trees[i] != null)
+            flat[i] = FlatTree.make(_compressed_trees[i], _domains);
+        _flat_trees = flat;
+      }
+      return true;
     }
 
     @Override
@@ -793,6 +827,11 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
      */
     public final void scoreTreeRange(double[] row, int fromIndex, int toIndex, double[] preds) {
         final int clOffset = _nclasses == 1 ? 0 : 1;
+        final FlatTree[] flatTrees = _flat_trees;
+        if (flatTrees != null) {
+          scoreFlatTreeRange(flatTrees, row, fromIndex, toIndex, preds, clOffset);
+          return;
+        }
         for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
             int k = clOffset + classIndex;
             int itree = treeIndex(fromIndex, classIndex);
@@ -805,6 +844,60 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
         }
     }
 
+    private void scoreFlatTreeRange(FlatTree[] flatTrees, double[] row, int fromIndex, int toIndex, double[] preds, int clOffset) {
+        for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
+            int k = clOffset + classIndex;
+            int itree = treeIndex(fromIndex, classIndex);
+            for (int groupIndex = fromIndex; groupIndex < toIndex; groupIndex++) {
+                FlatTree tree = flatTrees[itree++];
+                if (tree != null) // Skip all empty trees
+                  preds[k] += tree.score(row);
+            }
+        }
+    }
+
+    /**
+     * Scores the batch tree by tree: each tree is walked for a block of rows before moving on to the
+     * next one, so the tree stays in cache. The per-row sums are accumulated in the same order as
+     * {@link #score0(double[], double[])} does, the predictions are identical.
+     */
+    @Override
+    public double[][] scoreBatch(double[][] data, int nrows, double[][] preds) {
+        checkBatch(data, nrows);
+        preds = makeBatchPreds(nrows, preds);
+        final int clOffset = _nclasses == 1 ? 0 : 1;
+        final FlatTree[] flatTrees = _flat_trees;
+        final double[][] rows = new double[Math.min(nrows, BATCH_BLOCK_ROWS)][nfeatures()];
+        for (int from = 0; from < nrows; from += BATCH_BLOCK_ROWS) {
+            final int n = Math.min(BATCH_BLOCK_ROWS, nrows - from);
+            for (int r = 0; r < n; r++) {
+                gatherRow(data, from + r, rows[r]);
+                Arrays.fill(preds[from + r], 0);
+            }
+            for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
+                int k = clOffset + classIndex;
+                int itree = treeIndex(0, classIndex);
+                for (int groupIndex = 0; groupIndex < _ntree_groups; groupIndex++) {
+                    if (flatTrees != null) {
+                        FlatTree tree = flatTrees[itree];
+                        if (tree != null)
+                            for (int r = 0; r < n; r++)
+                                preds[from + r][k] += tree.score(rows[r]);
+                    } else {
+                        byte[] tree = _compressed_trees[itree];
+                        if (tree != null)
+                            for (int r = 0; r < n; r++)
+                                preds[from + r][k] += _scoreTree.scoreTree(tree, rows[r], false, _domains);
+                    }
+                    itree++;
+                }
+            }
+            for (int r = 0; r < n; r++)
+                unifyPreds(rows[r], 0, preds[from + r]);
+        }
+        return preds;
+    }
+
     // note that _ntree_group = _treekeys.length
     // ntrees_per_group = _treeKeys[0].length
     public String[] getDecisionPathNames() {
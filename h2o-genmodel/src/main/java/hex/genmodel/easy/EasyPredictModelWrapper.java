@@ -381,6 +381,18 @@ public class EasyPredictModelWrapper implements Serializable {
     return rowDataConverter.getErrorConsumer();
   }
 
+  /**
+   * Creates a session for making many predictions with reused input and output buffers,
+   * see {@link PredictorSession}.  The session must only be used by a single thread at a time.
+   * @return new session
+   */
+  public PredictorSession newSession() {
+    if (enableLeafAssignment || enableStagedProbabilities || enableContributions)
+      throw new IllegalStateException(
+              "Leaf node assignment, staged probabilities and contributions are not supported by a PredictorSession.");
+    return new PredictorSession(this, rowDataConverter);
+  }
+
   /**
    * Returns names of contributions for prediction results with constributions enabled. 
    * @return array of contribution names (array has same lenght as the actual contributions, last is BiasTerm)
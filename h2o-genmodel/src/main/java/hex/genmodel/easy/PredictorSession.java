@@ -0,0 +1,215 @@
+package hex.genmodel.easy;
+
+import hex.ModelCategory;
+import hex.genmodel.GenModel;
+import hex.genmodel.easy.exception.PredictException;
+import hex.genmodel.easy.prediction.BinomialModelPrediction;
+import hex.genmodel.easy.prediction.MultinomialModelPrediction;
+import hex.genmodel.easy.prediction.RegressionModelPrediction;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+/**
+ * A reusable way of making predictions with an {@link EasyPredictModelWrapper}.
+ *
+ * A session owns the buffers of one prediction (the raw input row and the model output) and re-uses them for
+ * every call, the results are written into prediction objects owned by the caller.  Column names are resolved
+ * to column handles once, up front:
+ *
+ *     PredictorSession session = model.newSession();
+ *     int age = session.column("AGE");
+ *     int race = session.column("RACE");
+ *     BinomialModelPrediction p = new BinomialModelPrediction();
+ *     for (...) {
+ *       session.setValue(age, 68).setValue(race, "White");
+ *       session.predictBinomial(p);
+ *     }
+ *
+ * Once a prediction is made, the session is ready for the next row: all the values are reset to missing.
+ * Rows given as {@link RowData} are accepted too, they are converted into the re-used buffers.
+ *
+ * The session itself does not allocate per prediction, but scoring may: tree models walking their compressed
+ * trees allocate a small buffer per tree (see {@link hex.genmodel.algos.tree.SharedTreeMojoModel#flattenTrees()}
+ * for a layout which does not), and GAM models expand their spline columns into a new row.
+ *
+ * A session is not thread-safe, use one per thread.  Advanced outputs of the wrapper (leaf node assignment,
+ * staged probabilities, contributions) are not supported.
+ */
+public final class PredictorSession {
+
+  private final GenModel _m;
+  private final RowToRawDataConverter _converter;
+  private final EnumSet<ModelCategory> _categories;
+  private final boolean _useColumnHandles;
+
+  private final double[] _rawData;
+  private double[] _row;  // _rawData, or the row derived from it by the converter (eg. GAM)
+  private final EnumMap<ModelCategory, double[]> _preds;
+  private final String[] _responseDomain;
+
+  // Column handles, see column()
+  private String[] _names = new String[0];
+  private int[] _indices = new int[0];
+  private CategoricalEncoder[] _encoders = new CategoricalEncoder[0];
+
+  PredictorSession(EasyPredictModelWrapper wrapper, RowToRawDataConverter converter) {
+    _m = wrapper.m;
+    _converter = converter;
+    _categories = _m.getModelCategories();
+    // Models with their own conversion (eg. GAM) derive raw values from several input columns
+    _useColumnHandles = converter.getClass() == RowToRawDataConverter.class;
+    _rawData = new double[_m.nfeatures()];
+    Arrays.fill(_rawData, Double.NaN);
+    _row = _rawData;
+    _preds = new EnumMap<>(ModelCategory.class);
+    for (ModelCategory c : _categories)
+      _preds.put(c, new double[_m.getPredsSize(c)]);
+    String[] domain = _m.isClassifier() ? _m.getDomainValues(_m.getResponseIdx()) : null;
+    if (domain == null && _m.getNumResponseClasses() == 2)
+      domain = new String[]{"0", "1"}; // quasibinomial
+    _responseDomain = domain;
+  }
+
+  /**
+   * Resolves a column name into a handle used to set the values of the column.
+   *
+   * @param name name of a model column
+   * @return column handle
+   * @throws PredictException if the model doesn't use the column
+   */
+  public int column(String name) throws PredictException {
+    if (!_useColumnHandles)
+      throw new UnsupportedOperationException("Model " + _m.getClass().getSimpleName() + " only accepts RowData input.");
+    for (int i = 0; i < _names.length; i++)
+      if (_names[i].equals(name)) return i;
+    Integer index = _converter.columnIndex(name);
+    if (index == null || index >= _rawData.length)
+      throw new PredictException("Column " + name + " is not used by the model.");
+    int h = _names.length;
+    _names = Arrays.copyOf(_names, h + 1);
+    _indices = Arrays.copyOf(_indices, h + 1);
+    _encoders = Arrays.copyOf(_encoders, h + 1);
+    _names[h] = name;
+    _indices[h] = index;
+    _encoders[h] = _converter.categoricalEncoder(index);
+    return h;
+  }
+
+  /**
+   * Sets the value of a numeric column; for a categorical column the value is the index of the level.
+   */
+  public PredictorSession setValue(int column, double value) {
+    _rawData[_indices[column]] = value;
+    return this;
+  }
+
+  /**
+   * Sets the level of a categorical column.  Unknown levels are handled as configured in the wrapper.
+   */
+  public PredictorSession setValue(int column, String level) throws PredictException {
+    CategoricalEncoder encoder = _encoders[column];
+    if (encoder == null)
+      throw new PredictException("Column " + _names[column] + " is not categorical.");
+    _converter.encodeLevel(_names[column], level, encoder, _rawData);
+    return this;
+  }
+
+  /**
+   * Marks the value of a column as missing.
+   */
+  public PredictorSession setNA(int column) {
+    CategoricalEncoder encoder = _encoders[column];
+    if (encoder != null)
+      encoder.encodeNA(_rawData);
+    else
+      _rawData[_indices[column]] = Double.NaN;
+    return this;
+  }
+
+  /**
+   * Sets all values of the current row from a RowData, on top of the values set so far.
+   */
+  public PredictorSession setValues(RowData data) throws PredictException {
+    _row = _converter.convert(data, _rawData);
+    return this;
+  }
+
+  public void predictBinomial(BinomialModelPrediction p) throws PredictException {
+    predictBinomial(0, p);
+  }
+
+  /**
+   * Makes a prediction of the current row using a Binomial model.
+   *
+   * @param offset An offset for the prediction.
+   * @param p The output, its arrays are re-used when they have the right size.
+   */
+  public void predictBinomial(double offset, BinomialModelPrediction p) throws PredictException {
+    double[] preds = score(ModelCategory.Binomial, offset);
+    p.labelIndex = (int) preds[0];
+    p.label = _responseDomain[p.labelIndex];
+    p.classProbabilities = copyProbabilities(preds, p.classProbabilities);
+    if (_m.calibrateClassProbabilities(preds))
+      p.calibratedClassProbabilities = copyProbabilities(preds, p.calibratedClassProbabilities);
+    else
+      p.calibratedClassProbabilities = null;
+  }
+
+  public void predictMultinomial(MultinomialModelPrediction p) throws PredictException {
+    predictMultinomial(0, p);
+  }
+
+  /**
+   * Makes a prediction of the current row using a Multinomial model.
+   *
+   * @param offset An offset for the prediction.
+   * @param p The output, its arrays are re-used when they have the right size.
+   */
+  public void predictMultinomial(double offset, MultinomialModelPrediction p) throws PredictException {
+    double[] preds = score(ModelCategory.Multinomial, offset);
+    p.labelIndex = (int) preds[0];
+    p.label = _responseDomain[p.labelIndex];
+    p.classProbabilities = copyProbabilities(preds, p.classProbabilities);
+  }
+
+  public void predictRegression(RegressionModelPrediction p) throws PredictException {
+    predictRegression(0, p);
+  }
+
+  /**
+   * Makes a prediction of the current row using a Regression model.
+   *
+   * @param offset An offset for the prediction.
+   * @param p The output.
+   */
+  public void predictRegression(double offset, RegressionModelPrediction p) throws PredictException {
+    p.value = score(ModelCategory.Regression, offset)[0];
+  }
+
+  private double[] score(ModelCategory c, double offset) throws PredictException {
+    if (!_categories.contains(c))
+      throw new PredictException(c + " prediction type is not supported for this model.");
+    double[] preds = _preds.get(c);
+    try {
+      Arrays.fill(preds, 0);
+      if (_m.requiresOffset() || offset != 0)
+        return _m.score0(_row, offset, preds);
+      else
+        return _m.score0(_row, preds);
+    } finally {
+      Arrays.fill(_rawData, Double.NaN);
+      _row = _rawData;
+    }
+  }
+
+  private double[] copyProbabilities(double[] preds, double[] probs) {
+    final int n = _m.getNumResponseClasses();
+    if (probs == null || probs.length != n)
+      probs = new double[n];
+    System.arraycopy(preds, 1, probs, 0, n);
+    return probs;
+  }
+
+}
@@ -87,16 +87,7 @@ public class RowToRawDataConverter implements Serializable {
     } else {
       // Column has categorical value.
       if (o instanceof String) {
-        String levelName = (String) o;
-        if (! catEncoder.encodeCatValue(levelName, rawData)) {
-          if (_convertUnknownCategoricalLevelsToNa) {
-            catEncoder.encodeNA(rawData);
-            _errorConsumer.unseenCategorical(columnName, o, "Previously unseen categorical level detected, marking as NaN.");
-          } else {
-            _errorConsumer.dataTransformError(columnName, o, "Unknown categorical level detected.");
-            throw new PredictUnknownCategoricalLevelException("Unknown categorical level (" + columnName + "," + levelName + ")", columnName, levelName);
-          }
-        }
+        encodeLevel(columnName, (String) o, catEncoder, rawData);
       } else if (o instanceof Double && Double.isNaN((double) o)) {
         _errorConsumer.dataTransformError(columnName, o, "Missing factor value detected, setting to NaN");
         catEncoder.encodeNA(rawData); // Missing factor is the only Double value allowed
@@ -110,6 +101,27 @@ public class RowToRawDataConverter implements Serializable {
     return false;
   }
 
+  void encodeLevel(String columnName, String levelName, CategoricalEncoder catEncoder,
+                   double[] rawData) throws PredictException {
+    if (! catEncoder.encodeCatValue(levelName, rawData)) {
+      if (_convertUnknownCategoricalLevelsToNa) {
+        catEncoder.encodeNA(rawData);
+        _errorConsumer.unseenCategorical(columnName, levelName, "Previously unseen categorical level detected, marking as NaN.");
+      } else {
+        _errorConsumer.dataTransformError(columnName, levelName, "Unknown categorical level detected.");
+        throw new PredictUnknownCategoricalLevelException("Unknown categorical level (" + columnName + "," + levelName + ")", columnName, levelName);
+      }
+    }
+  }
+
+  Integer columnIndex(String columnName) {
+    return _modelColumnNameToIndexMap.get(columnName);
+  }
+
+  CategoricalEncoder categoricalEncoder(int index) {
+    return _domainMap.get(index);
+  }
+
   EasyPredictModelWrapper.ErrorConsumer getErrorConsumer() {
     return _errorConsumer;
   }
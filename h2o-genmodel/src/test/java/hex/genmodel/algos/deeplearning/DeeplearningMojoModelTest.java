@@ -0,0 +1,74 @@
+package hex.genmodel.algos.deeplearning;
+
+import hex.genmodel.ModelMojoReader;
+import hex.genmodel.MojoReaderBackend;
+import hex.genmodel.MojoReaderBackendFactory;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DeeplearningMojoModelTest {
+
+  @Test
+  public void testScoreBatch() throws Exception {
+    URL mojoSource = DeeplearningMojoModelTest.class.getResource("/hex/genmodel/algos/ensemble/binomial_titanic.zip");
+    assertNotNull(mojoSource);
+    MojoReaderBackend reader = MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY);
+    DeeplearningMojoModel mojo = (DeeplearningMojoModel) ModelMojoReader.readFrom(
+            new NestedReaderBackend(reader, "models/DeepLearning/DeepLearning_0_AutoML_20181022_155341/"));
+
+    Random rnd = new Random(0xDEE9);
+    int nrows = 600; // more than one block
+    double[][] columns = new double[mojo.nfeatures()][nrows];
+    for (int c = 0; c < columns.length; c++) {
+      String[] domain = mojo.getDomainValues(c);
+      for (int r = 0; r < nrows; r++) {
+        if (rnd.nextInt(10) == 0)
+          columns[c][r] = Double.NaN;
+        else
+          columns[c][r] = domain != null ? rnd.nextInt(domain.length) : rnd.nextGaussian() * 10;
+      }
+    }
+
+    double[][] preds = mojo.scoreBatch(columns, nrows, null);
+    assertEquals(nrows, preds.length);
+    double[] row = new double[mojo.nfeatures()];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = columns[c][r];
+      assertArrayEquals("Predictions for row #" + r, mojo.score0(row, new double[mojo.getPredsSize()]), preds[r], 0);
+    }
+    assertSame(preds, mojo.scoreBatch(columns, nrows, preds));
+  }
+
+  private static class NestedReaderBackend implements MojoReaderBackend {
+    private final MojoReaderBackend _reader;
+    private final String _dir;
+
+    NestedReaderBackend(MojoReaderBackend reader, String dir) {
+      _reader = reader;
+      _dir = dir;
+    }
+
+    @Override
+    public BufferedReader getTextFile(String filename) throws IOException {
+      return _reader.getTextFile(_dir + filename);
+    }
+
+    @Override
+    public byte[] getBinaryFile(String filename) throws IOException {
+      return _reader.getBinaryFile(_dir + filename);
+    }
+
+    @Override
+    public boolean exists(String filename) {
+      return _reader.exists(_dir + filename);
+    }
+  }
+
+}
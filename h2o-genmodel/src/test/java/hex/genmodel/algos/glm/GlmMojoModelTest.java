@@ -53,6 +53,37 @@ public class GlmMojoModelTest {
     }
   }
 
+  @Test
+  public void testScoreBatch() throws Exception {
+    double[][] data = new double[][]{
+            new double[]{2,73,2,1,7.9,18,6},
+            new double[]{1,51,3,1,8.9,0,6},
+            new double[]{2,57,3,1,3.4,30.8,6},
+            new double[]{1,56,2,2,58,0,6},
+            new double[]{1,Double.NaN,1,1,5.4,34,5} // value should be imputed
+    };
+
+    GlmMojoModel mojo = (GlmMojoModel) ModelMojoReader.readFrom(new ClasspathReaderBackend());
+
+    double[][] columns = new double[data[0].length][data.length];
+    for (int i = 0; i < data.length; i++)
+      for (int c = 0; c < columns.length; c++)
+        columns[c][i] = data[i][c];
+
+    double[][] preds = mojo.scoreBatch(columns, data.length, null);
+    assertEquals(data.length, preds.length);
+    for (int i = 0; i < data.length; i++)
+      assertArrayEquals("Predictions for row #" + i, mojo.score0(data[i].clone(), new double[3]), preds[i], 0);
+    assertTrue("Input was modified", Double.isNaN(columns[1][data.length - 1]));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testScoreBatchRejectsOffsetModels() throws Exception {
+    GlmMojoModel mojo = (GlmMojoModel) ModelMojoReader.readFrom(new ClasspathReaderBackend());
+    mojo._offsetColumn = "offset";
+    mojo.scoreBatch(new double[mojo.nfeatures()][1], 1, null);
+  }
+
   private static class ClasspathReaderBackend implements MojoReaderBackend {
     @Override
     public BufferedReader getTextFile(String filename) throws IOException {
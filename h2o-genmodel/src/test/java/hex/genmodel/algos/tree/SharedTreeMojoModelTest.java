@@ -1,9 +1,17 @@
 package hex.genmodel.algos.tree;
 
+import hex.genmodel.ModelMojoReader;
+import hex.genmodel.MojoReaderBackend;
+import hex.genmodel.MojoReaderBackendFactory;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -26,4 +34,207 @@ public class SharedTreeMojoModelTest {
     assertEquals("", SharedTreeMojoModel.getDecisionPath(path));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testFlattenTreesScoresTheSame() throws Exception {
+    URL mojoSource = SharedTreeMojoModelTest.class.getResource("/hex/genmodel/mojo.zip");
+    assertNotNull(mojoSource);
+    SharedTreeMojoModel compressed = (SharedTreeMojoModel) ModelMojoReader.readFrom(
+            MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY));
+    SharedTreeMojoModel flat = (SharedTreeMojoModel) ModelMojoReader.readFrom(
+            MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY));
+    assertTrue(flat.flattenTrees());
+
+    Random rnd = new Random(0xF1A7);
+    double[] row = new double[compressed.nfeatures()];
+    for (int i = 0; i < 1000; i++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian() * 10;
+      double[] expected = compressed.score0(row, new double[compressed.getPredsSize()]);
+      double[] actual = flat.score0(row, new double[flat.getPredsSize()]);
+      assertArrayEquals(expected, actual, 0);
+    }
+  }
+
+  @Test
+  public void testScoreBatch() throws Exception {
+    URL mojoSource = SharedTreeMojoModelTest.class.getResource("/hex/genmodel/mojo.zip");
+    MojoReaderBackend reader = MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY);
+    SharedTreeMojoModel mojo = (SharedTreeMojoModel) ModelMojoReader.readFrom(reader);
+
+    Random rnd = new Random(0xBA7C4);
+    int nrows = 600; // more than one block
+    double[][] columns = new double[mojo.nfeatures()][nrows];
+    for (double[] col : columns)
+      for (int r = 0; r < nrows; r++)
+        col[r] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian() * 10;
+
+    double[][] preds = mojo.scoreBatch(columns, nrows, null);
+    double[] row = new double[mojo.nfeatures()];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = columns[c][r];
+      assertArrayEquals(mojo.score0(row, new double[mojo.getPredsSize()]), preds[r], 0);
+    }
+
+    assertTrue(mojo.flattenTrees());
+    assertSame(preds, mojo.scoreBatch(columns, nrows, preds));
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = columns[c][r];
+      assertArrayEquals(mojo.score0(row, new double[mojo.getPredsSize()]), preds[r], 0);
+    }
+  }
+
+  @Test
+  public void testFlattenTreesScoresCategoricalMultinomialTheSame() throws Exception {
+    URL mojoSource = SharedTreeMojoModelTest.class.getResource("/hex/genmodel/algos/ensemble/multinomial.zip");
+    assertNotNull(mojoSource);
+    String gbmDir = "models/GBM/GBM_model_R_1510601497952_2946/";
+    SharedTreeMojoModel compressed = (SharedTreeMojoModel) ModelMojoReader.readFrom(new NestedReaderBackend(
+            MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY), gbmDir));
+    SharedTreeMojoModel flat = (SharedTreeMojoModel) ModelMojoReader.readFrom(new NestedReaderBackend(
+            MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY), gbmDir));
+    assertEquals(3, compressed.getNumResponseClasses());
+    assertTrue(flat.flattenTrees());
+
+    Random rnd = new Random(0xCA7);
+    double[] row = new double[compressed.nfeatures()];
+    for (int i = 0; i < 2000; i++) {
+      for (int c = 0; c < row.length; c++) {
+        String[] domain = compressed.getDomainValues(c);
+        if (rnd.nextInt(10) == 0)
+          row[c] = Double.NaN;
+        else if (domain != null)
+          row[c] = rnd.nextInt(domain.length + 2); // Including unseen levels
+        else
+          row[c] = rnd.nextGaussian() * 50;
+      }
+      double[] expected = compressed.score0(row, new double[compressed.getPredsSize()]);
+      double[] actual = flat.score0(row, new double[flat.getPredsSize()]);
+      assertArrayEquals(expected, actual, 0);
+    }
+  }
+
+  @Test
+  public void testFlatTreeCategoricalSplits() {
+    // Root: bitset (fill3) split on column 0, levels 2..11
+    byte[] naVsRest = split(0, NaSplitDir.NAvsREST, 12, new byte[0], leaf(1), leaf(2)); // Inherits the root's bitset
+    byte[] numeric = split(2, NaSplitDir.NAvsREST, 0, new byte[0], leaf(3), leaf(4));
+    byte[] left = split(1, NaSplitDir.NALeft, 8, bitset32(0x0F0F0F0F), naVsRest, numeric); // Inline 32 bit set
+    byte[] right = split(1, NaSplitDir.Right, 0, floats(17.5f), leaf(5), leaf(6));
+    byte[] tree = split(0, NaSplitDir.NARight, 12, bitset(2, 10, 0x2A5), left, right);
+    String[][] domains = new String[][]{new String[12], new String[40], null};
+
+    FlatTree flat = FlatTree.make(tree, domains);
+    assertEquals(11, flat.numNodes());
+    double[] row = new double[3];
+    for (int c0 = -1; c0 < 15; c0++)
+      for (int c1 = -1; c1 < 42; c1++)
+        for (int c2 = -1; c2 < 2; c2++) {
+          row[0] = c0 == -1 ? Double.NaN : c0;
+          row[1] = c1 == -1 ? Double.NaN : c1;
+          row[2] = c2 == -1 ? Double.NaN : c2;
+          assertEquals(Arrays.toString(row),
+                  SharedTreeMojoModel.scoreTree(tree, row, false, domains), flat.score(row), 0);
+        }
+  }
+
+  @Test
+  public void testFlatTreeDecodesDeepTrees() {
+    int depth = 100000;
+    ByteBuffer bb = ByteBuffer.allocate(depth * 12 + 4).order(ByteOrder.nativeOrder());
+    for (int i = 0; i < depth; i++) { // A chain down the right-hand side, with leaves on the left
+      bb.put((byte) (48 | (i == depth - 1 ? 0xC0 : 0)));
+      bb.putChar((char) 0);
+      bb.put((byte) NaSplitDir.NARight.value());
+      bb.putFloat(i);
+      bb.putFloat(-i);
+    }
+    bb.putFloat(depth);
+    byte[] tree = bb.array();
+
+    FlatTree flat = FlatTree.make(tree, null);
+    assertEquals(2 * depth + 1, flat.numNodes());
+    for (double d : new double[]{Double.NaN, -1, 0, 0.5, 12345.5, depth - 1, depth}) {
+      double[] row = new double[]{d};
+      assertEquals(SharedTreeMojoModel.scoreTree(tree, row, false, null), flat.score(row), 0);
+    }
+  }
+
+  // Writers of the tree format read by SharedTreeMojoModel.scoreTree
+
+  private static byte[] leaf(float pred) {
+    ByteBuffer bb = ByteBuffer.allocate(7).order(ByteOrder.nativeOrder());
+    bb.put((byte) 0);
+    bb.putChar((char) 65535);
+    bb.putFloat(pred);
+    return bb.array();
+  }
+
+  private static boolean isLeaf(byte[] node) {
+    return node.length == 7 && node[1] == (byte) 0xFF && node[2] == (byte) 0xFF;
+  }
+
+  private static byte[] split(int col, NaSplitDir naSplitDir, int equal, byte[] test, byte[] left, byte[] right) {
+    ByteBuffer bb = ByteBuffer.allocate(16 + test.length + left.length + right.length).order(ByteOrder.nativeOrder());
+    int nodeType = equal | (isLeaf(left) ? 48 : 1) | (isLeaf(right) ? 0xC0 : 0);
+    bb.put((byte) nodeType);
+    bb.putChar((char) col);
+    bb.put((byte) naSplitDir.value());
+    bb.put(test);
+    if (isLeaf(left)) {
+      bb.put(left, 3, 4);
+    } else {
+      bb.putChar((char) left.length);
+      bb.put(left);
+    }
+    if (isLeaf(right))
+      bb.put(right, 3, 4);
+    else
+      bb.put(right);
+    return Arrays.copyOf(bb.array(), bb.position());
+  }
+
+  private static byte[] floats(float f) {
+    return ByteBuffer.allocate(4).order(ByteOrder.nativeOrder()).putFloat(f).array();
+  }
+
+  private static byte[] bitset32(int bits) {
+    return new byte[]{(byte) bits, (byte) (bits >> 8), (byte) (bits >> 16), (byte) (bits >> 24)};
+  }
+
+  private static byte[] bitset(int bitoff, int nbits, int bits) {
+    ByteBuffer bb = ByteBuffer.allocate(6 + ((nbits - 1) >> 3) + 1).order(ByteOrder.nativeOrder());
+    bb.putChar((char) bitoff);
+    bb.putInt(nbits);
+    for (int i = 0; i < nbits; i += 8)
+      bb.put((byte) (bits >> i));
+    return bb.array();
+  }
+
+  private static class NestedReaderBackend implements MojoReaderBackend {
+    private final MojoReaderBackend _reader;
+    private final String _dir;
+
+    NestedReaderBackend(MojoReaderBackend reader, String dir) {
+      _reader = reader;
+      _dir = dir;
+    }
+
+    @Override
+    public BufferedReader getTextFile(String filename) throws IOException {
+      return _reader.getTextFile(_dir + filename);
+    }
+
+    @Override
+    public byte[] getBinaryFile(String filename) throws IOException {
+      return _reader.getBinaryFile(_dir + filename);
+    }
+
+    @Override
+    public boolean exists(String filename) {
+      return _reader.exists(_dir + filename);
+    }
+  }
+
+}
@@ -3,10 +3,14 @@ package hex.genmodel.easy;
 import hex.ModelCategory;
 import hex.genmodel.CategoricalEncoding;
 import hex.genmodel.GenModel;
+import hex.genmodel.ModelMojoReader;
 import hex.genmodel.MojoModel;
+import hex.genmodel.MojoReaderBackendFactory;
+import hex.genmodel.algos.tree.SharedTreeMojoModel;
 import hex.genmodel.algos.word2vec.WordEmbeddingModel;
 import hex.genmodel.easy.error.CountingErrorConsumer;
 import hex.genmodel.easy.error.VoidErrorConsumer;
+import hex.genmodel.easy.exception.PredictException;
 import hex.genmodel.easy.exception.PredictUnknownCategoricalLevelException;
 import hex.genmodel.easy.prediction.*;
 import org.junit.Assert;
@@ -17,6 +21,7 @@ import org.mockito.ArgumentMatchers;
 import java.io.*;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -415,6 +420,96 @@ public class EasyPredictModelWrapperTest {
     }
   }
 
+  @Test
+  public void testPredictorSession() throws Exception {
+    final List<double[]> scored = new ArrayList<>();
+    SupervisedModel rawModel = new SupervisedModel(makeSupervisedModel().getNames(), makeSupervisedModel().getDomainValues()) {
+      @Override
+      public double[] score0(double[] data, double[] preds) {
+        scored.add(data.clone());
+        return super.score0(data, preds);
+      }
+    };
+    EasyPredictModelWrapper m = new EasyPredictModelWrapper(rawModel);
+    PredictorSession session = m.newSession();
+
+    int c1 = session.column("C1");
+    int c2 = session.column("C2");
+    Assert.assertEquals(c1, session.column("C1"));
+
+    BinomialModelPrediction p = new BinomialModelPrediction();
+    session.setValue(c1, "c1level2").setValue(c2, 2).predictBinomial(p);
+    Assert.assertArrayEquals(new double[]{1, 2}, Arrays.copyOf(scored.get(0), 2), 0);
+    Assert.assertEquals("NO", p.label);
+    Assert.assertArrayEquals(new double[]{1.0, 0.0}, p.classProbabilities, 0);
+    double[] probs = p.classProbabilities;
+
+    // Values are reset after a prediction, buffers of the output are re-used
+    session.predictBinomial(p);
+    Assert.assertArrayEquals(new double[]{Double.NaN, Double.NaN}, Arrays.copyOf(scored.get(1), 2), 0);
+    Assert.assertSame(probs, p.classProbabilities);
+
+    RowData row = new RowData();
+    row.put("C2", "c2level2");
+    session.setValues(row).setValue(c1, 0).predictBinomial(p);
+    Assert.assertArrayEquals(new double[]{0, 1}, Arrays.copyOf(scored.get(2), 2), 0);
+
+    try {
+      session.column("NOT_THERE");
+      Assert.fail("Unknown column should be rejected");
+    } catch (PredictException e) {
+      // expected
+    }
+    try {
+      session.setValue(c2, "unknownLevel");
+      Assert.fail("Unknown level should be rejected");
+    } catch (PredictUnknownCategoricalLevelException e) {
+      Assert.assertEquals("C2", e.getColumnName());
+    }
+    try {
+      session.predictRegression(new RegressionModelPrediction());
+      Assert.fail("Regression should not be supported by a binomial model");
+    } catch (PredictException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testPredictorSessionWithTreeMojo() throws Exception {
+    URL mojoSource = EasyPredictModelWrapperTest.class.getResource("/hex/genmodel/mojo.zip");
+    Assert.assertNotNull(mojoSource);
+    SharedTreeMojoModel mojo = (SharedTreeMojoModel) ModelMojoReader.readFrom(
+            MojoReaderBackendFactory.createReaderBackend(mojoSource, MojoReaderBackendFactory.CachingStrategy.MEMORY));
+    EasyPredictModelWrapper m = new EasyPredictModelWrapper(mojo);
+    PredictorSession session = m.newSession();
+    String[] names = mojo.features();
+    int[] columns = new int[names.length];
+    for (int c = 0; c < names.length; c++)
+      columns[c] = session.column(names[c]);
+
+    Random rnd = new Random(0x5E55);
+    RegressionModelPrediction p = new RegressionModelPrediction();
+    for (boolean flat : new boolean[]{false, true}) {
+      if (flat)
+        Assert.assertTrue(mojo.flattenTrees());
+      for (int i = 0; i < 100; i++) {
+        RowData row = new RowData();
+        for (int c = 0; c < names.length; c++) {
+          if (rnd.nextInt(10) == 0)
+            continue;
+          double value = rnd.nextGaussian() * 10;
+          row.put(names[c], value);
+          session.setValue(columns[c], value);
+        }
+        double expected = m.predictRegression(row).value;
+        session.predictRegression(p);
+        Assert.assertEquals(expected, p.value, 0);
+        session.setValues(row).predictRegression(p);
+        Assert.assertEquals(expected, p.value, 0);
+      }
+    }
+  }
+
   @Test
   public void testWordEmbeddingModel() throws Exception {
     MyWordEmbeddingModel rawModel = new MyWordEmbeddingModel();
@@ -2,9 +2,13 @@ package water.parser.orc;
 
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.hive.ql.exec.vector.*;
+import org.apache.hadoop.hive.ql.io.orc.ColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.DoubleColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.IntegerColumnStatistics;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
 import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.orc.StripeStatistics;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
 import org.joda.time.DateTime;
@@ -16,6 +20,7 @@ import water.Key;
 import water.fvec.Vec;
 import water.parser.*;
 import water.util.ArrayUtils;
+import water.util.Log;
 import water.util.StringUtils;
 
 import java.io.IOException;
@@ -113,6 +118,10 @@ public class OrcParser extends Parser {
     }
     OrcParseSetup setup = (OrcParseSetup) this._setup;
     StripeInformation thisStripe = stripesInfo.get(chunkId);  // get one stripe
+    if (setup.getRowFilter() != null && canSkipStripe(chunkId, thisStripe, RowFilter.parse(setup.getRowFilter()))) {
+      Log.info("Row filter skipped stripe #", chunkId);
+      return dout;
+    }
     // write one stripe of data to H2O frame
     String [] orcTypes = setup.getColumnTypesString();
     boolean[] toInclude = setup.getToInclude();
@@ -153,6 +162,53 @@ public class OrcParser extends Parser {
   }
 
 
+  /**
+   * True if the statistics of the stripe show that none of its rows can match the row filter.
+   * Only integer and floating point columns are checked, their values are parsed as they are stored.
+   */
+  private boolean canSkipStripe(int stripeIdx, StripeInformation stripe, RowFilter filter) {
+    final ColumnStatistics[] colStats;
+    try {
+      List<StripeStatistics> stripeStats = orcFileReader.getMetadata().getStripeStatistics();
+      if (stripeStats == null || stripeIdx >= stripeStats.size()) return false;
+      colStats = stripeStats.get(stripeIdx).getColumnStatistics();
+    } catch (IOException e) {
+      Log.debug("Cannot read statistics of stripe #", stripeIdx, ": ", e);
+      return false;
+    }
+    return canSkipStripe(colStats, stripe.getNumberOfRows(), _setup.getColumnNames(),
+        ((OrcParseSetup) _setup).getToInclude(), filter);
+  }
+
+  /**
+   * @param colStats statistics of the stripe, indexed by ORC column id
+   * @param names names of the parsed columns, in the order of the included ORC columns
+   * @param toInclude included ORC columns by id, id 0 is the root struct
+   */
+  static boolean canSkipStripe(final ColumnStatistics[] colStats, final long stripeRows, final String[] names,
+                               boolean[] toInclude, RowFilter filter) {
+    final int[] orcIds = new int[names.length];
+    for (int id = 1, k = 0; id < toInclude.length && k < orcIds.length; id++)
+      if (toInclude[id]) orcIds[k++] = id;
+    return filter.canSkip(new RowFilter.Stats() {
+      @Override
+      public double[] range(String column) {
+        int k = ArrayUtils.find(names, column);
+        if (k < 0 || orcIds[k] >= colStats.length) return null;
+        ColumnStatistics cs = colStats[orcIds[k]];
+        if (cs.getNumberOfValues() == 0)
+          return stripeRows > 0 ? new double[0] : null;
+        if (cs instanceof IntegerColumnStatistics)
+          return new double[]{((IntegerColumnStatistics) cs).getMinimum(), ((IntegerColumnStatistics) cs).getMaximum()};
+        if (cs instanceof DoubleColumnStatistics) {
+          double min = ((DoubleColumnStatistics) cs).getMinimum(), max = ((DoubleColumnStatistics) cs).getMaximum();
+          return Double.isNaN(min) || Double.isNaN(max) ? null : new double[]{min, max};
+        }
+        return null;
+      }
+    });
+  }
+
   /**
    * This method writes one column of H2O data frame at a time.
    *
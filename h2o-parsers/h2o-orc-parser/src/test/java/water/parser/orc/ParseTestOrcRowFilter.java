@@ -0,0 +1,107 @@
+package water.parser.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.ColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.IntegerColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.OrcFile;
+import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.orc.StripeStatistics;
+import org.apache.hadoop.hive.ql.io.orc.Writer;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.parser.ParseDataset;
+import water.parser.ParseSetup;
+import water.parser.RowFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for skipping ORC stripes by the row filter of the parse.
+ */
+public class ParseTestOrcRowFilter extends TestUtil {
+
+  private static final int NROWS = 20000; // The writer checks its memory every 5000 rows, one stripe each
+
+  @BeforeClass
+  static public void setup() { TestUtil.stall_till_cloudsize(1); }
+
+  static class Row {
+    long id;
+    double x;
+    Row(long id, double x) { this.id = id; this.x = x; }
+  }
+
+  private static File writeOrc(File dir) throws IOException {
+    File f = new File(dir, "rowfilter.orc");
+    ObjectInspector inspector = ObjectInspectorFactory.getReflectionObjectInspector(Row.class,
+        ObjectInspectorFactory.ObjectInspectorOptions.JAVA);
+    Writer writer = OrcFile.createWriter(new Path(f.getPath()),
+        OrcFile.writerOptions(new Configuration()).inspector(inspector).stripeSize(1024).bufferSize(1024));
+    try {
+      for (int i = 0; i < NROWS; i++)
+        writer.addRow(new Row(i, i / 2.0));
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
+  @Test
+  public void testCanSkipStripe() throws IOException {
+    File f = writeOrc(Files.createTempDirectory("orc").toFile());
+    Reader reader = OrcFile.createReader(new Path(f.getPath()), OrcFile.readerOptions(new Configuration()));
+    List<StripeInformation> stripes = reader.getStripes();
+    List<StripeStatistics> stats = reader.getMetadata().getStripeStatistics();
+    assertTrue("file has several stripes", stripes.size() > 1);
+
+    String[] names = new String[]{"key", "value"}; // Columns renamed in the parse setup
+    boolean[] toInclude = new boolean[]{false, true, true};
+    RowFilter lastRows = RowFilter.parse("key >= " + (NROWS - 100));
+    RowFilter byValue = RowFilter.parse("value < 0");
+    RowFilter byFileName = RowFilter.parse("id >= " + NROWS);
+    for (int s = 0; s < stripes.size(); s++) {
+      ColumnStatistics[] colStats = stats.get(s).getColumnStatistics();
+      long rows = stripes.get(s).getNumberOfRows();
+      boolean matches = ((IntegerColumnStatistics) colStats[1]).getMaximum() >= NROWS - 100;
+      assertEquals("stripe " + s, !matches, OrcParser.canSkipStripe(colStats, rows, names, toInclude, lastRows));
+      assertTrue("stripe " + s, OrcParser.canSkipStripe(colStats, rows, names, toInclude, byValue));
+      assertFalse("unknown column, stripe " + s, OrcParser.canSkipStripe(colStats, rows, names, toInclude, byFileName));
+    }
+    assertTrue(OrcParser.canSkipStripe(stats.get(0).getColumnStatistics(), stripes.get(0).getNumberOfRows(), names, toInclude, lastRows));
+    int last = stripes.size() - 1;
+    assertFalse(OrcParser.canSkipStripe(stats.get(last).getColumnStatistics(), stripes.get(last).getNumberOfRows(), names, toInclude, lastRows));
+  }
+
+  @Test
+  public void testParseWithRowFilterOnRenamedColumn() throws IOException {
+    Frame fr = null;
+    try {
+      NFSFileVec nfs = NFSFileVec.make(writeOrc(Files.createTempDirectory("orc").toFile()));
+      Key[] keys = new Key[]{nfs._key};
+      ParseSetup setup = ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+      setup.setColumnNames(new String[]{"key", "value"});
+      setup.setRowFilter("key >= " + (NROWS - 100));
+      fr = ParseDataset.parse(Key.make(), keys, true, setup);
+      assertEquals(100, fr.numRows());
+      assertEquals(NROWS - 100, fr.vec("key").min(), 0);
+      assertEquals(NROWS - 1, fr.vec("key").max(), 0);
+      assertEquals((NROWS - 100) / 2.0, fr.vec("value").min(), 0);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+}
@@ -10,10 +10,15 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
 import org.junit.Assert;
@@ -30,6 +35,7 @@ import water.fvec.Vec;
 import water.parser.BufferedString;
 import water.parser.ParseDataset;
 import water.parser.ParseSetup;
+import water.parser.RowFilter;
 import water.util.IcedInt;
 import water.util.PrettyPrint;
 
@@ -38,7 +44,10 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
@@ -396,6 +405,110 @@ public class ParseTestParquet extends TestUtil {
     assertFrameAssertion(assertion);
   }
 
+  @Test
+  public void testColumnarReaderMatchesRecordReader() throws IOException {
+    File avro = ParquetFileGenerator.generateAvroPrimitiveTypes(Files.createTempDir(), "avroPrimitiveTypes.parquet", 1000, new Date());
+    String[] files = {"smalldata/parser/parquet/airlines-simple.snappy.parquet", avro.getCanonicalPath()};
+    final boolean oldEnabled = ColumnarParquetReader.ENABLED;
+    for (String file : files) {
+      Frame columnar = null, records = null;
+      try {
+        ColumnarParquetReader.ENABLED = true;
+        columnar = parse_parquet(file);
+        ColumnarParquetReader.ENABLED = false;
+        records = parse_parquet(file);
+
+        assertArrayEquals(records.names(), columnar.names());
+        assertArrayEquals(records.types(), columnar.types());
+        for (int i = 0; i < records.numCols(); i++)
+          assertArrayEquals(records.vec(i).domain(), columnar.vec(i).domain());
+        assertBitIdentical(records, columnar);
+      } finally {
+        ColumnarParquetReader.ENABLED = oldEnabled;
+        if (columnar != null) columnar.delete();
+        if (records != null) records.delete();
+      }
+    }
+  }
+
+  @Test
+  public void testSkipRowGroupsByStatistics() throws IOException {
+    File f = ParquetFileGenerator.generateParquetFile(Files.createTempDir(), "rowgroups.parquet", 1000, new Date());
+    ParquetMetadata footer = ParquetFileReader.readFooter(new Configuration(), new Path(f.getPath()));
+    List<BlockMetaData> blocks = footer.getBlocks();
+    assertTrue("file has several row groups", blocks.size() > 1);
+
+    String[] names = new String[]{"a", "b", "c", "d", "e"}; // Columns renamed in the parse setup
+    int matching = 0;
+    for (BlockMetaData block : blocks)
+      if (((IntStatistics) block.getColumns().get(0).getStatistics()).getMax() >= 1000)
+        matching++;
+    assertTrue(matching > 0 && matching < blocks.size());
+
+    ParquetMetadata kept = ParquetParser.skipRowGroups(footer, names, RowFilter.parse("a >= 1000"));
+    assertEquals(matching, kept.getBlocks().size());
+    for (BlockMetaData block : kept.getBlocks())
+      assertTrue(((IntStatistics) block.getColumns().get(0).getStatistics()).getMax() >= 1000);
+
+    assertTrue(ParquetParser.skipRowGroups(footer, names, RowFilter.parse("b < 0")).getBlocks().isEmpty());
+    assertSame("filter on the name in the file", footer,
+        ParquetParser.skipRowGroups(footer, names, RowFilter.parse("int32_field >= 1000")));
+  }
+
+  @Test
+  public void testParseWithRowFilterOnRenamedColumn() throws IOException {
+    File f = ParquetFileGenerator.generateParquetFile(Files.createTempDir(), "rowfilter.parquet", 1000, new Date());
+    Frame actual = null;
+    try {
+      actual = TestUtil.parse_test_file(f.getCanonicalPath(), new ParseSetupTransformer() {
+        @Override
+        public ParseSetup transformSetup(ParseSetup guessedSetup) {
+          guessedSetup.disableParallelParse = disableParallelParse;
+          guessedSetup.setColumnNames(new String[]{"a", "b", "c", "d", "e"});
+          guessedSetup.setRowFilter("a >= 1000");
+          return guessedSetup;
+        }
+      });
+      assertEquals(32, actual.numRows()); // int32_field is 32 + row
+      assertEquals(1000, actual.vec("a").min(), 0);
+      assertEquals(1031, actual.vec("a").max(), 0);
+    } finally {
+      if (actual != null) actual.delete();
+    }
+  }
+
+  @Test
+  public void testChunkReadSupportProjectsParsedColumns() throws IOException {
+    MessageType schema = parseMessageType(
+        "message test { required int32 a; required int64 b; required float c; required double d; } ");
+    boolean[] keep = new boolean[]{true, false, true, false};
+    ChunkReadSupport readSupport = new ChunkReadSupport(null, new byte[]{Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM}, keep);
+    MessageType requested = readSupport.init(
+        new InitContext(new Configuration(), Collections.<String, Set<String>>emptyMap(), schema)).getRequestedSchema();
+    assertEquals(parseMessageType("message test { required int32 a; required float c; } "), requested);
+
+    readSupport = new ChunkReadSupport(null, new byte[]{Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM}, null);
+    assertSame(schema, readSupport.init(
+        new InitContext(new Configuration(), Collections.<String, Set<String>>emptyMap(), schema)).getRequestedSchema());
+
+    // The record reader decodes only the parsed columns
+    File f = ParquetFileGenerator.generateParquetFile(Files.createTempDir(), "projection.parquet", 100, new Date());
+    final boolean oldEnabled = ColumnarParquetReader.ENABLED;
+    Frame all = null, projected = null;
+    try {
+      ColumnarParquetReader.ENABLED = false;
+      all = parse_parquet(f.getCanonicalPath());
+      projected = TestUtil.parse_test_file(f.getCanonicalPath(), psTransformer, new int[]{1, 3});
+      assertArrayEquals(new String[]{"int32_field", "float_field", "timestamp_field"}, projected.names());
+      for (String name : projected.names())
+        assertBitIdentical(new Frame(all.vec(name)), new Frame(projected.vec(name)));
+    } finally {
+      ColumnarParquetReader.ENABLED = oldEnabled;
+      if (all != null) all.delete();
+      if (projected != null) projected.delete();
+    }
+  }
+
   @Test
   public void testPubdev5673() {
     Frame actual = null;
@@ -5,7 +5,11 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 public class ChunkReadSupport extends ReadSupport<Long> {
@@ -22,13 +26,33 @@ public class ChunkReadSupport extends ReadSupport<Long> {
 
   @Override
   public ReadContext init(InitContext context) {
-    return new ReadContext(context.getFileSchema());
+    return new ReadContext(projectedSchema(context.getFileSchema()));
   }
 
   @Override
   public RecordMaterializer<Long> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
                                                     MessageType fileSchema, ReadContext readContext) {
-    return new ChunkRecordMaterializer(fileSchema, _chunkSchema, _writer, _keepColumns);
+    MessageType requestedSchema = readContext.getRequestedSchema();
+    if (requestedSchema.getFieldCount() == fileSchema.getFieldCount())
+      return new ChunkRecordMaterializer(fileSchema, _chunkSchema, _writer, _keepColumns);
+    // only the parsed columns are read and decoded
+    byte[] parsedTypes = new byte[requestedSchema.getFieldCount()];
+    for (int i = 0, j = 0; i < _keepColumns.length; i++)
+      if (_keepColumns[i]) parsedTypes[j++] = _chunkSchema[i];
+    boolean[] keepAll = new boolean[parsedTypes.length];
+    Arrays.fill(keepAll, true);
+    return new ChunkRecordMaterializer(requestedSchema, parsedTypes, _writer, keepAll);
+  }
+
+  private MessageType projectedSchema(MessageType fileSchema) {
+    if (_keepColumns == null)
+      return fileSchema;
+    List<Type> fields = new ArrayList<>();
+    for (int i = 0; i < fileSchema.getFieldCount(); i++)
+      if (_keepColumns[i]) fields.add(fileSchema.getType(i));
+    if (fields.isEmpty() || fields.size() == fileSchema.getFieldCount())
+      return fileSchema;
+    return new MessageType(fileSchema.getName(), fields);
   }
 
 }
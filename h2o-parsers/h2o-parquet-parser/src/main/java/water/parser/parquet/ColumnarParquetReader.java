@@ -0,0 +1,316 @@
+package water.parser.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.DecimalMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import water.H2O;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.parser.FVecParseWriter;
+import water.parser.parquet.ext.DecimalUtils;
+import water.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column-at-a-time Parquet reader for the distributed parse.
+ *
+ * {@link VecParquetReader} assembles every record and pushes each value through a Converter and the
+ * {@link WriterDelegate} into the parse writer, line by line. This reader decodes a row group column
+ * after column instead, with a loop specialized for the column type, and appends the values of
+ * a column to the {@link FVecParseWriter} in one run. Columns parsed as categoricals which are
+ * dictionary encoded register the dictionary in the categorical map once per row group and then
+ * only translate dictionary ids, no string is materialized or hashed per value.
+ *
+ * Converts values exactly like {@link ChunkConverter}. Enabled by default, it can be turned off
+ * with {@code -Dsys.ai.h2o.parse.parquet.columnar=false}.
+ */
+class ColumnarParquetReader {
+
+  static boolean ENABLED = H2O.getSysBoolProperty("parse.parquet.columnar", true);
+
+  private final Vec _vec;
+  private final ParquetMetadata _metadata;
+  private final FVecParseWriter _writer;
+  private final byte[] _chunkSchema; // contains column types of all columns, not just the parsed ones
+  private final boolean[] _keepColumns;
+
+  private final int _maxStringSize;
+  private final int[] _colRawSize; // raw size of strings written so far, per column
+  private final BufferedString _bs = new BufferedString();
+
+  ColumnarParquetReader(Vec vec, ParquetMetadata metadata, FVecParseWriter writer, byte[] chunkSchema, boolean[] keepColumns) {
+    _vec = vec;
+    _metadata = metadata;
+    _writer = writer;
+    _chunkSchema = chunkSchema;
+    _keepColumns = keepColumns;
+    _maxStringSize = WriterDelegate.getMaxStringSize();
+    _colRawSize = new int[chunkSchema.length];
+  }
+
+  /**
+   * Reads all row groups of the metadata into the writer.
+   * @return number of rows read
+   */
+  long readAll() throws IOException {
+    final MessageType schema = _metadata.getFileMetaData().getSchema();
+    final List<ColumnDescriptor> columns = schema.getColumns();
+    final List<ColumnDescriptor> parsedColumns = new ArrayList<>();
+    for (int i = 0; i < columns.size(); i++)
+      if (_keepColumns[i]) parsedColumns.add(columns.get(i));
+
+    final VecReaderEnv env = VecReaderEnv.make(_vec);
+    final DictionaryCollector dictionaries = new DictionaryCollector(columns.size());
+    final String createdBy = _metadata.getFileMetaData().getCreatedBy();
+    long rows = 0;
+    ParquetFileReader reader = new ParquetFileReader(env.getConf(), _metadata.getFileMetaData(), env.getPath(),
+            _metadata.getBlocks(), parsedColumns);
+    try {
+      PageReadStore rowGroup;
+      while ((rowGroup = reader.readNextRowGroup()) != null) {
+        final int nrows = (int) rowGroup.getRowCount(); // block size checked in ParquetParser#checkCompatibility
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, dictionaries, schema, createdBy);
+        int colIdx = 0; // index to columns actually parsed
+        for (int i = 0; i < columns.size(); i++) {
+          if (!_keepColumns[i])
+            continue;
+          ColumnDescriptor desc = columns.get(i);
+          dictionaries._dicts[i] = null;
+          ColumnReader cr = store.getColumnReader(desc); // sets the dictionary of the column chunk, if there is one
+          readColumn(cr, desc.getMaxDefinitionLevel(), schema.getType(i).asPrimitiveType(), _chunkSchema[i], colIdx,
+                  nrows, dictionaries._dicts[i]);
+          colIdx++;
+        }
+        _writer.addColumnarLines(nrows);
+        rows += nrows;
+      }
+    } finally {
+      reader.close();
+    }
+    return rows;
+  }
+
+  // Same type mapping as ChunkConverter#newConverter
+  private void readColumn(ColumnReader cr, int maxDef, PrimitiveType parquetType, byte vecType, int colIdx, int nrows,
+                          Dictionary dict) {
+    final PrimitiveType.PrimitiveTypeName pt = parquetType.getPrimitiveTypeName();
+    final OriginalType ot = parquetType.getOriginalType();
+    switch (vecType) {
+      case Vec.T_BAD:
+      case Vec.T_CAT:
+      case Vec.T_STR:
+        if (pt == PrimitiveType.PrimitiveTypeName.BOOLEAN) {
+          readBooleanStrings(cr, maxDef, colIdx, nrows);
+          break;
+        }
+      case Vec.T_UUID:
+      case Vec.T_TIME:
+        if (OriginalType.TIMESTAMP_MILLIS.equals(ot) || pt == PrimitiveType.PrimitiveTypeName.INT96)
+          readTimestamps(cr, maxDef, pt, colIdx, nrows);
+        else if (vecType == Vec.T_CAT && dict != null)
+          readDictionaryCategoricals(cr, maxDef, colIdx, nrows, dict);
+        else
+          readStrings(cr, maxDef, colIdx, nrows);
+        break;
+      case Vec.T_NUM:
+        if (OriginalType.DECIMAL.equals(ot))
+          readDecimals(cr, maxDef, pt, parquetType.getDecimalMetadata(), colIdx, nrows);
+        else
+          readNumbers(cr, maxDef, pt, colIdx, nrows);
+        break;
+      default:
+        throw new UnsupportedOperationException("Unsupported type " + vecType);
+    }
+  }
+
+  private void readNumbers(ColumnReader cr, int maxDef, PrimitiveType.PrimitiveTypeName pt, int colIdx, int nrows) {
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef) {
+        _writer.addInvalidCol(colIdx);
+        continue;
+      }
+      switch (pt) {
+        case BOOLEAN: _writer.addNumCol(colIdx, cr.getBoolean() ? 1 : 0, 0); break;
+        case INT32:   _writer.addNumCol(colIdx, cr.getInteger(), 0); break;
+        case INT64:   _writer.addNumCol(colIdx, cr.getLong(), 0); break;
+        case FLOAT:   _writer.addNumCol(colIdx, cr.getFloat()); break;
+        case DOUBLE:  _writer.addNumCol(colIdx, cr.getDouble()); break;
+        default:      addStr(colIdx, cr.getBinary().getBytes());
+      }
+    }
+  }
+
+  private void readDecimals(ColumnReader cr, int maxDef, PrimitiveType.PrimitiveTypeName pt, DecimalMetadata dm,
+                            int colIdx, int nrows) {
+    final int precision = dm.getPrecision();
+    final int scale = dm.getScale();
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef) {
+        _writer.addInvalidCol(colIdx);
+        continue;
+      }
+      switch (pt) {
+        case INT32: _writer.addNumCol(colIdx, cr.getInteger(), -scale); break;
+        case INT64: _writer.addNumCol(colIdx, cr.getLong(), -scale); break;
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          _writer.addNumCol(colIdx, DecimalUtils.binaryToDecimal(cr.getBinary(), precision, scale).doubleValue());
+          break;
+        default:
+          throw new UnsupportedOperationException(pt + " type is not supported for decimals");
+      }
+    }
+  }
+
+  private void readTimestamps(ColumnReader cr, int maxDef, PrimitiveType.PrimitiveTypeName pt, int colIdx, int nrows) {
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef)
+        _writer.addInvalidCol(colIdx);
+      else if (pt == PrimitiveType.PrimitiveTypeName.INT96)
+        _writer.addNumCol(colIdx, ParquetInt96TimestampConverter.getTimestampMillis(cr.getBinary()));
+      else
+        _writer.addNumCol(colIdx, cr.getLong(), 0);
+    }
+  }
+
+  private void readBooleanStrings(ColumnReader cr, int maxDef, int colIdx, int nrows) {
+    final BufferedString trueStr = new BufferedString("True");
+    final BufferedString falseStr = new BufferedString("False");
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef)
+        _writer.addInvalidCol(colIdx);
+      else
+        addStr(colIdx, cr.getBoolean() ? trueStr : falseStr);
+    }
+  }
+
+  private void readStrings(ColumnReader cr, int maxDef, int colIdx, int nrows) {
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef)
+        _writer.addInvalidCol(colIdx);
+      else
+        addStr(colIdx, cr.getBinary().getBytes());
+    }
+  }
+
+  private void readDictionaryCategoricals(ColumnReader cr, int maxDef, int colIdx, int nrows, Dictionary dict) {
+    final BufferedString[] levels = new BufferedString[dict.getMaxId() + 1];
+    for (int i = 0; i < levels.length; i++) {
+      byte[] level = dict.decodeToBinary(i).getBytes();
+      levels[i] = new BufferedString(level, 0, level.length);
+    }
+    final int[] catIds = _writer.addCategoricalLevels(colIdx, levels);
+    if (catIds == null) { // not a categorical column after all
+      readStrings(cr, maxDef, colIdx, nrows);
+      return;
+    }
+    boolean dictEncoded = true;
+    for (int r = 0; r < nrows; r++, cr.consume()) {
+      if (cr.getCurrentDefinitionLevel() < maxDef) {
+        _writer.addInvalidCol(colIdx);
+        continue;
+      }
+      final int dictId = dictEncoded ? dictionaryId(cr) : -1;
+      if (dictId < 0) {
+        // writers fall back to plain encoding when the dictionary grows too big, the rest of the column chunk is plain
+        dictEncoded = false;
+        addStr(colIdx, cr.getBinary().getBytes());
+      } else if (fitsStringLimit(colIdx, levels[dictId].length())) {
+        _writer.addCategoricalId(colIdx, catIds[dictId]);
+      } else {
+        _writer.addInvalidCol(colIdx);
+      }
+    }
+  }
+
+  private static int dictionaryId(ColumnReader cr) {
+    try {
+      return cr.getCurrentValueDictionaryID();
+    } catch (UnsupportedOperationException e) { // current page is not dictionary encoded
+      return -1;
+    }
+  }
+
+  private void addStr(int colIdx, byte[] data) {
+    _bs.set(data);
+    addStr(colIdx, _bs);
+  }
+
+  // Same limit as WriterDelegate#addStrCol; values over the limit are NAs
+  private void addStr(int colIdx, BufferedString str) {
+    if (fitsStringLimit(colIdx, str.length()))
+      _writer.addStrCol(colIdx, str);
+    else
+      _writer.addInvalidCol(colIdx);
+  }
+
+  private boolean fitsStringLimit(int colIdx, int len) {
+    if (_colRawSize[colIdx] == -1)
+      return false; // already exceeded max length
+    long totalSize = (long) len + _colRawSize[colIdx];
+    if (totalSize > _maxStringSize) {
+      _colRawSize[colIdx] = -1;
+      Log.err("Total String size limit reached: skipping remaining values in column: " + colIdx + "!");
+      return false;
+    }
+    _colRawSize[colIdx] += len;
+    return true;
+  }
+
+  /**
+   * Root converter which only collects the dictionaries of the column chunks, values are read
+   * straight from the ColumnReaders.
+   */
+  private static class DictionaryCollector extends GroupConverter {
+    private final Dictionary[] _dicts;
+    private final Converter[] _converters;
+
+    DictionaryCollector(int ncols) {
+      _dicts = new Dictionary[ncols];
+      _converters = new Converter[ncols];
+      for (int i = 0; i < ncols; i++) {
+        final int col = i;
+        _converters[i] = new PrimitiveConverter() {
+          @Override
+          public boolean hasDictionarySupport() {
+            return true;
+          }
+
+          @Override
+          public void setDictionary(Dictionary dictionary) {
+            _dicts[col] = dictionary;
+          }
+
+          @Override
+          public void addValueFromDictionary(int dictionaryId) { }
+        };
+      }
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+      return _converters[fieldIndex];
+    }
+
+    @Override
+    public void start() { }
+
+    @Override
+    public void end() { }
+  }
+
+}
@@ -1,7 +1,9 @@
 package water.parser.parquet;
 
+import org.apache.parquet.column.statistics.*;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -14,10 +16,12 @@ import water.fvec.ByteVec;
 import water.fvec.Chunk;
 import water.fvec.Vec;
 import water.parser.*;
+import water.util.ArrayUtils;
 import water.util.IcedHashMapGeneric;
 import water.util.Log;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -95,11 +99,21 @@ public class ParquetParser extends Parser {
     ParquetMetadataConverter.MetadataFilter chunkFilter = ParquetMetadataConverter.range(
             chunk.start(), chunk.start() + chunk.len());
     ParquetMetadata metadata = VecParquetReader.readFooter(_metadata, chunkFilter);
+    if (_setup.getRowFilter() != null)
+      metadata = skipRowGroups(metadata, _setup.getColumnNames(), RowFilter.parse(_setup.getRowFilter()));
     if (metadata.getBlocks().isEmpty()) {
       Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
       return dout;
     }
     Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
+    if (ColumnarParquetReader.ENABLED && dout.getClass() == FVecParseWriter.class) {
+      try {
+        new ColumnarParquetReader(vec, metadata, (FVecParseWriter) dout, _setup.getColumnTypes(), _keepColumns).readAll();
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to parse records", e);
+      }
+      return dout;
+    }
     VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes(), _keepColumns, _setup.get_parse_columns_indices().length);
     try {
       Long recordNumber;
@@ -112,6 +126,67 @@ public class ParquetParser extends Parser {
     return dout;
   }
 
+  /**
+   * Drops the row groups whose column statistics show that none of their rows can match the row filter.
+   * The filter refers to the columns by the names of the parse setup, which follow the order of
+   * the fields of the file but may have been renamed.
+   */
+  static ParquetMetadata skipRowGroups(ParquetMetadata metadata, final String[] columnNames, RowFilter filter) {
+    final MessageType schema = metadata.getFileMetaData().getSchema();
+    List<BlockMetaData> blocks = new ArrayList<>(metadata.getBlocks().size());
+    for (final BlockMetaData block : metadata.getBlocks()) {
+      boolean skip = filter.canSkip(new RowFilter.Stats() {
+        @Override
+        public double[] range(String column) {
+          return statsRange(schema, block, ArrayUtils.find(columnNames, column));
+        }
+      });
+      if (!skip)
+        blocks.add(block);
+    }
+    if (blocks.size() == metadata.getBlocks().size())
+      return metadata;
+    Log.info("Row filter skipped ", metadata.getBlocks().size() - blocks.size(), " of ", metadata.getBlocks().size(), " row groups");
+    return new ParquetMetadata(metadata.getFileMetaData(), blocks);
+  }
+
+  private static double[] statsRange(MessageType schema, BlockMetaData block, int idx) {
+    if (idx < 0 || idx >= schema.getFieldCount() || !schema.getType(idx).isPrimitive())
+      return null;
+    PrimitiveType type = schema.getType(idx).asPrimitiveType();
+    OriginalType ot = type.getOriginalType();
+    if (ot == OriginalType.DECIMAL || ot == OriginalType.UINT_32 || ot == OriginalType.UINT_64)
+      return null; // statistics don't hold the values we parse (unscaled / signed order)
+    ColumnChunkMetaData columnChunk = null;
+    for (ColumnChunkMetaData c : block.getColumns()) {
+      String[] path = c.getPath().toArray();
+      if (path.length == 1 && path[0].equals(type.getName())) {
+        columnChunk = c;
+        break;
+      }
+    }
+    if (columnChunk == null)
+      return null;
+    Statistics stats = columnChunk.getStatistics();
+    if (stats == null || stats.isEmpty())
+      return null;
+    if (!stats.hasNonNullValue())
+      return stats.getNumNulls() == block.getRowCount() ? new double[0] : null;
+    double min, max;
+    if (stats instanceof IntStatistics) {
+      min = ((IntStatistics) stats).getMin(); max = ((IntStatistics) stats).getMax();
+    } else if (stats instanceof LongStatistics) {
+      min = ((LongStatistics) stats).getMin(); max = ((LongStatistics) stats).getMax();
+    } else if (stats instanceof FloatStatistics) {
+      min = ((FloatStatistics) stats).getMin(); max = ((FloatStatistics) stats).getMax();
+    } else if (stats instanceof DoubleStatistics) {
+      min = ((DoubleStatistics) stats).getMin(); max = ((DoubleStatistics) stats).getMax();
+    } else {
+      return null;
+    }
+    return Double.isNaN(min) || Double.isNaN(max) ? null : new double[]{min, max};
+  }
+
   public static ParquetParseSetup guessFormatSetup(ByteVec vec, byte[] bits) {
     if (bits.length < MAGIC.length) {
       return null;
@@ -29,7 +29,7 @@ final class WriterDelegate {
   }
 
   // For unit tests only: allows to set maximum string size in a test for all nodes
-  private int getMaxStringSize() {
+  static int getMaxStringSize() {
     Iced<?> maxSize = DKV.getGet(Key.make(WriterDelegate.class.getCanonicalName() + "_maxStringSize"));
     return (maxSize instanceof IcedInt) ? ((IcedInt) maxSize)._val : MAX_STR_LEN;
   }
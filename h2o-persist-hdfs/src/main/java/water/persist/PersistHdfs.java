@@ -517,6 +517,18 @@ public final class PersistHdfs extends Persist {
     }
   }
 
+  @Override
+  public String fingerprint(Key k) {
+    Path p = new Path(getPathForKey(k));
+    try {
+      FileStatus status = FileSystem.get(p.toUri(), CONF).getFileStatus(p);
+      return status.getLen() + ":" + status.getModificationTime();
+    } catch (IOException e) {
+      Log.debug("Cannot fingerprint " + p + ": " + e);
+      return null;
+    }
+  }
+
   @Override
   public long length(String path) {
     Path p = new Path(path);
@@ -340,6 +340,17 @@ public final class PersistS3 extends Persist {
     return getClient().getObject(r);
   }
 
+  @Override
+  public String fingerprint(Key k) {
+    try {
+      ObjectMetadata om = getObjectMetadataForKey(k);
+      return om.getContentLength() + ":" + om.getETag();
+    } catch (AmazonClientException e) {
+      LOG.debug("Cannot fingerprint " + k + ": " + e.getMessage());
+      return null;
+    }
+  }
+
   // Gets the object metadata associated with given key.
   private static ObjectMetadata getObjectMetadataForKey(Key k) {
     String[] bk = decodeKey(k);